@@ -3,8 +3,10 @@ package org.example.library;
 import java.sql.SQLException;
 import org.h2.tools.Server;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.example.library.repositories.BookRepository;
 
@@ -16,7 +18,9 @@ public class Main {
   }
 
   @Bean(initMethod = "start", destroyMethod = "stop")
-  public Server inMemoryH2DatabaseServer() throws SQLException {
-    return Server.createTcpServer("-tcp", "-tcpAllowOthers", "-tcpPort", "9091");
+  @ConditionalOnProperty(name = "library.h2.tcp.enabled", matchIfMissing = true)
+  public Server inMemoryH2DatabaseServer(@Value("${library.h2.tcp.port:9091}") String port)
+      throws SQLException {
+    return Server.createTcpServer("-tcp", "-tcpAllowOthers", "-tcpPort", port);
   }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package org.example.library.config;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * With {@code library.restore.from} pointing to a backup, restores it when the data source is
+ * created, before hibernate or anything else uses the database.
+ */
+@Configuration
+@ConditionalOnProperty("library.restore.from")
+public class DatabaseRestoreConfig {
+
+  @Bean
+  public static BeanPostProcessor databaseRestorePostProcessor(Environment environment) {
+    Path backup = Paths.get(environment.getRequiredProperty("library.restore.from"));
+    if (!Files.isRegularFile(backup)) {
+      throw new IllegalStateException("Backup " + backup + " doesn't exist");
+    }
+    DatabaseRestorer restorer = new DatabaseRestorer(
+        environment.getRequiredProperty("spring.datasource.url"), backup);
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && restorer.isBinary()) {
+          restorer.restoreFiles();
+        }
+        return bean;
+      }
+
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !restorer.isBinary()) {
+          restorer.restoreScript((DataSource) bean);
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,96 @@
+package org.example.library.config;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.h2.tools.Restore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Restores a backup made by {@code BackupService} into a database that doesn't hold any data
+ * yet; an existing database is never overwritten. A binary backup is unpacked into the database
+ * directory before anything connects, which is about as fast as copying the file. A script backup
+ * is replayed into the opened database, in-memory ones included.
+ */
+class DatabaseRestorer {
+  private static final Logger LOG = LoggerFactory.getLogger(DatabaseRestorer.class);
+
+  private final String url;
+  private final Path backup;
+
+  DatabaseRestorer(String url, Path backup) {
+    this.url = url;
+    this.backup = backup;
+  }
+
+  boolean isBinary() {
+    return backup.getFileName().toString().endsWith(".zip");
+  }
+
+  /**
+   * Unpacks a binary backup next to where the database file is expected, unless it exists.
+   */
+  void restoreFiles() {
+    Path database = databasePath();
+    Path directory = database.toAbsolutePath().getParent();
+    String name = database.getFileName().toString();
+    if (Files.exists(directory.resolve(name + ".mv.db"))) {
+      LOG.info("Database {} exists, not restoring {}", database, backup);
+      return;
+    }
+    long started = System.currentTimeMillis();
+    Restore.execute(backup.toString(), directory.toString(), name);
+    if (!Files.exists(directory.resolve(name + ".mv.db"))) {
+      throw new IllegalStateException("Backup " + backup + " doesn't contain database " + name);
+    }
+    LOG.info("Database {} restored from {} in {} ms", database, backup,
+        System.currentTimeMillis() - started);
+  }
+
+  /**
+   * Replays a script backup if the database has no tables yet.
+   */
+  void restoreScript(DataSource dataSource) {
+    long started = System.currentTimeMillis();
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      try (ResultSet tables = statement.executeQuery("SELECT COUNT(*) FROM "
+          + "INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'")) {
+        tables.next();
+        if (tables.getLong(1) > 0) {
+          LOG.info("Database {} holds tables, not restoring {}", url, backup);
+          return;
+        }
+      }
+      statement.execute("RUNSCRIPT FROM '" + backup.toAbsolutePath().toString().replace("'", "''")
+          + "'" + (backup.getFileName().toString().endsWith(".gz") ? " COMPRESSION GZIP" : ""));
+    } catch (SQLException e) {
+      throw new IllegalStateException("Can't restore " + backup + " into " + url, e);
+    }
+    LOG.info("Database {} restored from {} in {} ms", url, backup,
+        System.currentTimeMillis() - started);
+  }
+
+  /**
+   * The file database path of a {@code jdbc:h2:[file:]<path>[;settings]} url.
+   */
+  private Path databasePath() {
+    String path = url.startsWith("jdbc:h2:") ? url.substring("jdbc:h2:".length()) : "";
+    int settings = path.indexOf(';');
+    path = settings >= 0 ? path.substring(0, settings) : path;
+    if (path.startsWith("file:")) {
+      path = path.substring("file:".length());
+    } else if (path.startsWith("mem:") || path.startsWith("tcp:") || path.startsWith("ssl:")
+        || path.isEmpty()) {
+      throw new IllegalStateException("Binary backup " + backup + " can only be restored into a "
+          + "local file database, not " + url);
+    }
+    return Paths.get(path);
+  }
+}
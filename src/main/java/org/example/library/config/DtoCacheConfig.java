@@ -0,0 +1,38 @@
+package org.example.library.config;
+
+import org.example.library.service.DtoCache;
+import org.example.library.service.Versioned;
+import org.example.library.service.dto.AuthorDTO;
+import org.example.library.service.dto.BookDTO;
+import org.example.library.service.dto.ReaderDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches of converted DTOs, with their entity versions, served by {@code GET /author},
+ * {@code /book} and {@code /reader}.
+ * Size and expiry come from {@code library.dto-cache.<name>.spec} in caffeine spec format.
+ */
+@Configuration
+public class DtoCacheConfig {
+  private static final String DEFAULT_SPEC = "maximumSize=10000,expireAfterWrite=10m";
+
+  @Bean
+  public DtoCache<Versioned<AuthorDTO>> authorDtoCache(
+      @Value("${library.dto-cache.author.spec:" + DEFAULT_SPEC + "}") String spec) {
+    return new DtoCache<>(spec);
+  }
+
+  @Bean
+  public DtoCache<Versioned<BookDTO>> bookDtoCache(
+      @Value("${library.dto-cache.book.spec:" + DEFAULT_SPEC + "}") String spec) {
+    return new DtoCache<>(spec);
+  }
+
+  @Bean
+  public DtoCache<Versioned<ReaderDTO>> readerDtoCache(
+      @Value("${library.dto-cache.reader.spec:" + DEFAULT_SPEC + "}") String spec) {
+    return new DtoCache<>(spec);
+  }
+}
@@ -0,0 +1,46 @@
+package org.example.library.config;
+
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.example.library.controller.StatementBudgetInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Routes every JDBC statement through the {@link StatementTracker} by wrapping the data source,
+ * and lets it know which controller method is running.
+ */
+@Configuration
+public class JdbcStatementConfig implements WebMvcConfigurer {
+  private final StatementTracker statementTracker;
+
+  public JdbcStatementConfig(StatementTracker statementTracker) {
+    this.statementTracker = statementTracker;
+  }
+
+  @Bean
+  public static BeanPostProcessor trackingDataSourcePostProcessor(
+      ObjectProvider<StatementTracker> statementTracker) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+          return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+              .listener(statementTracker.getObject())
+              .build();
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new StatementBudgetInterceptor(statementTracker));
+  }
+}
@@ -0,0 +1,77 @@
+package org.example.library.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Times every public method of the services ({@code library.service}) and of the repositories
+ * ({@code library.repository}), tagged with the class, the method and the exception thrown, if
+ * any. Repository time is the time spent in the database, including mapping the rows.
+ */
+@Aspect
+public class MethodMetricsAspect {
+  static final String SERVICE_TIMER = "library.service";
+  static final String REPOSITORY_TIMER = "library.repository";
+
+  private final MeterRegistry registry;
+  private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+  public MethodMetricsAspect(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Around("execution(public * org.example.library.service..*(..))"
+      + " && @within(org.springframework.stereotype.Service)")
+  public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(SERVICE_TIMER,
+        ClassUtils.getUserClass(AopUtils.getTargetClass(joinPoint.getTarget())).getSimpleName(),
+        joinPoint);
+  }
+
+  @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+  public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(REPOSITORY_TIMER,
+        repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), this::repositoryName),
+        joinPoint);
+  }
+
+  private Object time(String name, String className, ProceedingJoinPoint joinPoint)
+      throws Throwable {
+    Timer.Sample sample = Timer.start(registry);
+    String exception = "none";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      exception = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      sample.stop(Timer.builder(name)
+          .tag("class", className)
+          .tag("method", joinPoint.getSignature().getName())
+          .tag("exception", exception)
+          .register(registry));
+    }
+  }
+
+  /**
+   * The application interface a repository proxy implements, rather than the Spring Data base
+   * interface that happens to declare the called method.
+   */
+  private String repositoryName(Class<?> proxyClass) {
+    for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(proxyClass)) {
+      if (Repository.class.isAssignableFrom(type)
+          && !type.getName().startsWith("org.springframework.")) {
+        return type.getSimpleName();
+      }
+    }
+    return proxyClass.getSimpleName();
+  }
+}
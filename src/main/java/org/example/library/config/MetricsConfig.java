@@ -0,0 +1,27 @@
+package org.example.library.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics beyond those Spring Boot collects on its own (web requests, HikariCP, hibernate
+ * statistics): service and repository method timers and per session JDBC statement counts.
+ * Everything is published at {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public MethodMetricsAspect methodMetricsAspect(MeterRegistry registry) {
+    return new MethodMetricsAspect(registry);
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer sessionMetricsCustomizer() {
+    return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+        SessionMetricsListener.class.getName());
+  }
+}
@@ -0,0 +1,92 @@
+package org.example.library.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Ehcache regions backing the hibernate second-level cache. Every region is bounded by entry
+ * count and expires entries either after a fixed time ({@code ttl}) or after a period without
+ * access ({@code tti}); both come from {@code library.cache.<region>.*} properties.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+  static final String AUTHOR_REGION = Author.class.getName();
+  static final String BOOK_REGION = Book.class.getName();
+  static final String BOOK_AUTHORS_REGION = Book.class.getName() + ".authors";
+
+  @Bean(destroyMethod = "close")
+  public CacheManager secondLevelCacheManager(Environment environment) {
+    // a dedicated manager per application context, so several contexts don't share regions
+    EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+        EhcacheCachingProvider.class.getName());
+    CacheManager cacheManager = provider.getCacheManager(
+        URI.create("urn:library-l2:" + UUID.randomUUID()),
+        new DefaultConfiguration(getClass().getClassLoader()));
+    createRegion(cacheManager, environment, AUTHOR_REGION, "author");
+    createRegion(cacheManager, environment, BOOK_REGION, "book");
+    createRegion(cacheManager, environment, BOOK_AUTHORS_REGION, "book-authors");
+    createRegion(cacheManager, environment,
+        RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, "query");
+    // query results are only valid while their tables' timestamps are known, so never expire them
+    cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+        Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(10_000))
+            .withExpiry(ExpiryPolicyBuilder.noExpiration())
+            .build()));
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+      CacheManager secondLevelCacheManager) {
+    return properties -> {
+      properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+      properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    };
+  }
+
+  private void createRegion(CacheManager cacheManager, Environment environment, String region,
+      String name) {
+    String prefix = "library.cache." + name + ".";
+    long maxEntries = environment.getProperty(prefix + "max-entries", Long.class, 10_000L);
+    Duration expiry = environment.getProperty(prefix + "expiry", Duration.class,
+        Duration.ofHours(1));
+    String policy = environment.getProperty(prefix + "expiry-policy", "ttl");
+
+    ExpiryPolicy<Object, Object> expiryPolicy;
+    if ("ttl".equalsIgnoreCase(policy)) {
+      expiryPolicy = ExpiryPolicyBuilder.timeToLiveExpiration(expiry);
+    } else if ("tti".equalsIgnoreCase(policy)) {
+      expiryPolicy = ExpiryPolicyBuilder.timeToIdleExpiration(expiry);
+    } else {
+      throw new IllegalStateException("Unknown expiry policy '" + policy + "' of cache " + name);
+    }
+
+    CacheConfiguration<Object, Object> configuration = CacheConfigurationBuilder
+        .newCacheConfigurationBuilder(Object.class, Object.class,
+            ResourcePoolsBuilder.heap(maxEntries))
+        .withExpiry(expiryPolicy)
+        .build();
+    cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(configuration));
+  }
+}
@@ -0,0 +1,56 @@
+package org.example.library.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Records per hibernate session how many JDBC statements were executed
+ * ({@code library.session.statements}) and how long they took ({@code library.session.jdbc}).
+ * With the session kept open for the whole web request these are per request numbers. Hibernate
+ * creates one instance per session, so the meters go to the global registry.
+ */
+public class SessionMetricsListener extends BaseSessionEventListener {
+  static final String STATEMENTS_SUMMARY = "library.session.statements";
+  static final String JDBC_TIMER = "library.session.jdbc";
+
+  private int statements;
+  private long jdbcNanos;
+  private long started;
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    started = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    statements++;
+    jdbcNanos += System.nanoTime() - started;
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    started = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    statements++;
+    jdbcNanos += System.nanoTime() - started;
+  }
+
+  @Override
+  public void end() {
+    DistributionSummary.builder(STATEMENTS_SUMMARY)
+        .description("JDBC statements executed by one hibernate session")
+        .register(Metrics.globalRegistry)
+        .record(statements);
+    Timer.builder(JDBC_TIMER)
+        .description("Time one hibernate session spent executing JDBC statements")
+        .register(Metrics.globalRegistry)
+        .record(jdbcNanos, TimeUnit.NANOSECONDS);
+  }
+}
@@ -0,0 +1,167 @@
+package org.example.library.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sees every JDBC statement the application executes. Each one is logged at debug level with its
+ * time; statements slower than {@code library.jdbc.slow-query-threshold} are logged as warnings
+ * with their bind parameters and the controller method they were issued from.
+ *
+ * <p>A request can be given a statement budget (see {@link #begin}). Going over it is logged once
+ * per request, or, with {@code library.jdbc.statement-budget.enforce} set as in the tests, fails
+ * the statement so the request ends with an error.
+ */
+@Component
+public class StatementTracker implements QueryExecutionListener {
+  private static final Logger LOG = LoggerFactory.getLogger(StatementTracker.class);
+
+  public static final int NO_BUDGET = -1;
+
+  private final ThreadLocal<Scope> scope = new ThreadLocal<>();
+  private final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+  private final long slowQueryMillis;
+  private final boolean enforceBudgets;
+
+  public StatementTracker(
+      @Value("${library.jdbc.slow-query-threshold:200ms}") Duration slowQueryThreshold,
+      @Value("${library.jdbc.statement-budget.enforce:false}") boolean enforceBudgets) {
+    this.slowQueryMillis = slowQueryThreshold.toMillis();
+    this.enforceBudgets = enforceBudgets;
+  }
+
+  /**
+   * Attributes the statements of the current thread to {@code origin} until {@link #end()},
+   * allowing at most {@code budget} of them, or any number with {@link #NO_BUDGET}.
+   */
+  public void begin(String origin, int budget) {
+    scope.set(new Scope(origin, budget));
+  }
+
+  public void end() {
+    scope.remove();
+  }
+
+  /**
+   * Collects the SQL of the statements the current thread executes until the recording is closed.
+   */
+  public Recording startRecording() {
+    List<String> statements = new ArrayList<>();
+    recording.set(statements);
+    return new Recording(statements);
+  }
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    Scope current = scope.get();
+    if (current == null || current.budget == NO_BUDGET || ++current.statements <= current.budget) {
+      return;
+    }
+    String message = current.origin + " exceeded its budget of " + current.budget
+        + " statements with: " + sql(queryInfoList);
+    if (enforceBudgets) {
+      throw new IllegalStateException(message);
+    }
+    if (!current.reported) {
+      current.reported = true;
+      LOG.warn(message);
+    }
+  }
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    List<String> statements = recording.get();
+    if (statements != null) {
+      statements.add(sql(queryInfoList));
+    }
+    long elapsed = execInfo.getElapsedTime();
+    if (elapsed >= slowQueryMillis) {
+      LOG.warn("Slow statement of {} ms from {}: {} {}", elapsed, origin(),
+          sql(queryInfoList), parameters(queryInfoList));
+    } else if (LOG.isDebugEnabled()) {
+      LOG.debug("Statement of {} ms from {}: {} {}", elapsed, origin(), sql(queryInfoList),
+          parameters(queryInfoList));
+    }
+  }
+
+  private String origin() {
+    Scope current = scope.get();
+    return current != null ? current.origin : Thread.currentThread().getName();
+  }
+
+  private static String sql(List<QueryInfo> queries) {
+    if (queries.size() == 1) {
+      return queries.get(0).getQuery();
+    }
+    StringBuilder sql = new StringBuilder();
+    for (QueryInfo query : queries) {
+      sql.append(sql.length() == 0 ? "" : "; ").append(query.getQuery());
+    }
+    return sql.toString();
+  }
+
+  /**
+   * Bind parameters by position, one list per batched execution.
+   */
+  private static String parameters(List<QueryInfo> queries) {
+    List<List<Object>> executions = new ArrayList<>();
+    for (QueryInfo query : queries) {
+      for (List<ParameterSetOperation> operations : query.getParametersList()) {
+        Map<Integer, Object> values = new TreeMap<>();
+        for (ParameterSetOperation operation : operations) {
+          Object[] args = operation.getArgs();
+          if (args.length > 0 && args[0] instanceof Integer) {
+            values.put((Integer) args[0], ParameterSetOperation.isSetNullParameterOperation(
+                operation) || args.length < 2 ? null : args[1]);
+          }
+        }
+        executions.add(new ArrayList<>(values.values()));
+      }
+    }
+    return executions.toString();
+  }
+
+  private static class Scope {
+    final String origin;
+    final int budget;
+    int statements;
+    boolean reported;
+
+    Scope(String origin, int budget) {
+      this.origin = origin;
+      this.budget = budget;
+    }
+  }
+
+  /**
+   * Statements recorded by {@link #startRecording()}, in execution order.
+   */
+  public class Recording implements AutoCloseable {
+    private final List<String> statements;
+
+    private Recording(List<String> statements) {
+      this.statements = statements;
+    }
+
+    public List<String> getStatements() {
+      return Collections.unmodifiableList(statements);
+    }
+
+    @Override
+    public void close() {
+      recording.remove();
+    }
+  }
+}
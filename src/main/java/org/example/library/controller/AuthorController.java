@@ -1,15 +1,32 @@
 package org.example.library.controller;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletResponse;
 import org.example.library.controller.converter.AuthorConverter;
-import org.example.library.controller.dto.AuthorDTO;
-import org.example.library.controller.dto.ErrorDTO;
+import org.example.library.controller.converter.BookConverter;
+import org.example.library.controller.dto.AuthorSearchHitDTO;
+import org.example.library.controller.dto.BatchDTO;
+import org.example.library.controller.dto.PageDTO;
 import org.example.library.entities.Author;
+import org.example.library.repositories.EntityProjection;
+import org.example.library.service.AuthorBooksService;
 import org.example.library.service.AuthorService;
-import org.example.library.service.NotFoundException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.example.library.service.BatchReadService;
+import org.example.library.service.DtoCache;
+import org.example.library.service.EntityVersion;
+import org.example.library.service.NameSearchHit;
+import org.example.library.service.NameSearchService;
+import org.example.library.service.Versioned;
+import org.example.library.service.dto.AuthorBooksDTO;
+import org.example.library.service.dto.AuthorDTO;
+import org.example.library.service.dto.BookDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,94 +38,142 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/author")
 public class AuthorController {
-  private static final Logger LOG = LoggerFactory.getLogger(AuthorController.class);
-
   @Autowired
   private AuthorService authorService;
   @Autowired
   private AuthorConverter authorConverter;
+  @Autowired
+  private BatchReadService batchReadService;
+  @Autowired
+  private DtoCache<Versioned<AuthorDTO>> authorDtoCache;
+  @Autowired
+  private JsonArrayWriter jsonArrayWriter;
+  @Autowired
+  private AuthorBooksService authorBooksService;
+  @Autowired
+  private BookConverter bookConverter;
+  @Autowired
+  private NameSearchService nameSearchService;
 
   @PostMapping
   public ResponseEntity<Object> createAuthor(@RequestBody AuthorDTO dto) {
-    try {
-      Author entity = authorService.createAuthor(dto.getFirstName(), dto.getLastName());
-      return new ResponseEntity<>(authorConverter.apply(entity), HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on author creation, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on author creation, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    Author entity = authorService.createAuthor(dto.getFirstName(), dto.getLastName());
+    return new ResponseEntity<>(authorConverter.apply(entity), HttpStatus.OK);
   }
 
   @PutMapping
   public ResponseEntity<Object> updateAuthor(@RequestBody AuthorDTO dto) {
-    try {
-      Author updatedAuthor =
-          authorService.updateAuthor(dto.getId(), dto.getFirstName(), dto.getLastName());
-      return new ResponseEntity<>(authorConverter.apply(updatedAuthor), HttpStatus.OK);
-    } catch (NotFoundException e) {
-      LOG.warn("Not found on author update, dto=" + dto, e);
-      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on author update, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on author update, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    Author updatedAuthor =
+        authorService.updateAuthor(dto.getId(), dto.getFirstName(), dto.getLastName());
+    return new ResponseEntity<>(authorConverter.apply(updatedAuthor), HttpStatus.OK);
   }
 
   @GetMapping
-  public ResponseEntity<Object> getAuthor(@RequestParam("id") long id) {
-    try {
-      Author author = authorService.findById(id);
+  @StatementBudget(2)
+  public ResponseEntity<Object> getAuthor(@RequestParam("id") long id,
+      @RequestParam(value = "fields", required = false) List<String> fields,
+      WebRequest request) {
+    if (fields != null) {
+      return FieldRows.single(batchReadService.findFields(EntityProjection.AUTHOR,
+          Collections.singletonList(id), fields));
+    }
+    return ConditionalGet.get(request, id, authorDtoCache, authorService::findVersion, key -> {
+      Author author = authorService.findById(key);
+      return author != null ? new Versioned<>(authorConverter.apply(author),
+          new EntityVersion(author.getVersion(), author.getLastModified())) : null;
+    });
+  }
+
+  @GetMapping("/batch")
+  @StatementBudget(1)
+  public ResponseEntity<Object> getAuthors(@RequestParam("ids") List<Long> ids,
+      @RequestParam(value = "fields", required = false) List<String> fields) {
+    if (fields != null) {
+      List<Map<String, Object>> found =
+          batchReadService.findFields(EntityProjection.AUTHOR, ids, fields);
+      return new ResponseEntity<>(BatchDTO.of(ids, found, FieldRows::id), HttpStatus.OK);
+    }
+    List<AuthorDTO> found = batchReadService.findAuthors(ids).stream()
+        .map(authorConverter).collect(Collectors.toList());
+    return new ResponseEntity<>(BatchDTO.of(ids, found, AuthorDTO::getId), HttpStatus.OK);
+  }
+
+  @GetMapping("/search")
+  @StatementBudget(1)
+  public ResponseEntity<Object> searchAuthors(@RequestParam("q") String query,
+      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+    List<NameSearchHit> hits = nameSearchService.searchAuthors(query, limit);
+    if (hits.isEmpty()) {
+      return new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK);
+    }
+    List<Long> ids = hits.stream().map(NameSearchHit::getId).collect(Collectors.toList());
+    Map<Long, AuthorDTO> authors = batchReadService.findAuthors(ids).stream()
+        .map(authorConverter).collect(Collectors.toMap(AuthorDTO::getId, Function.identity()));
+    List<AuthorSearchHitDTO> found = new ArrayList<>(hits.size());
+    for (NameSearchHit hit : hits) {
+      AuthorDTO author = authors.get(hit.getId());
       if (author != null) {
-        return new ResponseEntity<>(authorConverter.apply(author), HttpStatus.OK);
-      } else {
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        found.add(new AuthorSearchHitDTO(hit.getScore(), author));
       }
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on author get, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on author get, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
     }
+    return new ResponseEntity<>(found, HttpStatus.OK);
+  }
+
+  @GetMapping("/books")
+  @StatementBudget(1)
+  public ResponseEntity<Object> getBooks(@RequestParam("id") long id,
+      @RequestParam(value = "limit", defaultValue = "100") int limit,
+      @RequestParam(value = "after", defaultValue = "0") long after) {
+    List<Long> bookIds = authorBooksService.findBookIds(id, after, limit);
+    List<BookDTO> books = bookIds.isEmpty() ? Collections.emptyList()
+        : batchReadService.findBooks(bookIds).stream().map(bookConverter)
+            .sorted(Comparator.comparing(BookDTO::getId)).collect(Collectors.toList());
+    // the cursor follows the index, even if a book was deleted since it was read
+    Long next = bookIds.size() < limit ? null : bookIds.get(bookIds.size() - 1);
+    return new ResponseEntity<>(new PageDTO<>(books, next), HttpStatus.OK);
+  }
+
+  @GetMapping("/books/batch")
+  @StatementBudget(0)
+  public ResponseEntity<Object> getBookIds(@RequestParam("ids") List<Long> ids,
+      @RequestParam(value = "limit", defaultValue = "100") int limit) {
+    List<AuthorBooksDTO> found = authorBooksService.findBookIds(ids, limit);
+    return new ResponseEntity<>(BatchDTO.of(ids, found, AuthorBooksDTO::getAuthorId),
+        HttpStatus.OK);
   }
 
   @DeleteMapping
   public ResponseEntity<Object> deleteAuthor(@RequestParam("id") long id) {
-    try {
-      authorService.deleteById(id);
-      return new ResponseEntity<>("OK", HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on author delete, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on author delete, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    authorService.deleteById(id);
+    return new ResponseEntity<>("OK", HttpStatus.OK);
   }
 
   @GetMapping("/findByLastName")
-  public ResponseEntity<Object> findByLastName(@RequestParam("lastName") String lastName) {
-    try {
-      List<AuthorDTO> authorDtos = authorService.findByLastName(lastName).stream()
-          .map(authorConverter)
-          .collect(Collectors.toList());
-      return new ResponseEntity<>(authorDtos, HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on author findByLastName, lastName=" + lastName, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on author findByLastName, lastName=" + lastName, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+  @StatementBudget(1)
+  public ResponseEntity<Object> findByLastName(@RequestParam("lastName") String lastName,
+      @RequestParam(value = "limit", required = false) Integer limit,
+      @RequestParam(value = "after", defaultValue = "0") long after,
+      @RequestParam(value = "fields", required = false) List<String> fields,
+      HttpServletResponse response) throws IOException {
+    if (fields != null) {
+      if (limit != null) {
+        List<Map<String, Object>> rows =
+            authorService.findByLastName(lastName, after, limit, fields);
+        return new ResponseEntity<>(PageDTO.of(rows, limit, FieldRows::id), HttpStatus.OK);
+      }
+      return jsonArrayWriter.<Map<String, Object>>write(response,
+          consumer -> authorService.streamByLastName(lastName, fields, consumer));
+    }
+    if (limit != null) {
+      List<AuthorDTO> authorDtos = authorService.findByLastName(lastName, after, limit);
+      return new ResponseEntity<>(PageDTO.of(authorDtos, limit, AuthorDTO::getId), HttpStatus.OK);
     }
+    return jsonArrayWriter.<AuthorDTO>write(response,
+        consumer -> authorService.streamByLastName(lastName, consumer));
   }
 }
@@ -0,0 +1,350 @@
+package org.example.library.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.example.library.controller.dto.AvailabilityDTO;
+import org.example.library.service.AvailabilityService;
+import org.example.library.service.NotFoundException;
+import org.example.library.service.ServiceUnavailableException;
+import org.example.library.service.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes whether subscribed books are on the shelf today as server-sent events. Subscribers are
+ * kept per book id; {@link AvailabilityService} reports every committed loan change and the book
+ * is queued for a small pool of {@code library.availability-push.threads} threads, which compute
+ * its availability once and queue an event for the subscribers for which it changed. Repeated
+ * changes of a book queued meanwhile are sent once. Idle connections hold no thread, only their
+ * {@link SseEmitter}; every {@code heartbeat} the pool queues each subscriber a comment, which
+ * drops dead connections, and rechecks all books, since a loan starting or ending today changes
+ * availability without a change of the loan.
+ *
+ * <p>Events are written by a separate pool of {@code send-threads} threads, one send at a time
+ * per subscriber, with the events queued meanwhile reduced to the latest one per book. A client
+ * that stops reading therefore holds at most one sending thread and never delays the others. A
+ * subscriber whose send takes longer than {@code send-timeout} is dropped at the next heartbeat;
+ * the emitter is left to the blocked send, which fails once the container times the write out.
+ */
+@Component
+public class AvailabilityPublisher {
+  private static final Logger LOG = LoggerFactory.getLogger(AvailabilityPublisher.class);
+  static final String EVENT = "availability";
+
+  @Autowired
+  private AvailabilityService availabilityService;
+
+  private final int maxBooks;
+  private final int maxSubscribers;
+  private final Duration timeout;
+  private final Duration heartbeat;
+  private final int threads;
+  private final Duration sendTimeout;
+  private final int sendThreads;
+  private final Map<Long, Set<Subscriber>> subscribersByBook = new ConcurrentHashMap<>();
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+  private ScheduledExecutorService executor;
+  private ExecutorService senders;
+
+  public AvailabilityPublisher(AvailabilityService availabilityService,
+      @Value("${library.batch-read.max-size:100}") int maxBooks,
+      @Value("${library.availability-push.max-subscribers:10000}") int maxSubscribers,
+      @Value("${library.availability-push.timeout:30m}") Duration timeout,
+      @Value("${library.availability-push.heartbeat:20s}") Duration heartbeat,
+      @Value("${library.availability-push.threads:2}") int threads,
+      @Value("${library.availability-push.send-timeout:10s}") Duration sendTimeout,
+      @Value("${library.availability-push.send-threads:4}") int sendThreads) {
+    this.availabilityService = availabilityService;
+    this.maxBooks = maxBooks;
+    this.maxSubscribers = maxSubscribers;
+    this.timeout = timeout;
+    this.heartbeat = heartbeat;
+    this.threads = threads;
+    this.sendTimeout = sendTimeout;
+    this.sendThreads = sendThreads;
+  }
+
+  @PostConstruct
+  public void start() {
+    executor = Executors.newScheduledThreadPool(threads, daemonThreads("availability-push-"));
+    senders = Executors.newFixedThreadPool(sendThreads, daemonThreads("availability-send-"));
+    executor.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(),
+        TimeUnit.MILLISECONDS);
+    availabilityService.addListener(this::bookChanged);
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdownNow();
+    senders.shutdownNow();
+    for (Subscriber subscriber : subscribers) {
+      subscriber.emitter.complete();
+    }
+  }
+
+  /**
+   * Sends the current availability of every book right away, then its changes.
+   *
+   * @throws NotFoundException if one of the books doesn't exist
+   * @throws ServiceUnavailableException if there are {@code max-subscribers} already
+   */
+  public SseEmitter subscribe(List<Long> bookIds) {
+    if (bookIds == null || bookIds.isEmpty()) {
+      throw new ValidationException("Book ids are not specified");
+    }
+    Set<Long> distinctIds = new LinkedHashSet<>(bookIds);
+    if (distinctIds.contains(null)) {
+      throw new ValidationException("Book ids contain null");
+    }
+    if (distinctIds.size() > maxBooks) {
+      throw new ValidationException("Book ids count " + distinctIds.size()
+          + " exceeds maximum " + maxBooks);
+    }
+    if (subscribers.size() >= maxSubscribers) {
+      throw new ServiceUnavailableException("Too many availability subscribers",
+          (int) heartbeat.getSeconds());
+    }
+    Subscriber subscriber = new Subscriber(createEmitter(timeout), distinctIds);
+    subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+    subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+    subscriber.emitter.onError(e -> unsubscribe(subscriber));
+    subscribers.add(subscriber);
+    LocalDate today = LocalDate.now();
+    try {
+      for (Long bookId : distinctIds) {
+        Set<Subscriber> bookSubscribers = subscribersByBook.compute(bookId, (id, current) -> {
+          Set<Subscriber> result = current == null ? ConcurrentHashMap.newKeySet() : current;
+          result.add(subscriber);
+          return result;
+        });
+        // under the lock of publish(), so a change published meanwhile isn't overwritten
+        synchronized (bookSubscribers) {
+          subscriber.offer(bookId, today, isAvailableOn(bookId, today));
+        }
+      }
+    } catch (RuntimeException e) {
+      unsubscribe(subscriber);
+      throw e;
+    }
+    // events sent before the handler returns are buffered by the emitter
+    subscriber.flush();
+    return subscriber.emitter;
+  }
+
+  int subscriberCount() {
+    return subscribers.size();
+  }
+
+  SseEmitter createEmitter(Duration timeout) {
+    return new SseEmitter(timeout.toMillis());
+  }
+
+  private void bookChanged(long bookId) {
+    if (!subscribersByBook.containsKey(bookId) || !queued.add(bookId)) {
+      return;
+    }
+    try {
+      executor.execute(() -> {
+        queued.remove(bookId);
+        publish(bookId, LocalDate.now());
+      });
+    } catch (RejectedExecutionException e) {
+      queued.remove(bookId);
+    }
+  }
+
+  private void publish(long bookId, LocalDate today) {
+    Set<Subscriber> bookSubscribers = subscribersByBook.get(bookId);
+    if (bookSubscribers == null) {
+      return;
+    }
+    List<Subscriber> changed = new ArrayList<>();
+    // a change and a heartbeat may publish the same book at once, the later one is queued last
+    synchronized (bookSubscribers) {
+      boolean available;
+      try {
+        available = isAvailableOn(bookId, today);
+      } catch (NotFoundException e) {
+        return;
+      }
+      for (Subscriber subscriber : bookSubscribers) {
+        if (subscriber.offer(bookId, today, available)) {
+          changed.add(subscriber);
+        }
+      }
+    }
+    for (Subscriber subscriber : changed) {
+      subscriber.flush();
+    }
+  }
+
+  private void heartbeat() {
+    try {
+      LocalDate today = LocalDate.now();
+      for (Long bookId : subscribersByBook.keySet()) {
+        publish(bookId, today);
+      }
+      long now = System.nanoTime();
+      for (Subscriber subscriber : subscribers) {
+        if (subscriber.dropIfStalled(now)) {
+          LOG.info("Availability subscriber dropped, its send took longer than {}", sendTimeout);
+          unsubscribe(subscriber);
+        } else {
+          subscriber.offerHeartbeat();
+          subscriber.flush();
+        }
+      }
+    } catch (RuntimeException e) {
+      // an exception would cancel the next heartbeats
+      LOG.warn("Availability heartbeat failed", e);
+    }
+  }
+
+  private void unsubscribe(Subscriber subscriber) {
+    if (!subscribers.remove(subscriber)) {
+      return;
+    }
+    for (Long bookId : subscriber.bookIds) {
+      subscribersByBook.computeIfPresent(bookId, (id, bookSubscribers) -> {
+        bookSubscribers.remove(subscriber);
+        return bookSubscribers.isEmpty() ? null : bookSubscribers;
+      });
+    }
+  }
+
+  private boolean isAvailableOn(long bookId, LocalDate day) {
+    return availabilityService.isAvailable(bookId, day, day.plusDays(1));
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + count.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private class Subscriber {
+    private final SseEmitter emitter;
+    private final Set<Long> bookIds;
+    // the fields below are guarded by this
+    // last availability queued per book
+    private final Map<Long, Boolean> offered = new HashMap<>();
+    private final Map<Long, AvailabilityDTO> pending = new LinkedHashMap<>();
+    private boolean heartbeatPending;
+    private boolean sending;
+    private long sendingSince;
+    private boolean dropped;
+
+    Subscriber(SseEmitter emitter, Set<Long> bookIds) {
+      this.emitter = emitter;
+      this.bookIds = bookIds;
+    }
+
+    /**
+     * @return whether the availability changed and an event is queued
+     */
+    synchronized boolean offer(long bookId, LocalDate today, boolean available) {
+      if (Objects.equals(offered.put(bookId, available), available)) {
+        return false;
+      }
+      pending.put(bookId, new AvailabilityDTO(bookId, today, today.plusDays(1), available));
+      return true;
+    }
+
+    synchronized void offerHeartbeat() {
+      heartbeatPending = true;
+    }
+
+    synchronized boolean dropIfStalled(long now) {
+      dropped = sending && now - sendingSince > sendTimeout.toNanos();
+      return dropped;
+    }
+
+    /**
+     * Hands the queued events to a sending thread, unless one is sending to this subscriber
+     * already; it takes them after its current send.
+     */
+    void flush() {
+      synchronized (this) {
+        if (sending || dropped || (pending.isEmpty() && !heartbeatPending)) {
+          return;
+        }
+        sending = true;
+        sendingSince = System.nanoTime();
+      }
+      try {
+        senders.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        synchronized (this) {
+          sending = false;
+        }
+      }
+    }
+
+    private void drain() {
+      while (true) {
+        List<AvailabilityDTO> events;
+        boolean sendHeartbeat;
+        boolean wasDropped;
+        synchronized (this) {
+          wasDropped = dropped;
+          if (!wasDropped && pending.isEmpty() && !heartbeatPending) {
+            sending = false;
+            return;
+          }
+          events = new ArrayList<>(pending.values());
+          pending.clear();
+          sendHeartbeat = heartbeatPending;
+          heartbeatPending = false;
+          sendingSince = System.nanoTime();
+        }
+        if (wasDropped) {
+          // the send completed after all, but the subscriber is gone; the client reconnects
+          emitter.complete();
+          return;
+        }
+        try {
+          for (AvailabilityDTO event : events) {
+            emitter.send(SseEmitter.event().name(EVENT).data(event, MediaType.APPLICATION_JSON));
+          }
+          if (sendHeartbeat) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+          }
+        } catch (IOException | IllegalStateException e) {
+          // the client is gone or the emitter has completed; sending stays set, nothing more
+          // is sent to it
+          unsubscribe(this);
+          emitter.completeWithError(e);
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package org.example.library.controller;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.example.library.controller.dto.BackupDTO;
+import org.example.library.service.Backup;
+import org.example.library.service.BackupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/backup")
+public class BackupController {
+  @Autowired
+  private BackupService backupService;
+
+  @PostMapping
+  public ResponseEntity<Object> createBackup(
+      @RequestParam(value = "format", defaultValue = BackupService.BINARY) String format) {
+    return new ResponseEntity<>(toDto(backupService.backup(format)), HttpStatus.OK);
+  }
+
+  @GetMapping
+  public ResponseEntity<Object> getBackups() {
+    List<BackupDTO> backups = backupService.findAll().stream()
+        .map(BackupController::toDto)
+        .collect(Collectors.toList());
+    return new ResponseEntity<>(backups, HttpStatus.OK);
+  }
+
+  private static BackupDTO toDto(Backup backup) {
+    return new BackupDTO(backup.getFileName(), backup.getFormat(), backup.getSize());
+  }
+}
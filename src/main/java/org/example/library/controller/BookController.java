@@ -1,13 +1,28 @@
 package org.example.library.controller;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.example.library.controller.converter.BookConverter;
-import org.example.library.controller.dto.BookDTO;
-import org.example.library.controller.dto.ErrorDTO;
+import org.example.library.controller.dto.AvailabilityDTO;
+import org.example.library.controller.dto.BatchDTO;
+import org.example.library.controller.dto.BookSearchHitDTO;
+import org.example.library.controller.dto.PageDTO;
 import org.example.library.entities.Book;
+import org.example.library.repositories.EntityProjection;
+import org.example.library.service.AvailabilityService;
+import org.example.library.service.BatchReadService;
 import org.example.library.service.BookService;
-import org.example.library.service.NotFoundException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.example.library.service.DtoCache;
+import org.example.library.service.EntityVersion;
+import org.example.library.service.TitleSearchHit;
+import org.example.library.service.TitleSearchService;
+import org.example.library.service.Versioned;
+import org.example.library.service.dto.BookDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,79 +34,133 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/book")
 public class BookController {
-  private static final Logger LOG = LoggerFactory.getLogger(BookController.class);
-
   @Autowired
   private BookConverter bookConverter;
 
+  @Autowired
+  private DtoCache<Versioned<BookDTO>> bookDtoCache;
+
   @Autowired
   private BookService bookService;
 
+  @Autowired
+  private BatchReadService batchReadService;
+
+  @Autowired
+  private AvailabilityService availabilityService;
+
+  @Autowired
+  private TitleSearchService titleSearchService;
+
+  @Autowired
+  private AvailabilityPublisher availabilityPublisher;
+
   @PostMapping
   public ResponseEntity<Object> createBook(@RequestBody BookDTO dto) {
-    try {
-      Book book = bookService.createBook(dto.getTitle(), dto.getAuthorIds(), dto.getPublished());
-      return new ResponseEntity<>(bookConverter.apply(book), HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on book creation, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on book creation, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    Book book = bookService.createBook(dto.getTitle(), dto.getAuthorIds(), dto.getPublished());
+    return new ResponseEntity<>(bookConverter.apply(book), HttpStatus.OK);
   }
 
   @PutMapping
   public ResponseEntity<Object> updateBook(@RequestBody BookDTO dto) {
-    try {
-      Book updatedBook = bookService.updateBook(dto.getId(), dto.getTitle(), dto.getAuthorIds(),
-          dto.getPublished());
-      return new ResponseEntity<>(bookConverter.apply(updatedBook), HttpStatus.OK);
-    } catch (NotFoundException e) {
-      LOG.warn("Not found on book update, dto=" + dto, e);
-      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on book update, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on book update, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    Book updatedBook = bookService.updateBook(dto.getId(), dto.getTitle(), dto.getAuthorIds(),
+        dto.getPublished());
+    return new ResponseEntity<>(bookConverter.apply(updatedBook), HttpStatus.OK);
   }
 
   @GetMapping
-  public ResponseEntity<Object> getBook(@RequestParam("id") long id) {
-    try {
-      Book book = bookService.findById(id);
+  @StatementBudget(2)
+  public ResponseEntity<Object> getBook(@RequestParam("id") long id,
+      @RequestParam(value = "fields", required = false) List<String> fields,
+      WebRequest request) {
+    if (fields != null) {
+      return FieldRows.single(batchReadService.findFields(EntityProjection.BOOK,
+          Collections.singletonList(id), fields));
+    }
+    return ConditionalGet.get(request, id, bookDtoCache, bookService::findVersion, key -> {
+      Book book = bookService.findById(key);
+      return book != null ? new Versioned<>(bookConverter.apply(book),
+          new EntityVersion(book.getVersion(), book.getLastModified())) : null;
+    });
+  }
+
+  @GetMapping("/batch")
+  @StatementBudget(1)
+  public ResponseEntity<Object> getBooks(@RequestParam("ids") List<Long> ids,
+      @RequestParam(value = "fields", required = false) List<String> fields) {
+    if (fields != null) {
+      List<Map<String, Object>> found =
+          batchReadService.findFields(EntityProjection.BOOK, ids, fields);
+      return new ResponseEntity<>(BatchDTO.of(ids, found, FieldRows::id), HttpStatus.OK);
+    }
+    List<BookDTO> found = batchReadService.findBooks(ids).stream()
+        .map(bookConverter).collect(Collectors.toList());
+    return new ResponseEntity<>(BatchDTO.of(ids, found, BookDTO::getId), HttpStatus.OK);
+  }
+
+  /**
+   * Books deleted after the index answered are left out, so a result may be shorter than
+   * {@code limit} even when more books match.
+   */
+  @GetMapping("/search")
+  @StatementBudget(1)
+  public ResponseEntity<Object> searchBooks(@RequestParam("q") String query,
+      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+    List<TitleSearchHit> hits = titleSearchService.search(query, limit);
+    if (hits.isEmpty()) {
+      return new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK);
+    }
+    List<Long> ids = hits.stream().map(TitleSearchHit::getId).collect(Collectors.toList());
+    Map<Long, BookDTO> books = batchReadService.findBooks(ids).stream()
+        .map(bookConverter).collect(Collectors.toMap(BookDTO::getId, Function.identity()));
+    List<BookSearchHitDTO> found = new ArrayList<>(hits.size());
+    for (TitleSearchHit hit : hits) {
+      BookDTO book = books.get(hit.getId());
       if (book != null) {
-        return new ResponseEntity<>(bookConverter.apply(book), HttpStatus.OK);
-      } else {
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        found.add(new BookSearchHitDTO(hit.getScore(), book));
       }
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on book get, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on book get, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
     }
+    return new ResponseEntity<>(found, HttpStatus.OK);
   }
 
   @DeleteMapping
   public ResponseEntity<Object> deleteBook(@RequestParam("id") long id) {
-    try {
-      bookService.deleteById(id);
-      return new ResponseEntity<>("OK", HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on book delete, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on book delete, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    bookService.deleteById(id);
+    return new ResponseEntity<>("OK", HttpStatus.OK);
+  }
+
+  @GetMapping("/availability")
+  @StatementBudget(0)
+  public ResponseEntity<Object> getAvailability(@RequestParam("id") long id,
+      @RequestParam("from") LocalDate dateFrom, @RequestParam("to") LocalDate dateTo) {
+    boolean available = availabilityService.isAvailable(id, dateFrom, dateTo);
+    return new ResponseEntity<>(new AvailabilityDTO(id, dateFrom, dateTo, available),
+        HttpStatus.OK);
+  }
+
+  /**
+   * Streams an {@code availability} event for today with the current state of every book, then
+   * one whenever a book is taken or returned; the connection holds no thread while idle.
+   */
+  @GetMapping("/availability/subscribe")
+  @StatementBudget(0)
+  public SseEmitter subscribeAvailability(@RequestParam("ids") List<Long> ids) {
+    return availabilityPublisher.subscribe(ids);
+  }
+
+  @GetMapping("/available")
+  @StatementBudget(0)
+  public ResponseEntity<Object> getAvailableBooks(@RequestParam("from") LocalDate dateFrom,
+      @RequestParam("to") LocalDate dateTo,
+      @RequestParam(value = "limit", defaultValue = "100") int limit,
+      @RequestParam(value = "after", defaultValue = "0") long after) {
+    List<Long> bookIds = availabilityService.findAvailableBooks(dateFrom, dateTo, after, limit);
+    return new ResponseEntity<>(PageDTO.of(bookIds, limit, Function.identity()), HttpStatus.OK);
   }
 }
@@ -0,0 +1,60 @@
+package org.example.library.controller;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import org.example.library.controller.dto.ChangeFeedDTO;
+import org.example.library.service.ChangeFeedService;
+import org.example.library.service.ValidationException;
+import org.example.library.service.dto.ChangeEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/changes")
+public class ChangeController {
+  @Autowired
+  private ChangeFeedService changeFeedService;
+
+  @Value("${library.change-feed.max-wait:30s}")
+  private Duration maxWait;
+
+  /**
+   * With {@code wait} seconds and no events after {@code after} yet, answers as soon as there
+   * are some or with an empty page once the time is up; the request holds no thread meanwhile.
+   */
+  @GetMapping
+  @StatementBudget(1)
+  public DeferredResult<ResponseEntity<Object>> getChanges(
+      @RequestParam(value = "after", defaultValue = "0") long after,
+      @RequestParam(value = "limit", defaultValue = "100") int limit,
+      @RequestParam(value = "wait", defaultValue = "0") int wait) {
+    if (wait < 0 || wait > maxWait.getSeconds()) {
+      throw new ValidationException("Wait must be from 0 to " + maxWait.getSeconds() + " seconds");
+    }
+    List<ChangeEventDTO> events = changeFeedService.read(after, limit);
+    if (!events.isEmpty() || wait == 0) {
+      DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>();
+      result.setResult(toResponse(after, events));
+      return result;
+    }
+    DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>(wait * 1000L,
+        () -> toResponse(after, Collections.emptyList()));
+    Runnable cancel = changeFeedService.await(after, limit,
+        ready -> result.setResult(toResponse(after, ready)));
+    result.onCompletion(cancel);
+    return result;
+  }
+
+  private static ResponseEntity<Object> toResponse(long after, List<ChangeEventDTO> events) {
+    long next = events.isEmpty() ? after : events.get(events.size() - 1).getOffset();
+    return new ResponseEntity<>(new ChangeFeedDTO(events, next), HttpStatus.OK);
+  }
+}
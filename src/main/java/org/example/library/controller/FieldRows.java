@@ -0,0 +1,29 @@
+package org.example.library.controller;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Helpers for responses made of the field maps read when a request has a {@code fields}
+ * parameter.
+ */
+final class FieldRows {
+  private FieldRows() {
+  }
+
+  static Long id(Map<String, Object> row) {
+    return (Long) row.get("id");
+  }
+
+  /**
+   * @return the only row of a lookup by id, or 404 without one
+   */
+  static ResponseEntity<Object> single(List<Map<String, Object>> rows) {
+    if (rows.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+    return new ResponseEntity<>(rows.get(0), HttpStatus.OK);
+  }
+}
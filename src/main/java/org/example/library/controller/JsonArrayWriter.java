@@ -0,0 +1,85 @@
+package org.example.library.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes a JSON array to the response element by element, so the response never holds more than
+ * one element in memory. Nothing is written until the producer emits its first element or
+ * finishes, so a producer failing on argument validation leaves the response untouched and the
+ * caller can still answer with an error.
+ */
+@Component
+public class JsonArrayWriter {
+  private static final Logger LOG = LoggerFactory.getLogger(JsonArrayWriter.class);
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  /**
+   * @return {@code null}, which tells Spring MVC the response has already been written
+   */
+  public <T> ResponseEntity<Object> write(HttpServletResponse response,
+      Consumer<Consumer<T>> producer) throws IOException {
+    ArrayConsumer<T> array = new ArrayConsumer<>(response);
+    try {
+      producer.accept(array);
+    } catch (RuntimeException e) {
+      if (array.generator == null) {
+        throw e;
+      }
+      // the array is left unterminated, so the client sees a malformed body, not a short list
+      LOG.error("Streaming response failed after it was started", e);
+      array.generator.close();
+      return null;
+    }
+    array.finish();
+    return null;
+  }
+
+  private class ArrayConsumer<T> implements Consumer<T> {
+    private final HttpServletResponse response;
+    private JsonGenerator generator;
+
+    ArrayConsumer(HttpServletResponse response) {
+      this.response = response;
+    }
+
+    @Override
+    public void accept(T element) {
+      try {
+        start();
+        generator.writeObject(element);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    void finish() throws IOException {
+      start();
+      generator.writeEndArray();
+      generator.close();
+    }
+
+    private void start() throws IOException {
+      if (generator != null) {
+        return;
+      }
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.setCharacterEncoding("UTF-8");
+      generator = objectMapper.getFactory().createGenerator(response.getOutputStream())
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+      generator.writeStartArray();
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package org.example.library.controller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+
+/**
+ * Passes at most {@code permitsPerSecond} warnings per second to the logger and counts the rest;
+ * the count is reported with the next warning that gets through.
+ */
+class RateLimitedLog {
+  private final Logger log;
+  private final int permitsPerSecond;
+  private final AtomicLong second = new AtomicLong();
+  private final AtomicInteger used = new AtomicInteger();
+  private final AtomicLong suppressed = new AtomicLong();
+
+  RateLimitedLog(Logger log, int permitsPerSecond) {
+    this.log = log;
+    this.permitsPerSecond = permitsPerSecond;
+  }
+
+  void warn(String format, Object... arguments) {
+    if (!log.isWarnEnabled()) {
+      return;
+    }
+    long now = System.currentTimeMillis() / 1000;
+    long current = second.get();
+    if (now != current && second.compareAndSet(current, now)) {
+      used.set(0);
+    }
+    if (used.incrementAndGet() > permitsPerSecond) {
+      suppressed.incrementAndGet();
+      return;
+    }
+    long dropped = suppressed.getAndSet(0);
+    if (dropped > 0) {
+      log.warn("{} more warnings were not logged", dropped);
+    }
+    log.warn(format, arguments);
+  }
+}
@@ -1,15 +1,27 @@
 package org.example.library.controller;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletResponse;
 import org.example.library.controller.converter.ReaderConverter;
-import org.example.library.controller.dto.ErrorDTO;
-import org.example.library.controller.dto.ReaderDTO;
+import org.example.library.controller.dto.BatchDTO;
+import org.example.library.controller.dto.PageDTO;
+import org.example.library.controller.dto.ReaderSearchHitDTO;
 import org.example.library.entities.Reader;
-import org.example.library.service.NotFoundException;
+import org.example.library.repositories.EntityProjection;
+import org.example.library.service.BatchReadService;
+import org.example.library.service.DtoCache;
+import org.example.library.service.EntityVersion;
+import org.example.library.service.NameSearchHit;
+import org.example.library.service.NameSearchService;
 import org.example.library.service.ReaderService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.example.library.service.Versioned;
+import org.example.library.service.dto.ReaderDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,94 +33,120 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/reader")
 public class ReaderController {
-  private static final Logger LOG = LoggerFactory.getLogger(ReaderController.class);
-
   @Autowired
   private ReaderService readerService;
 
+  @Autowired
+  private BatchReadService batchReadService;
+
   @Autowired
   private ReaderConverter readerConverter;
 
+  @Autowired
+  private DtoCache<Versioned<ReaderDTO>> readerDtoCache;
+
+  @Autowired
+  private JsonArrayWriter jsonArrayWriter;
+
+  @Autowired
+  private NameSearchService nameSearchService;
+
   @GetMapping
-  public ResponseEntity<Object> getReader(@RequestParam("id") long id) {
-    try {
-      Reader reader = readerService.findById(id);
+  @StatementBudget(2)
+  public ResponseEntity<Object> getReader(@RequestParam("id") long id,
+      @RequestParam(value = "fields", required = false) List<String> fields,
+      WebRequest request) {
+    if (fields != null) {
+      return FieldRows.single(batchReadService.findFields(EntityProjection.READER,
+          Collections.singletonList(id), fields));
+    }
+    return ConditionalGet.get(request, id, readerDtoCache, readerService::findVersion, key -> {
+      Reader reader = readerService.findById(key);
+      return reader != null ? new Versioned<>(readerConverter.apply(reader),
+          new EntityVersion(reader.getVersion(), reader.getLastModified())) : null;
+    });
+  }
+
+  @GetMapping("/batch")
+  @StatementBudget(1)
+  public ResponseEntity<Object> getReaders(@RequestParam("ids") List<Long> ids,
+      @RequestParam(value = "fields", required = false) List<String> fields) {
+    if (fields != null) {
+      List<Map<String, Object>> found =
+          batchReadService.findFields(EntityProjection.READER, ids, fields);
+      return new ResponseEntity<>(BatchDTO.of(ids, found, FieldRows::id), HttpStatus.OK);
+    }
+    List<ReaderDTO> found = batchReadService.findReaders(ids);
+    return new ResponseEntity<>(BatchDTO.of(ids, found, ReaderDTO::getId), HttpStatus.OK);
+  }
+
+  @GetMapping("/search")
+  @StatementBudget(1)
+  public ResponseEntity<Object> searchReaders(@RequestParam("q") String query,
+      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+    List<NameSearchHit> hits = nameSearchService.searchReaders(query, limit);
+    if (hits.isEmpty()) {
+      return new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK);
+    }
+    List<Long> ids = hits.stream().map(NameSearchHit::getId).collect(Collectors.toList());
+    Map<Long, ReaderDTO> readers = batchReadService.findReaders(ids).stream()
+        .collect(Collectors.toMap(ReaderDTO::getId, Function.identity()));
+    List<ReaderSearchHitDTO> found = new ArrayList<>(hits.size());
+    for (NameSearchHit hit : hits) {
+      ReaderDTO reader = readers.get(hit.getId());
       if (reader != null) {
-        return new ResponseEntity<>(readerConverter.apply(reader), HttpStatus.OK);
-      } else {
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        found.add(new ReaderSearchHitDTO(hit.getScore(), reader));
       }
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on reader get, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on reader get, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
     }
+    return new ResponseEntity<>(found, HttpStatus.OK);
   }
 
   @PostMapping
   public ResponseEntity<Object> createReader(@RequestBody ReaderDTO dto) {
-    try {
-      Reader entity = readerService.createReader(dto.getFirstName(), dto.getMiddleName(),
-          dto.getLastName(), dto.getGender(), dto.getBirthday());
-      return new ResponseEntity<>(readerConverter.apply(entity), HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on reader creation, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on reader creation, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    Reader entity = readerService.createReader(dto.getFirstName(), dto.getMiddleName(),
+        dto.getLastName(), dto.getGender(), dto.getBirthday());
+    return new ResponseEntity<>(readerConverter.apply(entity), HttpStatus.OK);
   }
 
   @DeleteMapping
   public ResponseEntity<Object> deleteReader(@RequestParam("id") long id) {
-    try {
-      readerService.deleteById(id);
-      return new ResponseEntity<>("OK", HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on reader delete, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on reader delete, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
-    }  }
+    readerService.deleteById(id);
+    return new ResponseEntity<>("OK", HttpStatus.OK);
+  }
 
   @PutMapping
   public ResponseEntity<Object> updateReader(@RequestBody ReaderDTO dto) {
-    try {
-      Reader updatedReader = readerService.updateReader(dto.getId(), dto.getFirstName(),
-          dto.getMiddleName(), dto.getLastName(), dto.getGender(), dto.getBirthday());
-      return new ResponseEntity<>(readerConverter.apply(updatedReader), HttpStatus.OK);
-    } catch (NotFoundException e) {
-      LOG.warn("Not found on reader update, dto=" + dto, e);
-      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on reader update, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on reader update, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    Reader updatedReader = readerService.updateReader(dto.getId(), dto.getFirstName(),
+        dto.getMiddleName(), dto.getLastName(), dto.getGender(), dto.getBirthday());
+    return new ResponseEntity<>(readerConverter.apply(updatedReader), HttpStatus.OK);
   }
+
   @GetMapping("/findByLastName")
-  public ResponseEntity<Object> findByLastName(@RequestParam("lastName") String lastName) {
-    try {
-      List<ReaderDTO> readerDtos = readerService.findByLastName(lastName).stream()
-          .map(readerConverter)
-          .collect(Collectors.toList());
-      return new ResponseEntity<>(readerDtos, HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on reader findByLastName, lastName=" + lastName, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on reader findByLastName, lastName=" + lastName, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+  @StatementBudget(1)
+  public ResponseEntity<Object> findByLastName(@RequestParam("lastName") String lastName,
+      @RequestParam(value = "limit", required = false) Integer limit,
+      @RequestParam(value = "after", defaultValue = "0") long after,
+      @RequestParam(value = "fields", required = false) List<String> fields,
+      HttpServletResponse response) throws IOException {
+    if (fields != null) {
+      if (limit != null) {
+        List<Map<String, Object>> rows =
+            readerService.findByLastName(lastName, after, limit, fields);
+        return new ResponseEntity<>(PageDTO.of(rows, limit, FieldRows::id), HttpStatus.OK);
+      }
+      return jsonArrayWriter.<Map<String, Object>>write(response,
+          consumer -> readerService.streamByLastName(lastName, fields, consumer));
+    }
+    if (limit != null) {
+      List<ReaderDTO> readerDtos = readerService.findByLastName(lastName, after, limit);
+      return new ResponseEntity<>(PageDTO.of(readerDtos, limit, ReaderDTO::getId), HttpStatus.OK);
     }
+    return jsonArrayWriter.<ReaderDTO>write(response,
+        consumer -> readerService.streamByLastName(lastName, consumer));
   }
 }
@@ -0,0 +1,89 @@
+package org.example.library.controller;
+
+import org.example.library.controller.dto.ErrorDTO;
+import org.example.library.service.NotFoundException;
+import org.example.library.service.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+/**
+ * Turns exceptions of all controllers into responses. Client errors are logged in one line,
+ * without stack trace and at most {@code library.log.client-errors-per-second} times a second, so
+ * a misbehaving client can't flood the log; server errors are logged with stack trace.
+ */
+@RestControllerAdvice
+public class RestExceptionHandler extends ResponseEntityExceptionHandler {
+  private static final Logger LOG = LoggerFactory.getLogger(RestExceptionHandler.class);
+
+  private final RateLimitedLog clientErrorLog;
+
+  public RestExceptionHandler(
+      @Value("${library.log.client-errors-per-second:10}") int clientErrorsPerSecond) {
+    this.clientErrorLog = new RateLimitedLog(LOG, clientErrorsPerSecond);
+  }
+
+  @ExceptionHandler(NotFoundException.class)
+  public ResponseEntity<Object> handleNotFound(NotFoundException e, WebRequest request) {
+    clientErrorLog.warn("Not found on {}: {}", request.getDescription(false), e.getMessage());
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+  }
+
+  /**
+   * Another transaction changed the entity after it was read, see the {@code @Version} fields.
+   */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<Object> handleConflict(OptimisticLockingFailureException e,
+      WebRequest request) {
+    clientErrorLog.warn("Conflict on {}: {}", request.getDescription(false), e.getMessage());
+    return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<Object> handleUnavailable(ServiceUnavailableException e,
+      WebRequest request) {
+    clientErrorLog.warn("Unavailable on {}: {}", request.getDescription(false), e.getMessage());
+    HttpHeaders headers = new HttpHeaders();
+    if (e.getRetryAfterSeconds() != null) {
+      headers.set(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds().toString());
+    }
+    return new ResponseEntity<>(new ErrorDTO(e.getMessage()), headers,
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<Object> handleBadRequest(IllegalArgumentException e, WebRequest request) {
+    clientErrorLog.warn("Bad request on {}: {}", request.getDescription(false), e.getMessage());
+    return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(Exception.class)
+  public ResponseEntity<Object> handleServerError(Exception e, WebRequest request) {
+    LOG.warn("Internal server error on " + request.getDescription(false), e);
+    return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+  }
+
+  /**
+   * Gives the Spring MVC errors handled by the base class, such as a missing parameter or an
+   * unreadable body, the same {@link ErrorDTO} body and logging as the errors above.
+   */
+  @Override
+  protected ResponseEntity<Object> handleExceptionInternal(Exception e, Object body,
+      HttpHeaders headers, HttpStatus status, WebRequest request) {
+    if (status.is5xxServerError()) {
+      LOG.warn("Internal server error on " + request.getDescription(false), e);
+    } else {
+      clientErrorLog.warn("Bad request on {}: {}", request.getDescription(false), e.getMessage());
+    }
+    return new ResponseEntity<>(body != null ? body : new ErrorDTO(e.getMessage()), headers,
+        status);
+  }
+}
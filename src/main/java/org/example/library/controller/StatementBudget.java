@@ -0,0 +1,16 @@
+package org.example.library.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most JDBC statements one call of the annotated handler may execute; checked by
+ * {@link StatementBudgetInterceptor}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+  int value();
+}
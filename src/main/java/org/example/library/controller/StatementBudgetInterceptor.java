@@ -0,0 +1,46 @@
+package org.example.library.controller;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.example.library.config.StatementTracker;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Tells the {@link StatementTracker} which handler the statements of a request come from and
+ * what its {@link StatementBudget} is. A handler that completes asynchronously is tracked until it
+ * returns, the dispatch that writes its result is tracked separately.
+ */
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+  private final StatementTracker statementTracker;
+
+  public StatementBudgetInterceptor(StatementTracker statementTracker) {
+    this.statementTracker = statementTracker;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    if (handler instanceof HandlerMethod) {
+      HandlerMethod handlerMethod = (HandlerMethod) handler;
+      StatementBudget budget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+      statementTracker.begin(handlerMethod.getBeanType().getSimpleName() + "."
+              + handlerMethod.getMethod().getName(),
+          budget != null ? budget.value() : StatementTracker.NO_BUDGET);
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    statementTracker.end();
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(HttpServletRequest request,
+      HttpServletResponse response, Object handler) {
+    // the request thread goes back to the pool without afterCompletion
+    statementTracker.end();
+  }
+}
@@ -0,0 +1,60 @@
+package org.example.library.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.example.library.controller.dto.CacheRegionStatisticsDTO;
+import org.example.library.service.DtoCache;
+import org.example.library.service.Versioned;
+import org.example.library.service.dto.AuthorDTO;
+import org.example.library.service.dto.BookDTO;
+import org.example.library.service.dto.ReaderDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/statistics")
+public class StatisticsController {
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private DtoCache<Versioned<AuthorDTO>> authorDtoCache;
+
+  @Autowired
+  private DtoCache<Versioned<BookDTO>> bookDtoCache;
+
+  @Autowired
+  private DtoCache<Versioned<ReaderDTO>> readerDtoCache;
+
+  @GetMapping("/cache")
+  public ResponseEntity<Object> getCacheStatistics() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    List<CacheRegionStatisticsDTO> regions = new ArrayList<>();
+    for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+      CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+      if (region != null) {
+        regions.add(new CacheRegionStatisticsDTO(regionName, region.getHitCount(),
+            region.getMissCount(), region.getPutCount(), region.getElementCountInMemory()));
+      }
+    }
+    regions.add(toDto("dto.author", authorDtoCache));
+    regions.add(toDto("dto.book", bookDtoCache));
+    regions.add(toDto("dto.reader", readerDtoCache));
+    return new ResponseEntity<>(regions, HttpStatus.OK);
+  }
+
+  private CacheRegionStatisticsDTO toDto(String name, DtoCache<?> dtoCache) {
+    CacheStats stats = dtoCache.stats();
+    return new CacheRegionStatisticsDTO(name, stats.hitCount(), stats.missCount(),
+        stats.loadSuccessCount(), dtoCache.size());
+  }
+}
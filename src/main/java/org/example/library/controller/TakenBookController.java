@@ -1,16 +1,35 @@
 package org.example.library.controller;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import javax.servlet.http.HttpServletResponse;
+import org.example.library.controller.converter.ExpandedTakenBookConverter;
 import org.example.library.controller.converter.TakenBookConverter;
-import org.example.library.controller.dto.ErrorDTO;
-import org.example.library.controller.dto.TakenBookDTO;
+import org.example.library.controller.dto.BatchDTO;
+import org.example.library.controller.dto.BatchItemResultDTO;
+import org.example.library.controller.dto.ExpandedTakenBookDTO;
+import org.example.library.controller.dto.PageDTO;
+import org.example.library.controller.dto.TakenBookTicketDTO;
 import org.example.library.entities.TakenBook;
-import org.example.library.service.NotFoundException;
+import org.example.library.repositories.EntityProjection;
+import org.example.library.service.BatchItemResult;
+import org.example.library.service.BatchReadService;
+import org.example.library.service.EntityVersion;
+import org.example.library.service.TakenBookBatchItem;
+import org.example.library.service.TakenBookBatchService;
+import org.example.library.service.TakenBookExpansion;
+import org.example.library.service.TakenBookGraph;
 import org.example.library.service.TakenBookService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.example.library.service.TakenBookTicket;
+import org.example.library.service.TakenBookWriteBehindService;
+import org.example.library.service.ValidationException;
+import org.example.library.service.Versioned;
+import org.example.library.service.dto.TakenBookDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,94 +45,208 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/takenBook")
 public class TakenBookController {
-  private static final Logger LOG = LoggerFactory.getLogger(TakenBookController.class);
-  
   @Autowired
   private TakenBookService takenBookService;
 
+  @Autowired
+  private TakenBookBatchService takenBookBatchService;
+
+  @Autowired
+  private TakenBookWriteBehindService takenBookWriteBehindService;
+
+  @Autowired
+  private BatchReadService batchReadService;
+
   @Autowired
   private TakenBookConverter takenBookConverter;
 
+  @Autowired
+  private ExpandedTakenBookConverter expandedTakenBookConverter;
+
+  @Autowired
+  private JsonArrayWriter jsonArrayWriter;
+
   @PostMapping
   public ResponseEntity<Object> createTakenBook(@RequestBody TakenBookDTO dto) {
-    try {
-      TakenBook entity = takenBookService.createTakenBook(dto.getReaderId(), dto.getBookId(),
-          dto.getDateFrom(), dto.getDateTo());
-      return new ResponseEntity<>(takenBookConverter.apply(entity), HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on taken book creation, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on taken book creation, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+    TakenBook entity = takenBookService.createTakenBook(dto.getReaderId(), dto.getBookId(),
+        dto.getDateFrom(), dto.getDateTo());
+    return new ResponseEntity<>(takenBookConverter.apply(entity), HttpStatus.OK);
+  }
+
+  @PostMapping("/batch")
+  public ResponseEntity<Object> createTakenBooks(@RequestBody List<TakenBookDTO> dtos) {
+    List<TakenBookBatchItem> items = new ArrayList<>(dtos.size());
+    for (TakenBookDTO dto : dtos) {
+      items.add(dto == null ? null : new TakenBookBatchItem(dto.getReaderId(), dto.getBookId(),
+          dto.getDateFrom(), dto.getDateTo()));
+    }
+    List<BatchItemResult> results = takenBookBatchService.createTakenBooks(items);
+    List<BatchItemResultDTO> resultDtos = new ArrayList<>(results.size());
+    for (int i = 0; i < results.size(); i++) {
+      BatchItemResult result = results.get(i);
+      resultDtos.add(new BatchItemResultDTO(i, result.getId(), result.getError()));
     }
+    return new ResponseEntity<>(resultDtos, HttpStatus.OK);
+  }
+
+  /**
+   * Answers 202 with a ticket as soon as the taken book is queued; it is created later, and
+   * {@code GET /takenBook/async?ticket=} tells the id or why it was rejected.
+   */
+  @PostMapping("/async")
+  @StatementBudget(0)
+  public ResponseEntity<Object> acceptTakenBook(@RequestBody TakenBookDTO dto) {
+    TakenBookTicket ticket = takenBookWriteBehindService.accept(dto.getReaderId(),
+        dto.getBookId(), dto.getDateFrom(), dto.getDateTo());
+    return new ResponseEntity<>(toDto(ticket), HttpStatus.ACCEPTED);
+  }
+
+  @GetMapping("/async")
+  @StatementBudget(0)
+  public ResponseEntity<Object> getTicket(@RequestParam("ticket") String ticket) {
+    return new ResponseEntity<>(toDto(takenBookWriteBehindService.findTicket(ticket)),
+        HttpStatus.OK);
   }
 
   @PutMapping
   public ResponseEntity<Object> updateTakenBook(@RequestBody TakenBookDTO dto) {
-    try {
-      TakenBook updatedTakenBook = takenBookService.updateTakenBook(dto.getId(), dto.getReaderId(), 
-          dto.getBookId(), dto.getDateFrom(), dto.getDateTo());
-      return new ResponseEntity<>(takenBookConverter.apply(updatedTakenBook), HttpStatus.OK);
-    } catch (NotFoundException e) {
-      LOG.warn("Not found on taken book update, dto=" + dto, e);
+    TakenBook updatedTakenBook = takenBookService.updateTakenBook(dto.getId(), dto.getReaderId(), 
+        dto.getBookId(), dto.getDateFrom(), dto.getDateTo());
+    return new ResponseEntity<>(takenBookConverter.apply(updatedTakenBook), HttpStatus.OK);
+  }
+
+  @GetMapping
+  @StatementBudget(1)
+  public ResponseEntity<Object> getAuthor(@RequestParam("id") long id,
+      @RequestParam(value = "fields", required = false) List<String> fields) {
+    if (fields != null) {
+      return FieldRows.single(batchReadService.findFields(EntityProjection.TAKEN_BOOK,
+          Collections.singletonList(id), fields));
+    }
+    TakenBook takenBook = takenBookService.findById(id);
+    if (takenBook == null) {
       return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on taken book update, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on taken book update, dto=" + dto, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
     }
+    return ConditionalGet.of(new Versioned<>(takenBookConverter.apply(takenBook),
+        new EntityVersion(takenBook.getVersion(), takenBook.getLastModified())));
   }
 
-  @GetMapping
-  public ResponseEntity<Object> getAuthor(@RequestParam("id") long id) {
-    try {
-      TakenBook takenBook = takenBookService.findById(id);
-      if (takenBook != null) {
-        return new ResponseEntity<>(takenBookConverter.apply(takenBook), HttpStatus.OK);
-      } else {
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-      }
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on taken book get, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on taken book get, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+  /**
+   * Only the plain loan gets an ETag: the version of the loan doesn't change with the book or
+   * reader added by {@code expand}.
+   */
+  @GetMapping(params = "expand")
+  @StatementBudget(3)
+  public ResponseEntity<Object> getExpandedTakenBook(@RequestParam("id") long id,
+      @RequestParam(value = "expand", required = false) List<String> expand,
+      @RequestParam(value = "fields", required = false) List<String> fields) {
+    Set<TakenBookExpansion> expansions = TakenBookExpansion.parse(expand);
+    if (fields != null) {
+      rejectExpansions(expansions);
+    }
+    if (expansions.isEmpty()) {
+      return getAuthor(id, fields);
+    }
+    TakenBook takenBook = takenBookService.findById(id);
+    if (takenBook == null) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
+    TakenBookDTO dto = takenBookConverter.apply(takenBook);
+    return new ResponseEntity<>(expand(Collections.singletonList(dto), expansions).get(0),
+        HttpStatus.OK);
+  }
+
+  @GetMapping("/batch")
+  @StatementBudget(1)
+  public ResponseEntity<Object> getTakenBooks(@RequestParam("ids") List<Long> ids,
+      @RequestParam(value = "fields", required = false) List<String> fields) {
+    if (fields != null) {
+      List<Map<String, Object>> found =
+          batchReadService.findFields(EntityProjection.TAKEN_BOOK, ids, fields);
+      return new ResponseEntity<>(BatchDTO.of(ids, found, FieldRows::id), HttpStatus.OK);
+    }
+    List<TakenBookDTO> found = batchReadService.findTakenBooks(ids);
+    return new ResponseEntity<>(BatchDTO.of(ids, found, TakenBookDTO::getId), HttpStatus.OK);
   }
 
   @DeleteMapping
   public ResponseEntity<Object> deleteAuthor(@RequestParam("id") long id) {
-    try {
-      takenBookService.deleteById(id);
-      return new ResponseEntity<>("OK", HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on taken book delete, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Internal server error on taken book delete, id=" + id, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    takenBookService.deleteById(id);
+    return new ResponseEntity<>("OK", HttpStatus.OK);
   }
 
   @GetMapping("/findByPeriod")
+  @StatementBudget(1)
   public ResponseEntity<Object> getTakenBooksByPeriod(@RequestParam("readerId") long readerId,
-      @RequestParam("from") LocalDate dateFrom, @RequestParam("to") LocalDate dateTo) {
-    try {
-      List<TakenBook> takenBooks = takenBookService.findByReaderAndPeriod(readerId, dateFrom, dateTo);
-      return new ResponseEntity<>(
-          takenBooks.stream().map(takenBookConverter).collect(Collectors.toList()), HttpStatus.OK);
-    } catch (IllegalArgumentException e) {
-      LOG.warn("Bad request on find by period, readerId=" + readerId + ", from=" + dateFrom
-          + ", to=" + dateTo, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.BAD_REQUEST);
-    } catch (Exception e) {
-      LOG.warn("Bad request on find by period, readerId=" + readerId + ", from=" + dateFrom
-          + ", to=" + dateTo, e);
-      return new ResponseEntity<>(new ErrorDTO(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+      @RequestParam("from") LocalDate dateFrom, @RequestParam("to") LocalDate dateTo,
+      @RequestParam(value = "limit", required = false) Integer limit,
+      @RequestParam(value = "after", defaultValue = "0") long after,
+      @RequestParam(value = "fields", required = false) List<String> fields,
+      HttpServletResponse response) throws IOException {
+    if (fields != null) {
+      if (limit != null) {
+        List<Map<String, Object>> rows = takenBookService.findByReaderAndPeriod(readerId,
+            dateFrom, dateTo, after, limit, fields);
+        return new ResponseEntity<>(PageDTO.of(rows, limit, FieldRows::id), HttpStatus.OK);
+      }
+      return jsonArrayWriter.<Map<String, Object>>write(response, consumer ->
+          takenBookService.streamByReaderAndPeriod(readerId, dateFrom, dateTo, fields,
+              consumer));
+    }
+    if (limit != null) {
+      List<TakenBookDTO> takenBooks =
+          takenBookService.findByReaderAndPeriod(readerId, dateFrom, dateTo, after, limit);
+      return new ResponseEntity<>(PageDTO.of(takenBooks, limit, TakenBookDTO::getId),
+          HttpStatus.OK);
+    }
+    return jsonArrayWriter.<TakenBookDTO>write(response, consumer ->
+        takenBookService.streamByReaderAndPeriod(readerId, dateFrom, dateTo, consumer));
+  }
+
+  /**
+   * The related entities are loaded for a whole page at once, so {@code limit} is required: an
+   * expanded result can't be streamed like the plain one.
+   */
+  @GetMapping(path = "/findByPeriod", params = "expand")
+  @StatementBudget(3)
+  public ResponseEntity<Object> getExpandedTakenBooksByPeriod(
+      @RequestParam("readerId") long readerId,
+      @RequestParam("from") LocalDate dateFrom, @RequestParam("to") LocalDate dateTo,
+      @RequestParam(value = "limit", required = false) Integer limit,
+      @RequestParam(value = "after", defaultValue = "0") long after,
+      @RequestParam(value = "expand", required = false) List<String> expand,
+      @RequestParam(value = "fields", required = false) List<String> fields,
+      HttpServletResponse response) throws IOException {
+    Set<TakenBookExpansion> expansions = TakenBookExpansion.parse(expand);
+    if (fields != null) {
+      rejectExpansions(expansions);
+    }
+    if (expansions.isEmpty()) {
+      return getTakenBooksByPeriod(readerId, dateFrom, dateTo, limit, after, fields, response);
     }
+    if (limit == null) {
+      throw new ValidationException("Page limit is required with expand");
+    }
+    List<TakenBookDTO> takenBooks =
+        takenBookService.findByReaderAndPeriod(readerId, dateFrom, dateTo, after, limit);
+    return new ResponseEntity<>(PageDTO.of(expand(takenBooks, expansions), limit,
+        ExpandedTakenBookDTO::getId), HttpStatus.OK);
+  }
+
+  private static TakenBookTicketDTO toDto(TakenBookTicket ticket) {
+    return new TakenBookTicketDTO(ticket.getTicket(), ticket.getStatus().name(),
+        ticket.getTakenBookId(), ticket.getError());
+  }
+
+  private static void rejectExpansions(Set<TakenBookExpansion> expansions) {
+    if (!expansions.isEmpty()) {
+      throw new ValidationException("Fields and expand can't be combined");
+    }
+  }
+
+  private List<ExpandedTakenBookDTO> expand(List<TakenBookDTO> takenBooks,
+      Set<TakenBookExpansion> expansions) {
+    TakenBookGraph graph = takenBookService.loadGraph(takenBooks, expansions);
+    return expandedTakenBookConverter.apply(takenBooks, graph, expansions);
   }
 }
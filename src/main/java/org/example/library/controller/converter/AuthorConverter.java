@@ -1,8 +1,8 @@
 package org.example.library.controller.converter;
 
 import java.util.function.Function;
-import org.example.library.controller.dto.AuthorDTO;
 import org.example.library.entities.Author;
+import org.example.library.service.dto.AuthorDTO;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -2,9 +2,9 @@ package org.example.library.controller.converter;
 
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.example.library.controller.dto.BookDTO;
 import org.example.library.entities.Author;
 import org.example.library.entities.Book;
+import org.example.library.service.dto.BookDTO;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -0,0 +1,53 @@
+package org.example.library.controller.converter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.example.library.controller.dto.ExpandedTakenBookDTO;
+import org.example.library.entities.Book;
+import org.example.library.service.TakenBookExpansion;
+import org.example.library.service.TakenBookGraph;
+import org.example.library.service.dto.AuthorDTO;
+import org.example.library.service.dto.BookDTO;
+import org.example.library.service.dto.ReaderDTO;
+import org.example.library.service.dto.TakenBookDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ExpandedTakenBookConverter {
+  @Autowired
+  private BookConverter bookConverter;
+
+  @Autowired
+  private AuthorConverter authorConverter;
+
+  /**
+   * Converts the taken books, filling in the related entities of {@code expansions} from
+   * {@code graph}. The books and authors of loans sharing a book are converted once.
+   */
+  public List<ExpandedTakenBookDTO> apply(List<TakenBookDTO> takenBooks, TakenBookGraph graph,
+      Set<TakenBookExpansion> expansions) {
+    boolean expandBook = expansions.contains(TakenBookExpansion.BOOK);
+    boolean expandAuthors = expansions.contains(TakenBookExpansion.AUTHORS);
+    boolean expandReader = expansions.contains(TakenBookExpansion.READER);
+    Map<Long, BookDTO> books = new HashMap<>();
+    Map<Long, List<AuthorDTO>> authors = new HashMap<>();
+    List<ExpandedTakenBookDTO> result = new ArrayList<>(takenBooks.size());
+    for (TakenBookDTO takenBook : takenBooks) {
+      Book entity = graph.getBook(takenBook.getBookId());
+      BookDTO book = expandBook && entity != null
+          ? books.computeIfAbsent(entity.getId(), id -> bookConverter.apply(entity)) : null;
+      List<AuthorDTO> bookAuthors = expandAuthors && entity != null
+          ? authors.computeIfAbsent(entity.getId(), id -> entity.getAuthors().stream()
+              .map(authorConverter).collect(Collectors.toList()))
+          : null;
+      ReaderDTO reader = expandReader ? graph.getReader(takenBook.getReaderId()) : null;
+      result.add(new ExpandedTakenBookDTO(takenBook, reader, book, bookAuthors));
+    }
+    return result;
+  }
+}
@@ -1,8 +1,8 @@
 package org.example.library.controller.converter;
 
 import java.util.function.Function;
-import org.example.library.controller.dto.ReaderDTO;
 import org.example.library.entities.Reader;
+import org.example.library.service.dto.ReaderDTO;
 import org.springframework.stereotype.Component;
 
 @Component
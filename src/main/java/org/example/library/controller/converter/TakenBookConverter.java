@@ -1,8 +1,8 @@
 package org.example.library.controller.converter;
 
 import java.util.function.Function;
-import org.example.library.controller.dto.TakenBookDTO;
 import org.example.library.entities.TakenBook;
+import org.example.library.service.dto.TakenBookDTO;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -0,0 +1,26 @@
+package org.example.library.controller.dto;
+
+import org.example.library.service.dto.AuthorDTO;
+
+public class AuthorSearchHitDTO {
+  private final double score;
+  private final AuthorDTO author;
+
+  public AuthorSearchHitDTO(double score, AuthorDTO author) {
+    this.score = score;
+    this.author = author;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  public AuthorDTO getAuthor() {
+    return author;
+  }
+
+  @Override
+  public String toString() {
+    return "AuthorSearchHitDTO{" + "score=" + score + ", author=" + author + '}';
+  }
+}
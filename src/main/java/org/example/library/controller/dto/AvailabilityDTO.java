@@ -0,0 +1,43 @@
+package org.example.library.controller.dto;
+
+import java.time.LocalDate;
+
+public class AvailabilityDTO {
+  private final Long bookId;
+  private final LocalDate dateFrom;
+  private final LocalDate dateTo;
+  private final boolean available;
+
+  public AvailabilityDTO(Long bookId, LocalDate dateFrom, LocalDate dateTo, boolean available) {
+    this.bookId = bookId;
+    this.dateFrom = dateFrom;
+    this.dateTo = dateTo;
+    this.available = available;
+  }
+
+  public Long getBookId() {
+    return bookId;
+  }
+
+  public LocalDate getDateFrom() {
+    return dateFrom;
+  }
+
+  public LocalDate getDateTo() {
+    return dateTo;
+  }
+
+  public boolean isAvailable() {
+    return available;
+  }
+
+  @Override
+  public String toString() {
+    return "AvailabilityDTO{" +
+        "bookId=" + bookId +
+        ", dateFrom=" + dateFrom +
+        ", dateTo=" + dateTo +
+        ", available=" + available +
+        '}';
+  }
+}
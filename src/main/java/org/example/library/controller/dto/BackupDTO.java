@@ -0,0 +1,34 @@
+package org.example.library.controller.dto;
+
+public class BackupDTO {
+  private final String fileName;
+  private final String format;
+  private final long size;
+
+  public BackupDTO(String fileName, String format, long size) {
+    this.fileName = fileName;
+    this.format = format;
+    this.size = size;
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public String getFormat() {
+    return format;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "BackupDTO{" +
+        "fileName='" + fileName + '\'' +
+        ", format='" + format + '\'' +
+        ", size=" + size +
+        '}';
+  }
+}
@@ -0,0 +1,56 @@
+package org.example.library.controller.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Result of a multi-get: the found items in the order their ids were requested, each id once,
+ * and the requested ids that were not found.
+ */
+public class BatchDTO<T> {
+  private final List<T> items;
+  private final List<Long> missingIds;
+
+  public BatchDTO(List<T> items, List<Long> missingIds) {
+    this.items = items;
+    this.missingIds = missingIds;
+  }
+
+  public static <T> BatchDTO<T> of(List<Long> ids, List<T> found, Function<T, Long> idGetter) {
+    Map<Long, T> byId = new HashMap<>();
+    for (T item : found) {
+      byId.put(idGetter.apply(item), item);
+    }
+    List<T> items = new ArrayList<>(found.size());
+    List<Long> missingIds = new ArrayList<>();
+    for (Long id : new LinkedHashSet<>(ids)) {
+      T item = byId.get(id);
+      if (item != null) {
+        items.add(item);
+      } else {
+        missingIds.add(id);
+      }
+    }
+    return new BatchDTO<>(items, missingIds);
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  public List<Long> getMissingIds() {
+    return missingIds;
+  }
+
+  @Override
+  public String toString() {
+    return "BatchDTO{" +
+        "items=" + items +
+        ", missingIds=" + missingIds +
+        '}';
+  }
+}
@@ -0,0 +1,37 @@
+package org.example.library.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDTO {
+  private final int index;
+  private final Long id;
+  private final String error;
+
+  public BatchItemResultDTO(int index, Long id, String error) {
+    this.index = index;
+    this.id = id;
+    this.error = error;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  @Override
+  public String toString() {
+    return "BatchItemResultDTO{" +
+        "index=" + index +
+        ", id=" + id +
+        ", error='" + error + '\'' +
+        '}';
+  }
+}
@@ -0,0 +1,26 @@
+package org.example.library.controller.dto;
+
+import org.example.library.service.dto.BookDTO;
+
+public class BookSearchHitDTO {
+  private final double score;
+  private final BookDTO book;
+
+  public BookSearchHitDTO(double score, BookDTO book) {
+    this.score = score;
+    this.book = book;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  public BookDTO getBook() {
+    return book;
+  }
+
+  @Override
+  public String toString() {
+    return "BookSearchHitDTO{" + "score=" + score + ", book=" + book + '}';
+  }
+}
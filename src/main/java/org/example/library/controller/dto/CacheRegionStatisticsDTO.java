@@ -0,0 +1,49 @@
+package org.example.library.controller.dto;
+
+public class CacheRegionStatisticsDTO {
+  private final String region;
+  private final long hitCount;
+  private final long missCount;
+  private final long putCount;
+  private final long elementCount;
+
+  public CacheRegionStatisticsDTO(String region, long hitCount, long missCount, long putCount,
+      long elementCount) {
+    this.region = region;
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.putCount = putCount;
+    this.elementCount = elementCount;
+  }
+
+  public String getRegion() {
+    return region;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  public long getPutCount() {
+    return putCount;
+  }
+
+  public long getElementCount() {
+    return elementCount;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheRegionStatisticsDTO{" +
+        "region='" + region + '\'' +
+        ", hitCount=" + hitCount +
+        ", missCount=" + missCount +
+        ", putCount=" + putCount +
+        ", elementCount=" + elementCount +
+        '}';
+  }
+}
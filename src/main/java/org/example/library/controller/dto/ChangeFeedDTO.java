@@ -0,0 +1,35 @@
+package org.example.library.controller.dto;
+
+import java.util.List;
+import org.example.library.service.dto.ChangeEventDTO;
+
+/**
+ * Events of the change feed after the requested offset. {@code next} is the offset to pass as
+ * {@code after} for the following events; it is never {@code null}, an empty page repeats the
+ * requested offset.
+ */
+public class ChangeFeedDTO {
+  private final List<ChangeEventDTO> items;
+  private final long next;
+
+  public ChangeFeedDTO(List<ChangeEventDTO> items, long next) {
+    this.items = items;
+    this.next = next;
+  }
+
+  public List<ChangeEventDTO> getItems() {
+    return items;
+  }
+
+  public long getNext() {
+    return next;
+  }
+
+  @Override
+  public String toString() {
+    return "ChangeFeedDTO{" +
+        "items=" + items +
+        ", next=" + next +
+        '}';
+  }
+}
@@ -0,0 +1,82 @@
+package org.example.library.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+import java.util.List;
+import org.example.library.service.dto.AuthorDTO;
+import org.example.library.service.dto.BookDTO;
+import org.example.library.service.dto.ReaderDTO;
+import org.example.library.service.dto.TakenBookDTO;
+
+/**
+ * Taken book with the related entities requested by {@code expand}; the others are left out.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpandedTakenBookDTO {
+  private final Long id;
+  private final Long readerId;
+  private final Long bookId;
+  private final LocalDate dateFrom;
+  private final LocalDate dateTo;
+  private final ReaderDTO reader;
+  private final BookDTO book;
+  private final List<AuthorDTO> authors;
+
+  public ExpandedTakenBookDTO(TakenBookDTO takenBook, ReaderDTO reader, BookDTO book,
+      List<AuthorDTO> authors) {
+    this.id = takenBook.getId();
+    this.readerId = takenBook.getReaderId();
+    this.bookId = takenBook.getBookId();
+    this.dateFrom = takenBook.getDateFrom();
+    this.dateTo = takenBook.getDateTo();
+    this.reader = reader;
+    this.book = book;
+    this.authors = authors;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getReaderId() {
+    return readerId;
+  }
+
+  public Long getBookId() {
+    return bookId;
+  }
+
+  public LocalDate getDateFrom() {
+    return dateFrom;
+  }
+
+  public LocalDate getDateTo() {
+    return dateTo;
+  }
+
+  public ReaderDTO getReader() {
+    return reader;
+  }
+
+  public BookDTO getBook() {
+    return book;
+  }
+
+  public List<AuthorDTO> getAuthors() {
+    return authors;
+  }
+
+  @Override
+  public String toString() {
+    return "ExpandedTakenBookDTO{" +
+        "id=" + id +
+        ", readerId=" + readerId +
+        ", bookId=" + bookId +
+        ", dateFrom=" + dateFrom +
+        ", dateTo=" + dateTo +
+        ", reader=" + reader +
+        ", book=" + book +
+        ", authors=" + authors +
+        '}';
+  }
+}
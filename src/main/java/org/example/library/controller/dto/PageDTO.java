@@ -0,0 +1,39 @@
+package org.example.library.controller.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset paged result. {@code next} is the cursor to pass as {@code after} for
+ * the following page, or {@code null} when this is the last page.
+ */
+public class PageDTO<T> {
+  private final List<T> items;
+  private final Long next;
+
+  public PageDTO(List<T> items, Long next) {
+    this.items = items;
+    this.next = next;
+  }
+
+  public static <T> PageDTO<T> of(List<T> items, int limit, Function<T, Long> idGetter) {
+    Long next = items.size() < limit ? null : idGetter.apply(items.get(items.size() - 1));
+    return new PageDTO<>(items, next);
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  public Long getNext() {
+    return next;
+  }
+
+  @Override
+  public String toString() {
+    return "PageDTO{" +
+        "items=" + items +
+        ", next=" + next +
+        '}';
+  }
+}
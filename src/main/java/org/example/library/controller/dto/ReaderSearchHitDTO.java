@@ -0,0 +1,26 @@
+package org.example.library.controller.dto;
+
+import org.example.library.service.dto.ReaderDTO;
+
+public class ReaderSearchHitDTO {
+  private final double score;
+  private final ReaderDTO reader;
+
+  public ReaderSearchHitDTO(double score, ReaderDTO reader) {
+    this.score = score;
+    this.reader = reader;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  public ReaderDTO getReader() {
+    return reader;
+  }
+
+  @Override
+  public String toString() {
+    return "ReaderSearchHitDTO{" + "score=" + score + ", reader=" + reader + '}';
+  }
+}
@@ -0,0 +1,44 @@
+package org.example.library.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TakenBookTicketDTO {
+  private final String ticket;
+  private final String status;
+  private final Long id;
+  private final String error;
+
+  public TakenBookTicketDTO(String ticket, String status, Long id, String error) {
+    this.ticket = ticket;
+    this.status = status;
+    this.id = id;
+    this.error = error;
+  }
+
+  public String getTicket() {
+    return ticket;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  @Override
+  public String toString() {
+    return "TakenBookTicketDTO{" +
+        "ticket='" + ticket + '\'' +
+        ", status='" + status + '\'' +
+        ", id=" + id +
+        ", error='" + error + '\'' +
+        '}';
+  }
+}
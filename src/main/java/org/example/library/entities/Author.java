@@ -1,21 +1,45 @@
 package org.example.library.entities;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "AUTHOR",
-    uniqueConstraints = {@UniqueConstraint(columnNames = {"firstName", "lastName"})})
+    uniqueConstraints = {@UniqueConstraint(columnNames = {"firstName", "lastName"})},
+    indexes = {@Index(name = "IDX_AUTHOR_LAST_NAME", columnList = "lastName")})
 public class Author {
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+  @GenericGenerator(name = "author_seq",
+      strategy = "org.example.library.entities.PooledSequenceGenerator",
+      parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "AUTHOR_SEQ"))
   private Long id;
 
+  @Version
+  private Long version;
+
+  @Column(nullable = false)
+  private Instant lastModified;
+
   @Column(nullable = false)
   private String firstName;
 
@@ -57,4 +81,18 @@ public class Author {
   public void setLastName(String lastName) {
     this.lastName = lastName;
   }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public Instant getLastModified() {
+    return lastModified;
+  }
+
+  @PrePersist
+  @PreUpdate
+  void touch() {
+    lastModified = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+  }
 }
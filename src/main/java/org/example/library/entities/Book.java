@@ -1,6 +1,9 @@
 package org.example.library.entities;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
@@ -8,18 +11,38 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "BOOK",
     uniqueConstraints = {@UniqueConstraint(columnNames = {"title", "published"})})
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @GenericGenerator(name = "book_seq",
+        strategy = "org.example.library.entities.PooledSequenceGenerator",
+        parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "BOOK_SEQ"))
     private Long id;
 
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant lastModified;
+
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Author> authors;
 
     @Column(nullable = false)
@@ -73,4 +96,18 @@ public class Book {
     public void setAuthors(List<Author> authors) {
         this.authors = authors;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
 }
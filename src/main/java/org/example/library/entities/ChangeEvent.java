@@ -0,0 +1,88 @@
+package org.example.library.entities;
+
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * One change of an entity, written to the outbox in the transaction of the change. The id is the
+ * offset of the event in the change feed and is assigned by the application, not by a sequence,
+ * see {@code ChangeFeedService}.
+ */
+@Entity
+@Table(name = "CHANGE_EVENT")
+public class ChangeEvent {
+
+  @Id
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private ChangedEntity entity;
+
+  @Column(nullable = false)
+  private Long entityId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private ChangeOperation operation;
+
+  @Column
+  private Long entityVersion;
+
+  @Column(nullable = false)
+  private Instant created;
+
+  public ChangeEvent() {
+  }
+
+  public ChangeEvent(Long id, ChangedEntity entity, Long entityId, ChangeOperation operation,
+      Long entityVersion, Instant created) {
+    this.id = id;
+    this.entity = entity;
+    this.entityId = entityId;
+    this.operation = operation;
+    this.entityVersion = entityVersion;
+    this.created = created;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public ChangedEntity getEntity() {
+    return entity;
+  }
+
+  public Long getEntityId() {
+    return entityId;
+  }
+
+  public ChangeOperation getOperation() {
+    return operation;
+  }
+
+  public Long getEntityVersion() {
+    return entityVersion;
+  }
+
+  public Instant getCreated() {
+    return created;
+  }
+
+  @Override
+  public String toString() {
+    return "ChangeEvent{" +
+        "id=" + id +
+        ", entity=" + entity +
+        ", entityId=" + entityId +
+        ", operation=" + operation +
+        ", entityVersion=" + entityVersion +
+        ", created=" + created +
+        '}';
+  }
+}
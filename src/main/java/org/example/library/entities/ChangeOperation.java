@@ -0,0 +1,7 @@
+package org.example.library.entities;
+
+public enum ChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,8 @@
+package org.example.library.entities;
+
+public enum ChangedEntity {
+    AUTHOR,
+    BOOK,
+    READER,
+    TAKEN_BOOK
+}
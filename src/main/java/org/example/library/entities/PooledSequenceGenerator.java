@@ -0,0 +1,32 @@
+package org.example.library.entities;
+
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Sequence generator with pooled-lo optimizer: a single sequence call reserves a block of ids
+ * which are then handed out from memory. The block size is taken from the
+ * {@value #INCREMENT_SIZE_SETTING} hibernate setting, so it can be tuned without touching the
+ * entity mappings.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+  public static final String INCREMENT_SIZE_SETTING = "library.id.increment_size";
+  private static final int DEFAULT_INCREMENT_SIZE = 50;
+
+  @Override
+  public void configure(Type type, Properties params, ServiceRegistry serviceRegistry)
+      throws MappingException {
+    int incrementSize = ConfigurationHelper.getInt(INCREMENT_SIZE_SETTING,
+        serviceRegistry.getService(ConfigurationService.class).getSettings(),
+        DEFAULT_INCREMENT_SIZE);
+    params.setProperty(INCREMENT_PARAM, String.valueOf(incrementSize));
+    params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+    super.configure(type, params, serviceRegistry);
+  }
+}
@@ -1,6 +1,8 @@
 package org.example.library.entities;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -8,17 +10,34 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity
 @Table(name = "READER", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"firstName", "middleName", "lastName", "birthday"})})
+    @UniqueConstraint(columnNames = {"firstName", "middleName", "lastName", "birthday"})},
+    indexes = {@Index(name = "IDX_READER_LAST_NAME", columnList = "lastName")})
 public class Reader {
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reader_seq")
+  @GenericGenerator(name = "reader_seq",
+      strategy = "org.example.library.entities.PooledSequenceGenerator",
+      parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "READER_SEQ"))
   private Long id;
 
+  @Version
+  private Long version;
+
+  @Column(nullable = false)
+  private Instant lastModified;
+
   @Column(nullable = false)
   private String firstName;
 
@@ -97,4 +116,18 @@ public class Reader {
   public void setBirthday(LocalDate birthday) {
     this.birthday = birthday;
   }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public Instant getLastModified() {
+    return lastModified;
+  }
+
+  @PrePersist
+  @PreUpdate
+  void touch() {
+    lastModified = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+  }
 }
@@ -1,24 +1,44 @@
 package org.example.library.entities;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.Version;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity
-@Table(name = "TAKEN_BOOK")
+@Table(name = "TAKEN_BOOK", indexes = {
+    @Index(name = "IDX_TAKEN_BOOK_READER_DATE_FROM", columnList = "reader_id, dateFrom"),
+    @Index(name = "IDX_TAKEN_BOOK_BOOK_DATE_FROM", columnList = "book_id, dateFrom")})
 public class TakenBook {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "taken_book_seq")
+  @GenericGenerator(name = "taken_book_seq",
+      strategy = "org.example.library.entities.PooledSequenceGenerator",
+      parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "TAKEN_BOOK_SEQ"))
   private Long id;
 
+  @Version
+  private Long version;
+
+  @Column(nullable = false)
+  private Instant lastModified;
+
   @ManyToOne(fetch = FetchType.LAZY, optional = false)
   @JoinColumn(name = "reader_id", nullable = false)
   private Reader reader;
@@ -89,4 +109,18 @@ public class TakenBook {
   public void setDateTo(LocalDate dateTo) {
     this.dateTo = dateTo;
   }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public Instant getLastModified() {
+    return lastModified;
+  }
+
+  @PrePersist
+  @PreUpdate
+  void touch() {
+    lastModified = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+  }
 }
@@ -1,16 +1,42 @@
 package org.example.library.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import java.util.List;
-import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.example.library.entities.Author;
+import org.example.library.service.EntityVersion;
+import org.example.library.service.dto.AuthorDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+public interface AuthorRepository extends JpaRepository<Author, Long>, AuthorRepositoryCustom {
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   List<Author> findByLastName(String lastName);
 
-  @Query("SELECT a FROM Author a WHERE a.id IN (:ids)")
-  List<Author> findByIds(Set<Long> ids);
+  @Query("SELECT new org.example.library.service.dto.AuthorDTO(a.id, a.firstName, a.lastName) "
+      + "FROM Author a WHERE a.lastName = ?1 AND a.id > ?2 ORDER BY a.id")
+  List<AuthorDTO> findByLastNameAfter(String lastName, long afterId, Pageable pageable);
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT new org.example.library.service.dto.AuthorDTO(a.id, a.firstName, a.lastName) "
+      + "FROM Author a WHERE a.lastName = ?1 ORDER BY a.id")
+  Stream<AuthorDTO> streamByLastName(String lastName);
+
+  @Query("SELECT a.id FROM Author a")
+  List<Long> findAllIds();
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT a.id, a.firstName, a.lastName FROM Author a ORDER BY a.id")
+  Stream<Object[]> streamAllNames();
+
+  @Query("SELECT new org.example.library.service.EntityVersion(a.version, a.lastModified) "
+      + "FROM Author a WHERE a.id = ?1")
+  EntityVersion findVersion(Long id);
 }
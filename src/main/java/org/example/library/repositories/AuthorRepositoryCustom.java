@@ -0,0 +1,13 @@
+package org.example.library.repositories;
+
+import java.util.List;
+import java.util.Set;
+import org.example.library.entities.Author;
+
+public interface AuthorRepositoryCustom {
+  /**
+   * Returns the authors with the given ids that exist. Authors present in the second-level cache
+   * are taken from it; the rest are read with a single {@code IN} query.
+   */
+  List<Author> findByIds(Set<Long> ids);
+}
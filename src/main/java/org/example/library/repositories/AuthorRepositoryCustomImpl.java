@@ -0,0 +1,37 @@
+package org.example.library.repositories;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.example.library.entities.Author;
+
+public class AuthorRepositoryCustomImpl implements AuthorRepositoryCustom {
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<Author> findByIds(Set<Long> ids) {
+    Cache cache = entityManager.getEntityManagerFactory().getCache();
+    List<Author> authors = new ArrayList<>(ids.size());
+    Set<Long> notCachedIds = new HashSet<>();
+    for (Long id : ids) {
+      Author author = cache.contains(Author.class, id) ? entityManager.find(Author.class, id) : null;
+      if (author != null) {
+        authors.add(author);
+      } else {
+        notCachedIds.add(id);
+      }
+    }
+    if (!notCachedIds.isEmpty()) {
+      authors.addAll(entityManager
+          .createQuery("SELECT a FROM Author a WHERE a.id IN (:ids)", Author.class)
+          .setParameter("ids", notCachedIds)
+          .getResultList());
+    }
+    return authors;
+  }
+}
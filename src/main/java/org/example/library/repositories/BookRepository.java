@@ -1,11 +1,90 @@
 package org.example.library.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import org.example.library.entities.Book;
+import org.example.library.service.EntityVersion;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
+    @EntityGraph(attributePaths = "authors")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Book> findByTitle(String title);
+
+    /**
+     * Loads the book together with its authors in a single select, so that converting it to
+     * {@link org.example.library.service.dto.BookDTO} doesn't trigger a lazy collection load.
+     * Once cached, the book, its author list and the authors all come from the second-level cache.
+     */
+    @EntityGraph(attributePaths = "authors")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Optional<Book> findWithAuthorsById(Long id);
+
+    /**
+     * Loads the books together with their authors in a single select.
+     */
+    @EntityGraph(attributePaths = "authors")
+    @Query("SELECT DISTINCT b FROM Book b WHERE b.id IN (:ids)")
+    List<Book> findWithAuthorsByIdIn(Set<Long> ids);
+
+    @Query("SELECT b.id FROM Book b WHERE b.id IN (:ids)")
+    Set<Long> findExistingIds(Set<Long> ids);
+
+    @Query("SELECT b.id FROM Book b")
+    List<Long> findAllIds();
+
+    /**
+     * Id and title of every book in id order, read as the stream is consumed.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b.id, b.title FROM Book b ORDER BY b.id")
+    Stream<Object[]> streamAllTitles();
+
+    /**
+     * Author id and book id of every authorship, by author and then book id, read as the stream
+     * is consumed.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a.id, b.id FROM Book b JOIN b.authors a ORDER BY a.id, b.id")
+    Stream<Object[]> streamAllAuthorships();
+
+    /**
+     * One row of the count, greatest id and sum of versions of the books; any insert, update or
+     * delete changes at least one of them.
+     */
+    @Query("SELECT COUNT(b), MAX(b.id), SUM(b.version) FROM Book b")
+    List<Object[]> findFingerprint();
+
+    /**
+     * Loads the book with {@code SELECT ... FOR UPDATE}, so loans of one book are checked for
+     * overlaps one transaction at a time while loans of other books proceed in parallel.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = ?1")
+    Optional<Book> findByIdForUpdate(Long id);
+
+    /**
+     * Locks several books at once. Rows are locked in id order, so two transactions locking
+     * overlapping sets can't deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id IN (:ids) ORDER BY b.id")
+    List<Book> findAllByIdForUpdate(Set<Long> ids);
+
+    @Query("SELECT new org.example.library.service.EntityVersion(b.version, b.lastModified) "
+        + "FROM Book b WHERE b.id = ?1")
+    EntityVersion findVersion(Long id);
 }
@@ -0,0 +1,39 @@
+package org.example.library.repositories;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.example.library.entities.ChangeEvent;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The outbox of entity changes. Events are inserted with {@code persist}, since their id is
+ * assigned up front and {@code save} would first look for an existing row with it.
+ */
+@Repository
+public class ChangeEventRepository {
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public void append(ChangeEvent event) {
+    entityManager.persist(event);
+  }
+
+  /**
+   * @return the first {@code limit} events with an id in {@code (after, before)}, by id
+   */
+  public List<ChangeEvent> findBetween(long after, long before, int limit) {
+    return entityManager.createQuery("SELECT e FROM ChangeEvent e WHERE e.id > :after "
+        + "AND e.id < :before ORDER BY e.id", ChangeEvent.class)
+        .setParameter("after", after)
+        .setParameter("before", before)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  public long findMaxId() {
+    Long maxId = entityManager.createQuery("SELECT MAX(e.id) FROM ChangeEvent e", Long.class)
+        .getSingleResult();
+    return maxId == null ? 0 : maxId;
+  }
+}
@@ -0,0 +1,94 @@
+package org.example.library.repositories;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.example.library.service.ValidationException;
+
+/**
+ * Fields of an entity that a client can ask for one by one, with the JPQL paths they are read
+ * from. The entity is aliased {@code e}; a collection field is read through a join and comes back
+ * as a set.
+ */
+public enum EntityProjection {
+  AUTHOR("Author", null, null,
+      "id", "e.id",
+      "firstName", "e.firstName",
+      "lastName", "e.lastName"),
+  BOOK("Book", "LEFT JOIN e.authors a", "authorIds",
+      "id", "e.id",
+      "title", "e.title",
+      "published", "e.published",
+      "authorIds", "a.id"),
+  READER("Reader", null, null,
+      "id", "e.id",
+      "firstName", "e.firstName",
+      "middleName", "e.middleName",
+      "lastName", "e.lastName",
+      "gender", "e.gender",
+      "birthday", "e.birthday"),
+  TAKEN_BOOK("TakenBook", null, null,
+      "id", "e.id",
+      "readerId", "e.reader.id",
+      "bookId", "e.book.id",
+      "dateFrom", "e.dateFrom",
+      "dateTo", "e.dateTo");
+
+  private final String entityName;
+  private final String collectionJoin;
+  private final String collectionField;
+  private final Map<String, String> paths = new LinkedHashMap<>();
+
+  EntityProjection(String entityName, String collectionJoin, String collectionField,
+      String... namesAndPaths) {
+    this.entityName = entityName;
+    this.collectionJoin = collectionJoin;
+    this.collectionField = collectionField;
+    for (int i = 0; i < namesAndPaths.length; i += 2) {
+      paths.put(namesAndPaths[i], namesAndPaths[i + 1]);
+    }
+  }
+
+  /**
+   * @return the requested fields in request order, preceded by {@code id}, which is always
+   *     returned since rows are told apart and paged by it
+   * @throws ValidationException if a field is unknown or none is requested
+   */
+  public Set<String> select(Collection<String> requested) {
+    if (requested == null || requested.isEmpty()) {
+      throw new ValidationException("Fields are not specified");
+    }
+    Set<String> fields = new LinkedHashSet<>();
+    fields.add("id");
+    for (String field : requested) {
+      String name = field.trim();
+      if (!paths.containsKey(name)) {
+        throw new ValidationException("Unknown field '" + name + "', expected one of "
+            + paths.keySet());
+      }
+      fields.add(name);
+    }
+    return fields;
+  }
+
+  public String getEntityName() {
+    return entityName;
+  }
+
+  String getPath(String field) {
+    return paths.get(field);
+  }
+
+  /**
+   * @return the collection field if it is among {@code fields}, otherwise {@code null}
+   */
+  String getCollectionField(Set<String> fields) {
+    return collectionField != null && fields.contains(collectionField) ? collectionField : null;
+  }
+
+  String getCollectionJoin() {
+    return collectionJoin;
+  }
+}
@@ -0,0 +1,122 @@
+package org.example.library.repositories;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads only the requested fields of an entity with a tuple query, so the other columns are
+ * neither selected nor converted. Rows come as maps from field name to value, ordered by id.
+ */
+@Repository
+public class FieldProjectionRepository {
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * @param fields names returned by {@link EntityProjection#select}
+   * @param condition JPQL condition on the entity aliased {@code e}, with named parameters
+   * @param pageable page to read, or {@code null} for all rows; can't be combined with a
+   *     collection field
+   */
+  public List<Map<String, Object>> find(EntityProjection projection, Set<String> fields,
+      String condition, Map<String, Object> parameters, Pageable pageable) {
+    String collectionField = projection.getCollectionField(fields);
+    if (collectionField != null && pageable != null) {
+      throw new IllegalArgumentException("Field " + collectionField + " can't be paged");
+    }
+    TypedQuery<Tuple> query = createQuery(projection, fields, condition, parameters);
+    if (pageable != null) {
+      query.setFirstResult((int) pageable.getOffset());
+      query.setMaxResults(pageable.getPageSize());
+    }
+    List<Tuple> rows = query.getResultList();
+    if (collectionField == null) {
+      List<Map<String, Object>> result = new ArrayList<>(rows.size());
+      for (Tuple row : rows) {
+        result.add(toMap(fields, row));
+      }
+      return result;
+    }
+    // the join repeats a row for every element of the collection, which ORDER BY keeps together
+    Map<Object, Map<String, Object>> byId = new LinkedHashMap<>();
+    for (Tuple row : rows) {
+      Map<String, Object> merged = byId.computeIfAbsent(row.get(0), id -> {
+        Map<String, Object> map = toMap(fields, row);
+        map.put(collectionField, new LinkedHashSet<>());
+        return map;
+      });
+      Object element = row.get(indexOf(fields, collectionField));
+      if (element != null) {
+        @SuppressWarnings("unchecked")
+        Set<Object> elements = (Set<Object>) merged.get(collectionField);
+        elements.add(element);
+      }
+    }
+    return new ArrayList<>(byId.values());
+  }
+
+  /**
+   * Like {@link #find} without paging, but hands out rows as they are read. The stream has to be
+   * closed, within the transaction it was opened in.
+   */
+  public Stream<Map<String, Object>> stream(EntityProjection projection, Set<String> fields,
+      String condition, Map<String, Object> parameters) {
+    if (projection.getCollectionField(fields) != null) {
+      throw new IllegalArgumentException(
+          "Field " + projection.getCollectionField(fields) + " can't be streamed");
+    }
+    return createQuery(projection, fields, condition, parameters)
+        .setHint(HINT_FETCH_SIZE, 500)
+        .getResultStream()
+        .map(row -> toMap(fields, row));
+  }
+
+  private TypedQuery<Tuple> createQuery(EntityProjection projection, Set<String> fields,
+      String condition, Map<String, Object> parameters) {
+    StringBuilder jpql = new StringBuilder("SELECT ");
+    for (String field : fields) {
+      jpql.append(jpql.length() == 7 ? "" : ", ").append(projection.getPath(field));
+    }
+    jpql.append(" FROM ").append(projection.getEntityName()).append(" e");
+    if (projection.getCollectionField(fields) != null) {
+      jpql.append(' ').append(projection.getCollectionJoin());
+    }
+    jpql.append(" WHERE ").append(condition).append(" ORDER BY e.id");
+    TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+    parameters.forEach(query::setParameter);
+    return query;
+  }
+
+  private static Map<String, Object> toMap(Set<String> fields, Tuple row) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    int i = 0;
+    for (String field : fields) {
+      map.put(field, row.get(i++));
+    }
+    return map;
+  }
+
+  private static int indexOf(Set<String> fields, String field) {
+    int i = 0;
+    for (String name : fields) {
+      if (name.equals(field)) {
+        return i;
+      }
+      i++;
+    }
+    return -1;
+  }
+}
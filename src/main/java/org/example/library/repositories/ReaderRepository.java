@@ -1,11 +1,48 @@
 package org.example.library.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.example.library.entities.Reader;
+import org.example.library.service.EntityVersion;
+import org.example.library.service.dto.ReaderDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ReaderRepository extends JpaRepository<Reader, Long> {
   List<Reader> findByLastName(String lastName);
+
+  @Query("SELECT new org.example.library.service.dto.ReaderDTO("
+      + "r.id, r.firstName, r.middleName, r.lastName, r.gender, r.birthday) "
+      + "FROM Reader r WHERE r.lastName = ?1 AND r.id > ?2 ORDER BY r.id")
+  List<ReaderDTO> findByLastNameAfter(String lastName, long afterId, Pageable pageable);
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT new org.example.library.service.dto.ReaderDTO("
+      + "r.id, r.firstName, r.middleName, r.lastName, r.gender, r.birthday) "
+      + "FROM Reader r WHERE r.lastName = ?1 ORDER BY r.id")
+  Stream<ReaderDTO> streamByLastName(String lastName);
+
+  @Query("SELECT new org.example.library.service.dto.ReaderDTO("
+      + "r.id, r.firstName, r.middleName, r.lastName, r.gender, r.birthday) "
+      + "FROM Reader r WHERE r.id IN (:ids)")
+  List<ReaderDTO> findByIdIn(Set<Long> ids);
+
+  @Query("SELECT r.id FROM Reader r WHERE r.id IN (:ids)")
+  Set<Long> findExistingIds(Set<Long> ids);
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT r.id, r.firstName, r.middleName, r.lastName FROM Reader r ORDER BY r.id")
+  Stream<Object[]> streamAllNames();
+
+  @Query("SELECT new org.example.library.service.EntityVersion(r.version, r.lastModified) "
+      + "FROM Reader r WHERE r.id = ?1")
+  EntityVersion findVersion(Long id);
 }
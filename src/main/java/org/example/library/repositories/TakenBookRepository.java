@@ -1,14 +1,72 @@
 package org.example.library.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.example.library.entities.TakenBook;
+import org.example.library.service.dto.TakenBookDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface TakenBookRepository extends JpaRepository<TakenBook, Long> {
-  @Query("SELECT t FROM TakenBook t WHERE t.reader.id = ?1 AND t.dateFrom between ?2 and ?3")
-  List<TakenBook> findByReaderAndPeriod(long readerId, LocalDate dateFrom, LocalDate dateTo);
+  /**
+   * Range scan over the (reader_id, dateFrom) index. Rows are read straight into DTOs, so neither
+   * the taken books nor their reader and book proxies enter the persistence context.
+   */
+  @Query("SELECT new org.example.library.service.dto.TakenBookDTO("
+      + "t.id, t.reader.id, t.book.id, t.dateFrom, t.dateTo) "
+      + "FROM TakenBook t WHERE t.reader.id = ?1 AND t.dateFrom BETWEEN ?2 AND ?3")
+  List<TakenBookDTO> findByReaderAndPeriod(long readerId, LocalDate dateFrom, LocalDate dateTo);
+
+  @Query("SELECT new org.example.library.service.dto.TakenBookDTO("
+      + "t.id, t.reader.id, t.book.id, t.dateFrom, t.dateTo) "
+      + "FROM TakenBook t WHERE t.reader.id = ?1 AND t.dateFrom BETWEEN ?2 AND ?3 AND t.id > ?4 "
+      + "ORDER BY t.id")
+  List<TakenBookDTO> findByReaderAndPeriodAfter(long readerId, LocalDate dateFrom,
+      LocalDate dateTo, long afterId, Pageable pageable);
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT new org.example.library.service.dto.TakenBookDTO("
+      + "t.id, t.reader.id, t.book.id, t.dateFrom, t.dateTo) "
+      + "FROM TakenBook t WHERE t.reader.id = ?1 AND t.dateFrom BETWEEN ?2 AND ?3 ORDER BY t.id")
+  Stream<TakenBookDTO> streamByReaderAndPeriod(long readerId, LocalDate dateFrom,
+      LocalDate dateTo);
+
+  @Query("SELECT new org.example.library.service.dto.TakenBookDTO("
+      + "t.id, t.reader.id, t.book.id, t.dateFrom, t.dateTo) "
+      + "FROM TakenBook t WHERE t.id IN (:ids)")
+  List<TakenBookDTO> findByIdIn(Set<Long> ids);
+
+  /**
+   * Counts loans of the book intersecting {@code [dateFrom, dateTo)}, ignoring the loan with id
+   * {@code excludedId}. A loan without a return date is open-ended.
+   */
+  @Query("SELECT COUNT(t) FROM TakenBook t WHERE t.book.id = ?1 AND t.dateFrom < ?3 "
+      + "AND (t.dateTo IS NULL OR t.dateTo > ?2) AND t.id <> ?4")
+  long countOverlapping(long bookId, LocalDate dateFrom, LocalDate dateTo, long excludedId);
+
+  /**
+   * Periods of the books' loans intersecting {@code [dateFrom, dateTo)}, as
+   * {@code [bookId, dateFrom, dateTo]} rows.
+   */
+  @Query("SELECT t.book.id, t.dateFrom, t.dateTo FROM TakenBook t WHERE t.book.id IN ?1 "
+      + "AND t.dateFrom < ?3 AND (t.dateTo IS NULL OR t.dateTo > ?2)")
+  List<Object[]> findPeriodsOverlapping(Set<Long> bookIds, LocalDate dateFrom, LocalDate dateTo);
+
+  /**
+   * All loans as {@code [bookId, id, dateFrom, dateTo]} rows, grouped by book and sorted by
+   * start within a book.
+   */
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT t.book.id, t.id, t.dateFrom, t.dateTo FROM TakenBook t "
+      + "ORDER BY t.book.id, t.dateFrom")
+  Stream<Object[]> streamAllPeriods();
 }
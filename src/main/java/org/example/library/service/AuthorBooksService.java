@@ -0,0 +1,241 @@
+package org.example.library.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import org.example.library.entities.Author;
+import org.example.library.repositories.AuthorRepository;
+import org.example.library.repositories.BookRepository;
+import org.example.library.service.dto.AuthorBooksDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Answers which books an author wrote from memory, since {@code Book.authors} can only be
+ * navigated from the book. Every author id maps to the ids of their books, ascending, and every
+ * book id to its author ids, so a book change is applied without reading its previous authors.
+ * Like {@link AvailabilityService}, the index is built from the database at startup and then
+ * follows the author and book services, applying their changes once the transaction commits.
+ * Pages of books are meant to be loaded with one {@link BatchReadService} query, so neither a
+ * page nor the list of authors may be longer than {@code library.batch-read.max-size}.
+ */
+@Service
+public class AuthorBooksService {
+  private static final Logger LOG = LoggerFactory.getLogger(AuthorBooksService.class);
+  private static final long[] NONE = new long[0];
+
+  @Autowired
+  private AuthorRepository authorRepository;
+  @Autowired
+  private BookRepository bookRepository;
+
+  private final TransactionTemplate transactionTemplate;
+  private final int maxSize;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private LongObjectMap<long[]> authorBooks = new LongObjectMap<>();
+  private LongObjectMap<long[]> bookAuthors = new LongObjectMap<>();
+
+  public AuthorBooksService(AuthorRepository authorRepository, BookRepository bookRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${library.batch-read.max-size:100}") int maxSize) {
+    this.authorRepository = authorRepository;
+    this.bookRepository = bookRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Replaces the index with the current content of the database.
+   */
+  @PostConstruct
+  public void rebuild() {
+    long started = System.currentTimeMillis();
+    LongObjectMap<long[]> byBook = new LongObjectMap<>();
+    LongObjectMap<long[]> byAuthor = transactionTemplate.execute(status -> {
+      List<Long> authorIds = authorRepository.findAllIds();
+      LongObjectMap<long[]> index = new LongObjectMap<>(authorIds.size());
+      for (Long authorId : authorIds) {
+        index.put(authorId, NONE);
+      }
+      RowGrouper<long[]> grouper = new RowGrouper<>(index, 1, columns -> columns[0]);
+      try (Stream<Object[]> rows = bookRepository.streamAllAuthorships()) {
+        rows.forEach(row -> {
+          long authorId = (Long) row[0];
+          long bookId = (Long) row[1];
+          grouper.accept(authorId, bookId);
+          // rows come by author, so each book's authors are appended in ascending order
+          long[] authors = byBook.get(bookId);
+          authors = authors == null ? new long[1] : Arrays.copyOf(authors, authors.length + 1);
+          authors[authors.length - 1] = authorId;
+          byBook.put(bookId, authors);
+        });
+      }
+      grouper.flush();
+      return index;
+    });
+    lock.writeLock().lock();
+    try {
+      authorBooks = byAuthor;
+      bookAuthors = byBook;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    LOG.info("Author books index of {} authors and {} books built in {} ms", byAuthor.size(),
+        byBook.size(), System.currentTimeMillis() - started);
+  }
+
+  /**
+   * @return ids of the author's books, ascending, the first {@code limit} of those greater than
+   *     {@code after}
+   * @throws NotFoundException if there is no such author
+   */
+  public List<Long> findBookIds(Long authorId, long after, int limit) {
+    if (authorId == null) {
+      throw new ValidationException("Author id is not specified");
+    }
+    validatePage(after, limit);
+    long[] bookIds;
+    lock.readLock().lock();
+    try {
+      bookIds = authorBooks.get(authorId);
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (bookIds == null) {
+      throw new NotFoundException("Author with id=" + authorId + " doesn't exist");
+    }
+    int from = Arrays.binarySearch(bookIds, after);
+    from = from < 0 ? -from - 1 : from + 1;
+    List<Long> page = new ArrayList<>(Math.min(limit, bookIds.length - from));
+    for (int i = from; i < bookIds.length && page.size() < limit; i++) {
+      page.add(bookIds[i]);
+    }
+    return page;
+  }
+
+  /**
+   * @return for each existing author among {@code authorIds}, in the order requested, the number
+   *     of their books and the ids of the first {@code limit} of them
+   */
+  public List<AuthorBooksDTO> findBookIds(List<Long> authorIds, int limit) {
+    if (authorIds == null || authorIds.isEmpty()) {
+      throw new ValidationException("Author ids are not specified");
+    }
+    Set<Long> distinctIds = new LinkedHashSet<>(authorIds);
+    if (distinctIds.contains(null)) {
+      throw new ValidationException("Author ids contain null");
+    }
+    if (distinctIds.size() > maxSize) {
+      throw new ValidationException("Author ids count " + distinctIds.size()
+          + " exceeds maximum " + maxSize);
+    }
+    validatePage(0, limit);
+    List<AuthorBooksDTO> found = new ArrayList<>(distinctIds.size());
+    lock.readLock().lock();
+    try {
+      for (Long authorId : distinctIds) {
+        long[] bookIds = authorBooks.get(authorId);
+        if (bookIds != null) {
+          List<Long> page = new ArrayList<>(Math.min(limit, bookIds.length));
+          for (int i = 0; i < bookIds.length && i < limit; i++) {
+            page.add(bookIds[i]);
+          }
+          Long next = bookIds.length > limit ? page.get(limit - 1) : null;
+          found.add(new AuthorBooksDTO(authorId, bookIds.length, page, next));
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return found;
+  }
+
+  void authorCreated(long authorId) {
+    IndexChanges.afterCommit(lock, () -> {
+      if (authorBooks.get(authorId) == null) {
+        authorBooks.put(authorId, NONE);
+      }
+    });
+  }
+
+  void authorDeleted(long authorId) {
+    IndexChanges.afterCommit(lock, () -> authorBooks.remove(authorId));
+  }
+
+  void bookSaved(long bookId, Collection<Author> authors) {
+    long[] authorIds = authors.stream().mapToLong(Author::getId).sorted().toArray();
+    IndexChanges.afterCommit(lock, () -> {
+      unlink(bookId);
+      for (long authorId : authorIds) {
+        long[] bookIds = authorBooks.get(authorId);
+        authorBooks.put(authorId, with(bookIds == null ? NONE : bookIds, bookId));
+      }
+      bookAuthors.put(bookId, authorIds);
+    });
+  }
+
+  void bookDeleted(long bookId) {
+    IndexChanges.afterCommit(lock, () -> unlink(bookId));
+  }
+
+  private void unlink(long bookId) {
+    long[] authors = bookAuthors.get(bookId);
+    if (authors == null) {
+      return;
+    }
+    bookAuthors.remove(bookId);
+    for (long authorId : authors) {
+      long[] bookIds = authorBooks.get(authorId);
+      if (bookIds != null) {
+        authorBooks.put(authorId, without(bookIds, bookId));
+      }
+    }
+  }
+
+  private void validatePage(long after, int limit) {
+    Paging.pageAfter(after, limit);
+    if (limit > maxSize) {
+      throw new ValidationException("Page limit is greater than " + maxSize);
+    }
+  }
+
+  /**
+   * Arrays in the index are never changed in place, only replaced.
+   */
+  private static long[] with(long[] ids, long id) {
+    int i = Arrays.binarySearch(ids, id);
+    if (i >= 0) {
+      return ids;
+    }
+    i = -i - 1;
+    long[] result = new long[ids.length + 1];
+    System.arraycopy(ids, 0, result, 0, i);
+    result[i] = id;
+    System.arraycopy(ids, i, result, i + 1, ids.length - i);
+    return result;
+  }
+
+  private static long[] without(long[] ids, long id) {
+    int i = Arrays.binarySearch(ids, id);
+    if (i < 0) {
+      return ids;
+    }
+    long[] result = new long[ids.length - 1];
+    System.arraycopy(ids, 0, result, 0, i);
+    System.arraycopy(ids, i + 1, result, i, ids.length - i - 1);
+    return result;
+  }
+}
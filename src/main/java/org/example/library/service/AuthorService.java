@@ -1,31 +1,74 @@
 package org.example.library.service;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.example.library.entities.Author;
+import org.example.library.entities.ChangeOperation;
+import org.example.library.entities.ChangedEntity;
 import org.example.library.repositories.AuthorRepository;
+import org.example.library.repositories.EntityProjection;
+import org.example.library.repositories.FieldProjectionRepository;
+import org.example.library.service.dto.AuthorDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthorService {
+  private static final String BY_LAST_NAME = "e.lastName = :lastName";
+
   @Autowired
   private AuthorRepository authorRepository;
 
-  public AuthorService(AuthorRepository authorRepository) {
+  @Autowired
+  private DtoCache<Versioned<AuthorDTO>> authorDtoCache;
+
+  @Autowired
+  private FieldProjectionRepository fieldProjectionRepository;
+
+  @Autowired
+  private AuthorBooksService authorBooksService;
+
+  @Autowired
+  private ChangeFeedService changeFeedService;
+
+  @Autowired
+  private NameSearchService nameSearchService;
+
+  public AuthorService(AuthorRepository authorRepository,
+      DtoCache<Versioned<AuthorDTO>> authorDtoCache,
+      FieldProjectionRepository fieldProjectionRepository,
+      AuthorBooksService authorBooksService, ChangeFeedService changeFeedService,
+      NameSearchService nameSearchService) {
     this.authorRepository = authorRepository;
+    this.authorDtoCache = authorDtoCache;
+    this.fieldProjectionRepository = fieldProjectionRepository;
+    this.authorBooksService = authorBooksService;
+    this.changeFeedService = changeFeedService;
+    this.nameSearchService = nameSearchService;
   }
 
   @Transactional
   public Author createAuthor(String firstName, String lastName) {
     try {
       validate(firstName, lastName);
-      return authorRepository.saveAndFlush(new Author(firstName, lastName));
+      Author author = authorRepository.saveAndFlush(new Author(firstName, lastName));
+      authorBooksService.authorCreated(author.getId());
+      nameSearchService.authorSaved(author.getId(), firstName, lastName);
+      changeFeedService.record(ChangedEntity.AUTHOR, author.getId(), ChangeOperation.CREATED,
+          author.getVersion());
+      return author;
     } catch(DataIntegrityViolationException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
@@ -35,7 +78,7 @@ public class AuthorService {
       validate(firstName, lastName);
 
       if (id == null) {
-        throw new IllegalArgumentException("Author id is not specified");
+        throw new ValidationException("Author id is not specified");
       }
       Optional<Author> optionalAuthor = authorRepository.findById(id);
       if (!optionalAuthor.isPresent()) {
@@ -45,47 +88,120 @@ public class AuthorService {
       Author author = optionalAuthor.get();
       author.setFirstName(firstName);
       author.setLastName(lastName);
-      return authorRepository.saveAndFlush(author);
+      authorDtoCache.evict(id);
+      Author updatedAuthor = authorRepository.saveAndFlush(author);
+      nameSearchService.authorSaved(id, firstName, lastName);
+      changeFeedService.record(ChangedEntity.AUTHOR, id, ChangeOperation.UPDATED,
+          updatedAuthor.getVersion());
+      return updatedAuthor;
     } catch(DataIntegrityViolationException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
   @Transactional
   public Author findById(Long id) {
     if (id == null) {
-      throw new IllegalArgumentException("Author id is not specified");
+      throw new ValidationException("Author id is not specified");
     }
     Optional<Author> optionalAuthor = authorRepository.findById(id);
     return optionalAuthor.orElse(null);
   }
 
+  /**
+   * @return version of the entity, read without loading it, or {@code null} if there is none
+   */
+  @Transactional(readOnly = true)
+  public EntityVersion findVersion(Long id) {
+    if (id == null) {
+      throw new ValidationException("Author id is not specified");
+    }
+    return authorRepository.findVersion(id);
+  }
+
   @Transactional
   public void deleteById(Long id) {
     try {
       if (id == null) {
-        throw new IllegalArgumentException("Author id is not specified");
+        throw new ValidationException("Author id is not specified");
       }
+      authorDtoCache.evict(id);
       authorRepository.deleteById(id);
+      authorBooksService.authorDeleted(id);
+      nameSearchService.authorDeleted(id);
+      changeFeedService.record(ChangedEntity.AUTHOR, id, ChangeOperation.DELETED, null);
     } catch (EmptyResultDataAccessException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
   @Transactional
   public List<Author> findByLastName(String lastName) {
+    validateLastName(lastName);
+    return authorRepository.findByLastName(lastName);
+  }
+
+  @Transactional(readOnly = true)
+  public List<AuthorDTO> findByLastName(String lastName, long after, int limit) {
+    validateLastName(lastName);
+    return authorRepository.findByLastNameAfter(lastName, after, Paging.pageAfter(after, limit));
+  }
+
+  /**
+   * Passes every author with the given last name to {@code consumer} as rows are read, without
+   * collecting them first.
+   */
+  @Transactional(readOnly = true)
+  public void streamByLastName(String lastName, Consumer<AuthorDTO> consumer) {
+    validateLastName(lastName);
+    try (Stream<AuthorDTO> authors = authorRepository.streamByLastName(lastName)) {
+      authors.forEach(consumer);
+    }
+  }
+
+  /**
+   * Like {@link #findByLastName(String, long, int)}, reading only {@code fields}.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> findByLastName(String lastName, long after, int limit,
+      List<String> fields) {
+    validateLastName(lastName);
+    Pageable page = Paging.pageAfter(after, limit);
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("lastName", lastName);
+    parameters.put("after", after);
+    return fieldProjectionRepository.find(EntityProjection.AUTHOR,
+        EntityProjection.AUTHOR.select(fields), BY_LAST_NAME + " AND e.id > :after", parameters,
+        page);
+  }
+
+  /**
+   * Like {@link #streamByLastName(String, Consumer)}, reading only {@code fields}.
+   */
+  @Transactional(readOnly = true)
+  public void streamByLastName(String lastName, List<String> fields,
+      Consumer<Map<String, Object>> consumer) {
+    validateLastName(lastName);
+    Set<String> selected = EntityProjection.AUTHOR.select(fields);
+    try (Stream<Map<String, Object>> authors = fieldProjectionRepository.stream(
+        EntityProjection.AUTHOR, selected, BY_LAST_NAME,
+        Collections.singletonMap("lastName", lastName))) {
+      authors.forEach(consumer);
+    }
+  }
+
+  private void validateLastName(String lastName) {
     if (lastName == null || lastName.isEmpty()) {
-      throw new IllegalArgumentException("Author last name is not specified");
+      throw new ValidationException("Author last name is not specified");
     }
-    return authorRepository.findByLastName(lastName);
   }
 
   private void validate(String firstName, String lastName) {
     if (firstName == null || firstName.isEmpty()) {
-      throw new IllegalArgumentException("Author first name is null or empty");
+      throw new ValidationException("Author first name is null or empty");
     }
     if (lastName == null || lastName.isEmpty()) {
-      throw new IllegalArgumentException("Author last name is null or empty");
+      throw new ValidationException("Author last name is null or empty");
     }
   }
 }
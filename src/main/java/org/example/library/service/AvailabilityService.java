@@ -0,0 +1,210 @@
+package org.example.library.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import org.example.library.repositories.BookRepository;
+import org.example.library.repositories.TakenBookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Answers availability questions from memory: every book id maps to its {@link BookLoans}. The
+ * index is built from the database at startup and then follows the book and taken book services,
+ * which report their changes here; changes are applied once their transaction commits. Listeners
+ * are told the id of a book whose loans changed after the change is applied.
+ */
+@Service
+public class AvailabilityService {
+  private static final Logger LOG = LoggerFactory.getLogger(AvailabilityService.class);
+
+  @Autowired
+  private BookRepository bookRepository;
+  @Autowired
+  private TakenBookRepository takenBookRepository;
+
+  private final TransactionTemplate transactionTemplate;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private LongObjectMap<BookLoans> books = new LongObjectMap<>();
+  private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+
+  public AvailabilityService(BookRepository bookRepository,
+      TakenBookRepository takenBookRepository, PlatformTransactionManager transactionManager) {
+    this.bookRepository = bookRepository;
+    this.takenBookRepository = takenBookRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  /**
+   * Replaces the index with the current content of the database.
+   */
+  @PostConstruct
+  public void rebuild() {
+    long started = System.currentTimeMillis();
+    LongObjectMap<BookLoans> rebuilt = transactionTemplate.execute(status -> {
+      List<Long> bookIds = bookRepository.findAllIds();
+      LongObjectMap<BookLoans> index = new LongObjectMap<>(bookIds.size());
+      for (Long bookId : bookIds) {
+        index.put(bookId, BookLoans.EMPTY);
+      }
+      RowGrouper<BookLoans> grouper = new RowGrouper<>(index, 3,
+          columns -> BookLoans.ofSorted(columns[0], toDays(columns[1]), toDays(columns[2])));
+      try (Stream<Object[]> rows = takenBookRepository.streamAllPeriods()) {
+        rows.forEach(row -> grouper.accept((Long) row[0], (Long) row[1],
+            toDay((LocalDate) row[2]),
+            row[3] == null ? Integer.MAX_VALUE : toDay((LocalDate) row[3])));
+      }
+      grouper.flush();
+      return index;
+    });
+    lock.writeLock().lock();
+    try {
+      books = rebuilt;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    LOG.info("Availability index of {} books built in {} ms", rebuilt.size(),
+        System.currentTimeMillis() - started);
+  }
+
+  /**
+   * @return whether the book has no loan intersecting {@code [dateFrom, dateTo)}
+   * @throws NotFoundException if there is no such book
+   */
+  public boolean isAvailable(Long bookId, LocalDate dateFrom, LocalDate dateTo) {
+    if (bookId == null) {
+      throw new ValidationException("Book id is not specified");
+    }
+    validatePeriod(dateFrom, dateTo);
+    BookLoans loans;
+    lock.readLock().lock();
+    try {
+      loans = books.get(bookId);
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (loans == null) {
+      throw new NotFoundException("Book with id=" + bookId + " doesn't exist");
+    }
+    return loans.isFree(toDay(dateFrom), toDay(dateTo));
+  }
+
+  /**
+   * @return ids of books without loans intersecting {@code [dateFrom, dateTo)}, ascending, the
+   *     first {@code limit} of those greater than {@code after}
+   */
+  public List<Long> findAvailableBooks(LocalDate dateFrom, LocalDate dateTo, long after,
+      int limit) {
+    validatePeriod(dateFrom, dateTo);
+    Paging.pageAfter(after, limit);
+    int dayFrom = toDay(dateFrom);
+    int dayTo = toDay(dateTo);
+    long[] found;
+    int[] count = new int[1];
+    lock.readLock().lock();
+    try {
+      long[] ids = new long[books.size()];
+      books.forEach((bookId, loans) -> {
+        if (bookId > after && loans.isFree(dayFrom, dayTo)) {
+          ids[count[0]++] = bookId;
+        }
+      });
+      found = ids;
+    } finally {
+      lock.readLock().unlock();
+    }
+    Arrays.sort(found, 0, count[0]);
+    List<Long> result = new ArrayList<>(Math.min(limit, count[0]));
+    for (int i = 0; i < count[0] && i < limit; i++) {
+      result.add(found[i]);
+    }
+    return result;
+  }
+
+  /**
+   * {@code listener} is called on the committing thread, outside the lock, and should return
+   * quickly.
+   */
+  public void addListener(LongConsumer listener) {
+    listeners.add(listener);
+  }
+
+  void bookCreated(long bookId) {
+    IndexChanges.afterCommit(lock, () -> {
+      if (books.get(bookId) == null) {
+        books.put(bookId, BookLoans.EMPTY);
+      }
+    });
+  }
+
+  void bookDeleted(long bookId) {
+    IndexChanges.afterCommit(lock, () -> books.remove(bookId));
+  }
+
+  void loanSaved(long bookId, long takenBookId, LocalDate dateFrom, LocalDate dateTo) {
+    int dayFrom = toDay(dateFrom);
+    int dayTo = dateTo == null ? Integer.MAX_VALUE : toDay(dateTo);
+    IndexChanges.afterCommit(lock, () -> {
+      BookLoans loans = books.get(bookId);
+      loans = loans == null ? BookLoans.EMPTY : loans;
+      books.put(bookId, loans.with(takenBookId, dayFrom, dayTo));
+    });
+    IndexChanges.onCommit(() -> loansChanged(bookId));
+  }
+
+  void loanDeleted(long bookId, long takenBookId) {
+    IndexChanges.afterCommit(lock, () -> {
+      BookLoans loans = books.get(bookId);
+      if (loans != null) {
+        books.put(bookId, loans.without(takenBookId));
+      }
+    });
+    IndexChanges.onCommit(() -> loansChanged(bookId));
+  }
+
+  private void loansChanged(long bookId) {
+    for (LongConsumer listener : listeners) {
+      try {
+        listener.accept(bookId);
+      } catch (RuntimeException e) {
+        LOG.warn("Availability listener failed for book {}", bookId, e);
+      }
+    }
+  }
+
+  private static int toDay(LocalDate date) {
+    return (int) date.toEpochDay();
+  }
+
+  private static int[] toDays(long[] days) {
+    int[] result = new int[days.length];
+    for (int i = 0; i < days.length; i++) {
+      result[i] = (int) days[i];
+    }
+    return result;
+  }
+
+  private void validatePeriod(LocalDate dateFrom, LocalDate dateTo) {
+    if (dateFrom == null) {
+      throw new ValidationException("Period date from is not specified");
+    }
+    if (dateTo == null) {
+      throw new ValidationException("Period date to is not specified");
+    }
+    if (!dateTo.isAfter(dateFrom)) {
+      throw new ValidationException("Period date to is not after date from");
+    }
+  }
+}
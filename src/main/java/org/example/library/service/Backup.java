@@ -0,0 +1,28 @@
+package org.example.library.service;
+
+/**
+ * A backup file in the backup directory.
+ */
+public class Backup {
+  private final String fileName;
+  private final String format;
+  private final long size;
+
+  public Backup(String fileName, String format, long size) {
+    this.fileName = fileName;
+    this.format = format;
+    this.size = size;
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public String getFormat() {
+    return format;
+  }
+
+  public long getSize() {
+    return size;
+  }
+}
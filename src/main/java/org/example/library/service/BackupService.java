@@ -0,0 +1,117 @@
+package org.example.library.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Online backups of the running database into {@code library.backup.dir}. A binary backup
+ * ({@code BACKUP TO}) copies the database file into a zip and is the fastest to take and to
+ * restore, but needs a file database. A script backup ({@code SCRIPT TO}) writes gzipped SQL,
+ * works for the in-memory database too and can be restored into another H2 version. Both are
+ * consistent snapshots taken without stopping writes. Restoring happens at startup, see
+ * {@code DatabaseRestoreConfig}.
+ */
+@Service
+public class BackupService {
+  private static final Logger LOG = LoggerFactory.getLogger(BackupService.class);
+
+  public static final String BINARY = "binary";
+  public static final String SCRIPT = "script";
+  static final String BINARY_SUFFIX = ".zip";
+  static final String SCRIPT_SUFFIX = ".sql.gz";
+  private static final DateTimeFormatter FILE_TIME =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final Path directory;
+
+  public BackupService(JdbcTemplate jdbcTemplate,
+      @Value("${library.backup.dir:./backup}") String directory) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.directory = Paths.get(directory);
+  }
+
+  public Backup backup(String format) {
+    String suffix;
+    String command;
+    if (BINARY.equals(format)) {
+      if (!isPersistent()) {
+        throw new ValidationException("Binary backup needs a file database, use format=script");
+      }
+      suffix = BINARY_SUFFIX;
+      command = "BACKUP TO ";
+    } else if (SCRIPT.equals(format)) {
+      suffix = SCRIPT_SUFFIX;
+      command = "SCRIPT TO ";
+    } else {
+      throw new ValidationException("Unknown backup format " + format);
+    }
+
+    long started = System.currentTimeMillis();
+    Path file = directory.resolve("cft_library-" + LocalDateTime.now().format(FILE_TIME) + suffix);
+    try {
+      Files.createDirectories(directory);
+      jdbcTemplate.execute(command + quote(file.toAbsolutePath().toString())
+          + (SCRIPT.equals(format) ? " COMPRESSION GZIP" : ""));
+      Backup backup = new Backup(file.getFileName().toString(), format, Files.size(file));
+      LOG.info("Database backed up to {} ({} bytes) in {} ms", file, backup.getSize(),
+          System.currentTimeMillis() - started);
+      return backup;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @return backups in the backup directory, oldest first
+   */
+  public List<Backup> findAll() {
+    if (!Files.isDirectory(directory)) {
+      return Collections.emptyList();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(file -> file.getFileName().toString())
+          .filter(name -> name.endsWith(BINARY_SUFFIX) || name.endsWith(SCRIPT_SUFFIX))
+          .sorted()
+          .map(name -> new Backup(name, name.endsWith(BINARY_SUFFIX) ? BINARY : SCRIPT,
+              size(directory.resolve(name))))
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private boolean isPersistent() {
+    return jdbcTemplate.queryForObject("SELECT DATABASE_PATH()", String.class) != null;
+  }
+
+  private static long size(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String quote(String value) {
+    return "'" + value.replace("'", "''") + "'";
+  }
+}
@@ -0,0 +1,35 @@
+package org.example.library.service;
+
+/**
+ * Outcome of a single row of a batch write: either the id of the created entity or the reason
+ * the row was rejected.
+ */
+public class BatchItemResult {
+  private final Long id;
+  private final String error;
+
+  private BatchItemResult(Long id, String error) {
+    this.id = id;
+    this.error = error;
+  }
+
+  public static BatchItemResult created(Long id) {
+    return new BatchItemResult(id, null);
+  }
+
+  public static BatchItemResult failed(String error) {
+    return new BatchItemResult(null, error);
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public boolean isCreated() {
+    return error == null;
+  }
+}
@@ -0,0 +1,103 @@
+package org.example.library.service;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.repositories.AuthorRepository;
+import org.example.library.repositories.BookRepository;
+import org.example.library.repositories.EntityProjection;
+import org.example.library.repositories.FieldProjectionRepository;
+import org.example.library.repositories.ReaderRepository;
+import org.example.library.repositories.TakenBookRepository;
+import org.example.library.service.dto.ReaderDTO;
+import org.example.library.service.dto.TakenBookDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads several entities of one kind by id with a single {@code IN} query, so a client rendering a
+ * list doesn't fetch its rows one request at a time. Results come in no particular order and ids
+ * without an entity are left out.
+ */
+@Service
+public class BatchReadService {
+  @Autowired
+  private AuthorRepository authorRepository;
+  @Autowired
+  private BookRepository bookRepository;
+  @Autowired
+  private ReaderRepository readerRepository;
+  @Autowired
+  private TakenBookRepository takenBookRepository;
+  @Autowired
+  private FieldProjectionRepository fieldProjectionRepository;
+
+  private final int maxSize;
+
+  public BatchReadService(AuthorRepository authorRepository, BookRepository bookRepository,
+      ReaderRepository readerRepository, TakenBookRepository takenBookRepository,
+      FieldProjectionRepository fieldProjectionRepository,
+      @Value("${library.batch-read.max-size:100}") int maxSize) {
+    this.authorRepository = authorRepository;
+    this.bookRepository = bookRepository;
+    this.readerRepository = readerRepository;
+    this.takenBookRepository = takenBookRepository;
+    this.fieldProjectionRepository = fieldProjectionRepository;
+    this.maxSize = maxSize;
+  }
+
+  @Transactional(readOnly = true)
+  public List<Author> findAuthors(List<Long> ids) {
+    return authorRepository.findByIds(validate(ids, "Author"));
+  }
+
+  /**
+   * Books come with their authors fetched by the same query.
+   */
+  @Transactional(readOnly = true)
+  public List<Book> findBooks(List<Long> ids) {
+    return bookRepository.findWithAuthorsByIdIn(validate(ids, "Book"));
+  }
+
+  @Transactional(readOnly = true)
+  public List<ReaderDTO> findReaders(List<Long> ids) {
+    return readerRepository.findByIdIn(validate(ids, "Reader"));
+  }
+
+  @Transactional(readOnly = true)
+  public List<TakenBookDTO> findTakenBooks(List<Long> ids) {
+    return takenBookRepository.findByIdIn(validate(ids, "Taken book"));
+  }
+
+  /**
+   * Reads only {@code fields} of the entities, as maps from field name to value.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> findFields(EntityProjection projection, List<Long> ids,
+      List<String> fields) {
+    Set<Long> distinctIds = validate(ids, projection.getEntityName());
+    return fieldProjectionRepository.find(projection, projection.select(fields), "e.id IN :ids",
+        Collections.singletonMap("ids", distinctIds), null);
+  }
+
+  private Set<Long> validate(List<Long> ids, String entityName) {
+    if (ids == null || ids.isEmpty()) {
+      throw new ValidationException(entityName + " ids are not specified");
+    }
+    Set<Long> distinctIds = new LinkedHashSet<>(ids);
+    if (distinctIds.contains(null)) {
+      throw new ValidationException(entityName + " ids contain null");
+    }
+    if (distinctIds.size() > maxSize) {
+      throw new ValidationException(entityName + " ids count " + distinctIds.size()
+          + " exceeds maximum " + maxSize);
+    }
+    return distinctIds;
+  }
+}
@@ -0,0 +1,110 @@
+package org.example.library.service;
+
+/**
+ * Loan periods of one book, as epoch days sorted by start. {@code maxTo[i]} is the latest end of
+ * the first {@code i + 1} periods, so whether a period is free takes one binary search however
+ * the loans overlap. Periods are half-open {@code [from, to)}; a loan without a return date ends
+ * at {@link Integer#MAX_VALUE}. Instances are immutable, changes return a copy.
+ */
+final class BookLoans {
+  static final BookLoans EMPTY = new BookLoans(new long[0], new int[0], new int[0]);
+
+  private final long[] ids;
+  private final int[] from;
+  private final int[] to;
+  private final int[] maxTo;
+
+  private BookLoans(long[] ids, int[] from, int[] to) {
+    this.ids = ids;
+    this.from = from;
+    this.to = to;
+    this.maxTo = new int[to.length];
+    int max = Integer.MIN_VALUE;
+    for (int i = 0; i < to.length; i++) {
+      max = Math.max(max, to[i]);
+      maxTo[i] = max;
+    }
+  }
+
+  /**
+   * Wraps loans already sorted by start; the arrays are taken over, not copied.
+   */
+  static BookLoans ofSorted(long[] ids, int[] from, int[] to) {
+    return new BookLoans(ids, from, to);
+  }
+
+  boolean isFree(int dayFrom, int dayTo) {
+    int count = countStartingBefore(dayTo);
+    return count == 0 || maxTo[count - 1] <= dayFrom;
+  }
+
+  int size() {
+    return ids.length;
+  }
+
+  /**
+   * Returns a copy holding the loan {@code id} with the given period, replacing its old period.
+   */
+  BookLoans with(long id, int dayFrom, int dayTo) {
+    BookLoans base = without(id);
+    int n = base.ids.length;
+    int position = base.countStartingBefore(dayFrom + 1);
+    long[] newIds = new long[n + 1];
+    int[] newFrom = new int[n + 1];
+    int[] newTo = new int[n + 1];
+    System.arraycopy(base.ids, 0, newIds, 0, position);
+    System.arraycopy(base.from, 0, newFrom, 0, position);
+    System.arraycopy(base.to, 0, newTo, 0, position);
+    System.arraycopy(base.ids, position, newIds, position + 1, n - position);
+    System.arraycopy(base.from, position, newFrom, position + 1, n - position);
+    System.arraycopy(base.to, position, newTo, position + 1, n - position);
+    newIds[position] = id;
+    newFrom[position] = dayFrom;
+    newTo[position] = dayTo;
+    return new BookLoans(newIds, newFrom, newTo);
+  }
+
+  BookLoans without(long id) {
+    int position = indexOf(id);
+    if (position < 0) {
+      return this;
+    }
+    int n = ids.length - 1;
+    long[] newIds = new long[n];
+    int[] newFrom = new int[n];
+    int[] newTo = new int[n];
+    System.arraycopy(ids, 0, newIds, 0, position);
+    System.arraycopy(from, 0, newFrom, 0, position);
+    System.arraycopy(to, 0, newTo, 0, position);
+    System.arraycopy(ids, position + 1, newIds, position, n - position);
+    System.arraycopy(from, position + 1, newFrom, position, n - position);
+    System.arraycopy(to, position + 1, newTo, position, n - position);
+    return new BookLoans(newIds, newFrom, newTo);
+  }
+
+  private int indexOf(long id) {
+    for (int i = 0; i < ids.length; i++) {
+      if (ids[i] == id) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Number of periods starting before {@code day}.
+   */
+  private int countStartingBefore(int day) {
+    int low = 0;
+    int high = from.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (from[middle] < day) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
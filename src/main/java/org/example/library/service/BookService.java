@@ -10,8 +10,11 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.example.library.entities.Author;
 import org.example.library.entities.Book;
+import org.example.library.entities.ChangeOperation;
+import org.example.library.entities.ChangedEntity;
 import org.example.library.repositories.AuthorRepository;
 import org.example.library.repositories.BookRepository;
+import org.example.library.service.dto.BookDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -27,9 +30,32 @@ public class BookService {
   @Autowired
   private AuthorRepository authorRepository;
 
-  public BookService(BookRepository bookRepository, AuthorRepository authorRepository) {
+  @Autowired
+  private DtoCache<Versioned<BookDTO>> bookDtoCache;
+
+  @Autowired
+  private AvailabilityService availabilityService;
+
+  @Autowired
+  private TitleSearchService titleSearchService;
+
+  @Autowired
+  private AuthorBooksService authorBooksService;
+
+  @Autowired
+  private ChangeFeedService changeFeedService;
+
+  public BookService(BookRepository bookRepository, AuthorRepository authorRepository,
+      DtoCache<Versioned<BookDTO>> bookDtoCache, AvailabilityService availabilityService,
+      TitleSearchService titleSearchService, AuthorBooksService authorBooksService,
+      ChangeFeedService changeFeedService) {
     this.bookRepository = bookRepository;
     this.authorRepository = authorRepository;
+    this.bookDtoCache = bookDtoCache;
+    this.availabilityService = availabilityService;
+    this.titleSearchService = titleSearchService;
+    this.authorBooksService = authorBooksService;
+    this.changeFeedService = changeFeedService;
   }
 
   @Transactional
@@ -37,9 +63,15 @@ public class BookService {
     try {
       validate(title, published);
       List<Author> authors = validateAndGetAuthors(authorIds);
-      return bookRepository.saveAndFlush(new Book(title, authors, published));
+      Book book = bookRepository.saveAndFlush(new Book(title, authors, published));
+      availabilityService.bookCreated(book.getId());
+      titleSearchService.bookSaved(book.getId(), book.getTitle());
+      authorBooksService.bookSaved(book.getId(), authors);
+      changeFeedService.record(ChangedEntity.BOOK, book.getId(), ChangeOperation.CREATED,
+          book.getVersion());
+      return book;
     } catch(DataIntegrityViolationException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
@@ -47,7 +79,7 @@ public class BookService {
   public Book updateBook(Long id, String title, Set<Long> authorIds, Integer published) {
     try {
       if (id == null) {
-        throw new IllegalArgumentException("Book id is not specified");
+        throw new ValidationException("Book id is not specified");
       }
       validate(title, published);
 
@@ -61,65 +93,87 @@ public class BookService {
       book.setTitle(title);
       book.setPublished(published);
       book.setAuthors(authors);
-      return bookRepository.saveAndFlush(book);
+      bookDtoCache.evict(id);
+      titleSearchService.bookSaved(id, title);
+      authorBooksService.bookSaved(id, authors);
+      Book updatedBook = bookRepository.saveAndFlush(book);
+      changeFeedService.record(ChangedEntity.BOOK, id, ChangeOperation.UPDATED,
+          updatedBook.getVersion());
+      return updatedBook;
     } catch(DataIntegrityViolationException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
   @Transactional
   public Book findById(Long id) {
     if (id == null) {
-      throw new IllegalArgumentException("Book id is not specified");
+      throw new ValidationException("Book id is not specified");
     }
-    Optional<Book> optionalBook = bookRepository.findById(id);
+    Optional<Book> optionalBook = bookRepository.findWithAuthorsById(id);
     return optionalBook.orElse(null);
   }
 
+  /**
+   * @return version of the entity, read without loading it, or {@code null} if there is none
+   */
+  @Transactional(readOnly = true)
+  public EntityVersion findVersion(Long id) {
+    if (id == null) {
+      throw new ValidationException("Book id is not specified");
+    }
+    return bookRepository.findVersion(id);
+  }
+
   @Transactional
   public void deleteById(Long id) {
     try {
       if (id == null) {
-        throw new IllegalArgumentException("Book id is not specified");
+        throw new ValidationException("Book id is not specified");
       }
+      bookDtoCache.evict(id);
       bookRepository.deleteById(id);
+      availabilityService.bookDeleted(id);
+      titleSearchService.bookDeleted(id);
+      authorBooksService.bookDeleted(id);
+      changeFeedService.record(ChangedEntity.BOOK, id, ChangeOperation.DELETED, null);
     } catch (EmptyResultDataAccessException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
   @Transactional
   public List<Book> findByTitle(String title) {
     if (title == null || title.isEmpty()) {
-      throw new IllegalArgumentException("Title is not specified");
+      throw new ValidationException("Title is not specified");
     }
     return bookRepository.findByTitle(title);
   }
 
   private void validate(String title, Integer published) {
     if (title == null || title.isEmpty()) {
-      throw new IllegalArgumentException("Book title is null or empty");
+      throw new ValidationException("Book title is null or empty");
     }
     if (published == null) {
-      throw new IllegalArgumentException("Book published year is null");
+      throw new ValidationException("Book published year is null");
     }
     if (published < 0) {
-      throw new IllegalArgumentException("Book published year is below zero");
+      throw new ValidationException("Book published year is below zero");
     }
     if (published > Year.now().getValue()) {
-      throw new IllegalArgumentException("Book published year is greater than current");
+      throw new ValidationException("Book published year is greater than current");
     }
   }
 
   private List<Author> validateAndGetAuthors(Set<Long> authorIds) {
     if (authorIds == null) {
-      throw new IllegalArgumentException("Book author ids is null");
+      throw new ValidationException("Book author ids is null");
     }
 
     authorIds = authorIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
 
     if (authorIds.isEmpty()) {
-      throw new IllegalArgumentException("Book author ids is empty or contain only null values");
+      throw new ValidationException("Book author ids is empty or contain only null values");
     }
 
     Map<Long, Author> authorById = authorRepository.findByIds(authorIds).stream()
@@ -127,7 +181,7 @@ public class BookService {
     Set<Long> notFoundIds =
         authorIds.stream().filter(id -> !authorById.containsKey(id)).collect(Collectors.toSet());
     if (!notFoundIds.isEmpty()) {
-      throw new IllegalArgumentException("Book author ids are not found: " + notFoundIds);
+      throw new ValidationException("Book author ids are not found: " + notFoundIds);
     }
     return new ArrayList<>(authorById.values());
   }
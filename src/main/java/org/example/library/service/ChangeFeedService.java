@@ -0,0 +1,212 @@
+package org.example.library.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import org.example.library.entities.ChangeEvent;
+import org.example.library.entities.ChangeOperation;
+import org.example.library.entities.ChangedEntity;
+import org.example.library.repositories.ChangeEventRepository;
+import org.example.library.service.dto.ChangeEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Records every change of an entity in the {@code CHANGE_EVENT} outbox, in the transaction of the
+ * change, and serves the events as a feed ordered by offset, the id of the event.
+ *
+ * <p>Offsets are handed out here rather than by a sequence, so the service knows which of them
+ * still belong to open transactions: a reader only sees events below the lowest such offset, so
+ * an event that commits late is never skipped by a reader that already moved past it. Offsets of
+ * rolled back transactions are left as gaps. This relies on the application being the only
+ * writer of the database, which holds for the embedded H2.
+ *
+ * <p>The last {@code library.change-feed.recent-events} committed events are kept in memory, so a
+ * reader that keeps up never touches the database; older offsets are read from the table. A
+ * reader at the end of the feed can wait for the next events without holding a thread.
+ */
+@Service
+public class ChangeFeedService {
+  @Autowired
+  private ChangeEventRepository changeEventRepository;
+
+  private final TransactionTemplate transactionTemplate;
+  private final int recentEvents;
+  private final Object lock = new Object();
+  // all fields below are guarded by lock
+  private long nextOffset = 1;
+  private final TreeSet<Long> pending = new TreeSet<>();
+  private final NavigableMap<Long, ChangeEventDTO> recent = new TreeMap<>();
+  private long recentFrom = 1;
+  private final List<Waiter> waiters = new ArrayList<>();
+
+  public ChangeFeedService(ChangeEventRepository changeEventRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${library.change-feed.recent-events:10000}") int recentEvents) {
+    this.changeEventRepository = changeEventRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.recentEvents = recentEvents;
+  }
+
+  @PostConstruct
+  public void init() {
+    Long maxOffset = transactionTemplate.execute(status -> changeEventRepository.findMaxId());
+    synchronized (lock) {
+      nextOffset = (maxOffset == null ? 0 : maxOffset) + 1;
+      recentFrom = nextOffset;
+    }
+  }
+
+  /**
+   * @return the first {@code limit} events with an offset greater than {@code after}
+   */
+  public List<ChangeEventDTO> read(long after, int limit) {
+    Paging.pageAfter(after, limit);
+    long before;
+    synchronized (lock) {
+      before = readableBefore();
+      if (after + 1 >= recentFrom) {
+        return recent(after, before, limit);
+      }
+    }
+    return transactionTemplate.execute(status ->
+        changeEventRepository.findBetween(after, before, limit)).stream()
+        .map(ChangeFeedService::toDto)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Hands the first {@code limit} events after {@code after} to {@code listener} as soon as there
+   * are any, on the thread that commits them. The listener gets an empty list if the reader has
+   * fallen so far behind that its events are no longer in memory, and should read them instead.
+   *
+   * @return stops waiting, if the listener hasn't been called yet
+   */
+  public Runnable await(long after, int limit, Consumer<List<ChangeEventDTO>> listener) {
+    Paging.pageAfter(after, limit);
+    Waiter waiter = new Waiter(after, limit, listener);
+    List<ChangeEventDTO> ready;
+    synchronized (lock) {
+      ready = waiter.ready();
+      if (ready == null) {
+        waiters.add(waiter);
+        return () -> {
+          synchronized (lock) {
+            waiters.remove(waiter);
+          }
+        };
+      }
+    }
+    listener.accept(ready);
+    return () -> { };
+  }
+
+  void record(ChangedEntity entity, long entityId, ChangeOperation operation, Long version) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("A change event needs the transaction of the change");
+    }
+    Instant created = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    long offset;
+    synchronized (lock) {
+      offset = nextOffset++;
+      pending.add(offset);
+    }
+    ChangeEventDTO event = new ChangeEventDTO(offset, entity.name(), entityId, operation.name(),
+        version, created);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        completed(event, status == STATUS_COMMITTED);
+      }
+    });
+    changeEventRepository.append(new ChangeEvent(offset, entity, entityId, operation, version,
+        created));
+  }
+
+  private void completed(ChangeEventDTO event, boolean committed) {
+    List<Waiter> woken = new ArrayList<>();
+    List<List<ChangeEventDTO>> events = new ArrayList<>();
+    synchronized (lock) {
+      pending.remove(event.getOffset());
+      if (committed && event.getOffset() >= recentFrom) {
+        recent.put(event.getOffset(), event);
+        while (recent.size() > recentEvents) {
+          recentFrom = recent.pollFirstEntry().getKey() + 1;
+        }
+      }
+      for (Iterator<Waiter> i = waiters.iterator(); i.hasNext(); ) {
+        Waiter waiter = i.next();
+        List<ChangeEventDTO> ready = waiter.ready();
+        if (ready != null) {
+          i.remove();
+          woken.add(waiter);
+          events.add(ready);
+        }
+      }
+    }
+    for (int i = 0; i < woken.size(); i++) {
+      woken.get(i).listener.accept(events.get(i));
+    }
+  }
+
+  /**
+   * Offsets below the result belong to committed or rolled back transactions.
+   */
+  private long readableBefore() {
+    return pending.isEmpty() ? nextOffset : pending.first();
+  }
+
+  private List<ChangeEventDTO> recent(long after, long before, int limit) {
+    List<ChangeEventDTO> events = new ArrayList<>(Math.min(limit, recent.size()));
+    for (ChangeEventDTO event : recent.subMap(after, false, before, false).values()) {
+      if (events.size() == limit) {
+        break;
+      }
+      events.add(event);
+    }
+    return events;
+  }
+
+  private static ChangeEventDTO toDto(ChangeEvent event) {
+    return new ChangeEventDTO(event.getId(), event.getEntity().name(), event.getEntityId(),
+        event.getOperation().name(), event.getEntityVersion(), event.getCreated());
+  }
+
+  private class Waiter {
+    private final long after;
+    private final int limit;
+    private final Consumer<List<ChangeEventDTO>> listener;
+
+    Waiter(long after, int limit, Consumer<List<ChangeEventDTO>> listener) {
+      this.after = after;
+      this.limit = limit;
+      this.listener = listener;
+    }
+
+    /**
+     * @return the events to hand out, empty if they are not in memory, or {@code null} to go on
+     *     waiting; called under the lock
+     */
+    List<ChangeEventDTO> ready() {
+      if (after + 1 < recentFrom) {
+        return new ArrayList<>();
+      }
+      List<ChangeEventDTO> events = recent(after, readableBefore(), limit);
+      return events.isEmpty() ? null : events;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package org.example.library.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.function.Function;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Converted DTOs keyed by entity id. Concurrent requests for an id that is not cached yet wait for
+ * a single load instead of each going to the database. Missing entities are not cached.
+ */
+public class DtoCache<D> {
+  private final Cache<Long, D> cache;
+
+  /**
+   * @param spec caffeine specification, e.g. {@code maximumSize=10000,expireAfterWrite=10m}
+   */
+  public DtoCache(String spec) {
+    this.cache = Caffeine.from(spec).recordStats().build();
+  }
+
+  /**
+   * Returns the cached DTO for {@code id}, calling {@code loader} at most once per id at a time
+   * when it isn't cached.
+   */
+  public D get(Long id, Function<Long, D> loader) {
+    if (id == null) {
+      return loader.apply(null);
+    }
+    return cache.get(id, loader);
+  }
+
+  /**
+   * @return the cached DTO for {@code id}, or {@code null} without loading it
+   */
+  public D getIfPresent(Long id) {
+    return id == null ? null : cache.getIfPresent(id);
+  }
+
+  /**
+   * Drops {@code id} now and, inside a transaction, once more after it completes: a load racing
+   * with the writer may have cached the old state, and a load started after commit sees the new
+   * one.
+   */
+  public void evict(Long id) {
+    if (id == null) {
+      return;
+    }
+    cache.invalidate(id);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          cache.invalidate(id);
+        }
+      });
+    }
+  }
+
+  public long size() {
+    return cache.estimatedSize();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+}
@@ -0,0 +1,31 @@
+package org.example.library.service;
+
+import java.time.Instant;
+
+/**
+ * Version and time of the last change of an entity, read without the entity itself to answer
+ * conditional requests. Entities store the time in milliseconds, so a copy held in a cache
+ * compares equal to the one read back from the database.
+ */
+public class EntityVersion {
+  private final long version;
+  private final Instant lastModified;
+
+  public EntityVersion(long version, Instant lastModified) {
+    this.version = version;
+    this.lastModified = lastModified;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public Instant getLastModified() {
+    return lastModified;
+  }
+
+  @Override
+  public String toString() {
+    return "EntityVersion{" + "version=" + version + ", lastModified=" + lastModified + '}';
+  }
+}
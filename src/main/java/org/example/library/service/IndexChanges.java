@@ -0,0 +1,44 @@
+package org.example.library.service;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Applies changes of the in-memory indexes once the transaction that made them commits, so a
+ * rolled back change never becomes visible. Without a transaction they are applied right away.
+ */
+final class IndexChanges {
+
+  private IndexChanges() {
+  }
+
+  /**
+   * Runs {@code change} under the write lock of the index once the current transaction commits.
+   * Two transactions changing the same entity concurrently may apply in the other order than
+   * they committed; rebuilding the index restores the exact state.
+   */
+  static void afterCommit(ReadWriteLock lock, Runnable change) {
+    onCommit(() -> {
+      lock.writeLock().lock();
+      try {
+        change.run();
+      } finally {
+        lock.writeLock().unlock();
+      }
+    });
+  }
+
+  static void onCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+}
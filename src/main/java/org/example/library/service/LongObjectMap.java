@@ -0,0 +1,118 @@
+package org.example.library.service;
+
+/**
+ * Open addressing hash map with primitive {@code long} keys, so looking a book up by id neither
+ * boxes the id nor allocates an entry. Values can't be {@code null}. Not thread-safe.
+ */
+final class LongObjectMap<V> {
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private long[] keys;
+  private Object[] values;
+  private int mask;
+  private int size;
+
+  LongObjectMap() {
+    this(16);
+  }
+
+  LongObjectMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    keys = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+  }
+
+  @SuppressWarnings("unchecked")
+  V get(long key) {
+    for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        return (V) values[i];
+      }
+    }
+    return null;
+  }
+
+  void put(long key, V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Value is null");
+    }
+    int i = slot(key);
+    for (; values[i] != null; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        values[i] = value;
+        return;
+      }
+    }
+    keys[i] = key;
+    values[i] = value;
+    if (++size > LOAD_FACTOR * values.length) {
+      resize();
+    }
+  }
+
+  void remove(long key) {
+    int i = slot(key);
+    for (; values[i] != null; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        break;
+      }
+    }
+    if (values[i] == null) {
+      return;
+    }
+    values[i] = null;
+    size--;
+    // shift the following entries of the probe sequence back, so lookups don't stop at the hole
+    for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+      int home = slot(keys[j]);
+      boolean reachable = i <= j ? i < home && home <= j : i < home || home <= j;
+      if (!reachable) {
+        keys[i] = keys[j];
+        values[i] = values[j];
+        values[j] = null;
+        i = j;
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  void forEach(Visitor<V> visitor) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        visitor.visit(keys[i], (V) values[i]);
+      }
+    }
+  }
+
+  private int slot(long key) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  private void resize() {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new long[oldKeys.length * 2];
+    values = new Object[oldValues.length * 2];
+    mask = values.length - 1;
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) {
+        int j = slot(oldKeys[i]);
+        while (values[j] != null) {
+          j = (j + 1) & mask;
+        }
+        keys[j] = oldKeys[i];
+        values[j] = oldValues[i];
+      }
+    }
+  }
+
+  interface Visitor<V> {
+    void visit(long key, V value);
+  }
+}
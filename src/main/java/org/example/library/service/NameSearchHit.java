@@ -0,0 +1,27 @@
+package org.example.library.service;
+
+/**
+ * An author or a reader matching a name search and its score.
+ */
+public class NameSearchHit {
+  private final long id;
+  private final double score;
+
+  public NameSearchHit(long id, double score) {
+    this.id = id;
+    this.score = score;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  @Override
+  public String toString() {
+    return "NameSearchHit{" + "id=" + id + ", score=" + score + '}';
+  }
+}
@@ -0,0 +1,140 @@
+package org.example.library.service;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import org.example.library.repositories.AuthorRepository;
+import org.example.library.repositories.ReaderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Searches names of authors and readers as they are typed, in a {@link NameTrie} per entity held
+ * in memory. Both are built from the tables at startup and follow the author and reader services
+ * like {@link TitleSearchService} follows the book service. Results are limited to
+ * {@code library.batch-read.max-size}, the most the batch read loading them accepts.
+ */
+@Service
+public class NameSearchService {
+  private static final Logger LOG = LoggerFactory.getLogger(NameSearchService.class);
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private ReaderRepository readerRepository;
+
+  private final TransactionTemplate transactionTemplate;
+  private final int maxLimit;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private NameTrie authors = new NameTrie();
+  private NameTrie readers = new NameTrie();
+
+  public NameSearchService(AuthorRepository authorRepository, ReaderRepository readerRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${library.batch-read.max-size:100}") int maxLimit) {
+    this.authorRepository = authorRepository;
+    this.readerRepository = readerRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.maxLimit = maxLimit;
+  }
+
+  /**
+   * Replaces both tries with the names currently in the database.
+   */
+  @PostConstruct
+  public void rebuild() {
+    long started = System.currentTimeMillis();
+    NameTrie[] rebuilt = transactionTemplate.execute(status -> {
+      NameTrie authorNames = new NameTrie();
+      try (Stream<Object[]> rows = authorRepository.streamAllNames()) {
+        rows.forEach(row -> authorNames.put((Long) row[0], (String) row[1], (String) row[2]));
+      }
+      NameTrie readerNames = new NameTrie();
+      try (Stream<Object[]> rows = readerRepository.streamAllNames()) {
+        rows.forEach(row -> readerNames.put((Long) row[0], (String) row[1], (String) row[2],
+            (String) row[3]));
+      }
+      return new NameTrie[] {authorNames, readerNames};
+    });
+    lock.writeLock().lock();
+    try {
+      authors = rebuilt[0];
+      readers = rebuilt[1];
+    } finally {
+      lock.writeLock().unlock();
+    }
+    LOG.info("Name index of {} authors and {} readers built in {} ms", rebuilt[0].size(),
+        rebuilt[1].size(), System.currentTimeMillis() - started);
+  }
+
+  /**
+   * Matches words of {@code query} against first and last names of authors, see
+   * {@link NameTrie}.
+   *
+   * @return the best {@code limit} matches, higher score first
+   */
+  public List<NameSearchHit> searchAuthors(String query, int limit) {
+    List<String> words = words(query, limit);
+    lock.readLock().lock();
+    try {
+      return authors.search(words, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Matches words of {@code query} against first, middle and last names of readers, see
+   * {@link NameTrie}.
+   *
+   * @return the best {@code limit} matches, higher score first
+   */
+  public List<NameSearchHit> searchReaders(String query, int limit) {
+    List<String> words = words(query, limit);
+    lock.readLock().lock();
+    try {
+      return readers.search(words, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  void authorSaved(long authorId, String firstName, String lastName) {
+    IndexChanges.afterCommit(lock, () -> authors.put(authorId, firstName, lastName));
+  }
+
+  void authorDeleted(long authorId) {
+    IndexChanges.afterCommit(lock, () -> authors.remove(authorId));
+  }
+
+  void readerSaved(long readerId, String firstName, String middleName, String lastName) {
+    IndexChanges.afterCommit(lock, () -> readers.put(readerId, firstName, middleName, lastName));
+  }
+
+  void readerDeleted(long readerId) {
+    IndexChanges.afterCommit(lock, () -> readers.remove(readerId));
+  }
+
+  private List<String> words(String query, int limit) {
+    if (query == null || query.trim().isEmpty()) {
+      throw new ValidationException("Search query is not specified");
+    }
+    if (limit <= 0 || limit > maxLimit) {
+      throw new ValidationException("Search limit is not between 1 and " + maxLimit);
+    }
+    List<String> words = TitleAnalyzer.words(query);
+    if (words.isEmpty()) {
+      throw new ValidationException("Search query has no words");
+    }
+    return words;
+  }
+}
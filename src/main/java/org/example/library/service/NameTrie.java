@@ -0,0 +1,202 @@
+package org.example.library.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Names of people by entity id, as a trie of their words lower cased with diacritics removed like
+ * {@link TitleAnalyzer#words(String)} does. Every word of a query has to match some word of a name,
+ * and the name scores the sum of the best match of each query word: the same word scores 1, a word
+ * it begins with between 0.5 and 1, more for a longer part of the word, and a word within
+ * {@link #maxDistance(String)} edits {@code 0.5 / (1 + edits)}. Edits are counted by walking the
+ * trie with a row of the Levenshtein table per node, so branches already too far from the query
+ * word are skipped. Each name's words are kept as well, to remove them when it changes. Not
+ * thread-safe.
+ */
+final class NameTrie {
+  private final Node root = new Node();
+  private final LongObjectMap<String[]> names = new LongObjectMap<>();
+
+  int size() {
+    return names.size();
+  }
+
+  /**
+   * @param parts parts of the name, e.g. first and last name; {@code null} ones are skipped
+   */
+  void put(long id, String... parts) {
+    remove(id);
+    Set<String> words = new LinkedHashSet<>();
+    for (String part : parts) {
+      if (part != null) {
+        words.addAll(TitleAnalyzer.words(part));
+      }
+    }
+    if (words.isEmpty()) {
+      return;
+    }
+    names.put(id, words.toArray(new String[0]));
+    for (String word : words) {
+      Node node = root;
+      for (int i = 0; i < word.length(); i++) {
+        node = node.children.computeIfAbsent(word.charAt(i), c -> new Node());
+      }
+      if (node.ids == null) {
+        node.ids = new HashSet<>(2);
+      }
+      node.ids.add(id);
+    }
+  }
+
+  void remove(long id) {
+    String[] words = names.get(id);
+    if (words == null) {
+      return;
+    }
+    names.remove(id);
+    for (String word : words) {
+      remove(root, word, 0, id);
+    }
+  }
+
+  /**
+   * @param words query words, folded like the names
+   * @return the best {@code limit} names matching all {@code words}, higher score first, then
+   *     lower id
+   */
+  List<NameSearchHit> search(List<String> words, int limit) {
+    Map<Long, Double> scores = null;
+    for (String word : new LinkedHashSet<>(words)) {
+      Map<Long, Double> wordScores = new HashMap<>();
+      match(word, wordScores);
+      if (scores == null) {
+        scores = wordScores;
+      } else {
+        scores.keySet().retainAll(wordScores.keySet());
+        scores.replaceAll((id, score) -> score + wordScores.get(id));
+      }
+      if (scores.isEmpty()) {
+        break;
+      }
+    }
+    if (scores == null) {
+      return new ArrayList<>();
+    }
+    Comparator<NameSearchHit> worstFirst = Comparator.comparingDouble(NameSearchHit::getScore)
+        .thenComparing(NameSearchHit::getId, Comparator.reverseOrder());
+    PriorityQueue<NameSearchHit> best = new PriorityQueue<>(worstFirst);
+    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+      best.add(new NameSearchHit(entry.getKey(), entry.getValue()));
+      if (best.size() > limit) {
+        best.poll();
+      }
+    }
+    List<NameSearchHit> hits = new ArrayList<>(best);
+    hits.sort(worstFirst.reversed());
+    return hits;
+  }
+
+  /**
+   * Edits allowed for a query word: none for short words, which would match too much, one for
+   * words of 4 to 7 letters and two for longer ones.
+   */
+  static int maxDistance(String word) {
+    return word.length() < 4 ? 0 : word.length() < 8 ? 1 : 2;
+  }
+
+  private void match(String word, Map<Long, Double> scores) {
+    Node node = root;
+    for (int i = 0; i < word.length() && node != null; i++) {
+      node = node.children.get(word.charAt(i));
+    }
+    if (node != null) {
+      collect(node, word.length(), word.length(), scores);
+    }
+    int maxDistance = maxDistance(word);
+    if (maxDistance > 0) {
+      int[] row = new int[word.length() + 1];
+      for (int i = 0; i < row.length; i++) {
+        row[i] = i;
+      }
+      for (Map.Entry<Character, Node> child : root.children.entrySet()) {
+        matchFuzzy(child.getValue(), child.getKey(), word, row, maxDistance, scores);
+      }
+    }
+  }
+
+  /**
+   * Scores the names of the words below {@code node}, which all begin with the query word.
+   */
+  private static void collect(Node node, int depth, int queryLength,
+      Map<Long, Double> scores) {
+    if (node.ids != null) {
+      double score = depth == queryLength ? 1 : 0.5 + 0.5 * queryLength / depth;
+      for (Long id : node.ids) {
+        scores.merge(id, score, Math::max);
+      }
+    }
+    for (Node child : node.children.values()) {
+      collect(child, depth + 1, queryLength, scores);
+    }
+  }
+
+  /**
+   * @param previous edits between each prefix of {@code word} and the word down to the parent
+   */
+  private static void matchFuzzy(Node node, char letter, String word, int[] previous,
+      int maxDistance, Map<Long, Double> scores) {
+    int[] row = new int[previous.length];
+    row[0] = previous[0] + 1;
+    int closest = row[0];
+    for (int i = 1; i < row.length; i++) {
+      int replace = previous[i - 1] + (word.charAt(i - 1) == letter ? 0 : 1);
+      row[i] = Math.min(replace, Math.min(previous[i] + 1, row[i - 1] + 1));
+      closest = Math.min(closest, row[i]);
+    }
+    int distance = row[row.length - 1];
+    if (node.ids != null && distance > 0 && distance <= maxDistance) {
+      double score = 0.5 / (1 + distance);
+      for (Long id : node.ids) {
+        scores.merge(id, score, Math::max);
+      }
+    }
+    if (closest <= maxDistance) {
+      for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+        matchFuzzy(child.getValue(), child.getKey(), word, row, maxDistance, scores);
+      }
+    }
+  }
+
+  /**
+   * @return whether {@code node} is left without names and words below it
+   */
+  private static boolean remove(Node node, String word, int depth, long id) {
+    if (depth == word.length()) {
+      if (node.ids != null) {
+        node.ids.remove(id);
+        if (node.ids.isEmpty()) {
+          node.ids = null;
+        }
+      }
+    } else {
+      char letter = word.charAt(depth);
+      Node child = node.children.get(letter);
+      if (child != null && remove(child, word, depth + 1, id)) {
+        node.children.remove(letter);
+      }
+    }
+    return node.ids == null && node.children.isEmpty();
+  }
+
+  private static final class Node {
+    private final Map<Character, Node> children = new HashMap<>(4);
+    private Set<Long> ids;
+  }
+}
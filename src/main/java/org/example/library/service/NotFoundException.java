@@ -1,14 +1,12 @@
 package org.example.library.service;
 
+/**
+ * The requested entity doesn't exist. Answered with 404, so like {@link ValidationException} it
+ * carries no stack trace.
+ */
 public class NotFoundException extends RuntimeException {
-  private final String message;
 
   public NotFoundException(String message) {
-    this.message = message;
-  }
-
-  @Override
-  public String getMessage() {
-    return message;
+    super(message, null, false, false);
   }
 }
@@ -0,0 +1,29 @@
+package org.example.library.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Keyset paging parameters: {@code after} is the last id of the previous page, {@code limit} is
+ * the page size. Pages are always read from offset 0 of the rows with a greater id, so the cost
+ * of a page doesn't depend on how deep the client has scrolled.
+ */
+final class Paging {
+  static final int MAX_LIMIT = 1000;
+
+  private Paging() {
+  }
+
+  static Pageable pageAfter(long after, int limit) {
+    if (after < 0) {
+      throw new ValidationException("Page cursor is below zero");
+    }
+    if (limit <= 0) {
+      throw new ValidationException("Page limit is not positive");
+    }
+    if (limit > MAX_LIMIT) {
+      throw new ValidationException("Page limit is greater than " + MAX_LIMIT);
+    }
+    return PageRequest.of(0, limit);
+  }
+}
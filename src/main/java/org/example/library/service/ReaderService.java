@@ -1,24 +1,57 @@
 package org.example.library.service;
 
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.example.library.entities.ChangeOperation;
+import org.example.library.entities.ChangedEntity;
 import org.example.library.entities.Gender;
 import org.example.library.entities.Reader;
+import org.example.library.repositories.EntityProjection;
+import org.example.library.repositories.FieldProjectionRepository;
 import org.example.library.repositories.ReaderRepository;
+import org.example.library.service.dto.ReaderDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ReaderService {
+  private static final String BY_LAST_NAME = "e.lastName = :lastName";
+
   @Autowired
   private ReaderRepository readerRepository;
 
-  public ReaderService(ReaderRepository readerRepository) {
+  @Autowired
+  private DtoCache<Versioned<ReaderDTO>> readerDtoCache;
+
+  @Autowired
+  private FieldProjectionRepository fieldProjectionRepository;
+
+  @Autowired
+  private ChangeFeedService changeFeedService;
+
+  @Autowired
+  private NameSearchService nameSearchService;
+
+  public ReaderService(ReaderRepository readerRepository,
+      DtoCache<Versioned<ReaderDTO>> readerDtoCache,
+      FieldProjectionRepository fieldProjectionRepository, ChangeFeedService changeFeedService,
+      NameSearchService nameSearchService) {
     this.readerRepository = readerRepository;
+    this.readerDtoCache = readerDtoCache;
+    this.fieldProjectionRepository = fieldProjectionRepository;
+    this.changeFeedService = changeFeedService;
+    this.nameSearchService = nameSearchService;
   }
 
   @Transactional
@@ -26,10 +59,15 @@ public class ReaderService {
       LocalDate birthday) {
     try {
       validate(firstName, middleName, lastName, gender, birthday);
-      return readerRepository.saveAndFlush(new Reader(firstName, middleName, lastName, gender, birthday));
+      Reader reader = readerRepository.saveAndFlush(
+          new Reader(firstName, middleName, lastName, gender, birthday));
+      nameSearchService.readerSaved(reader.getId(), firstName, middleName, lastName);
+      changeFeedService.record(ChangedEntity.READER, reader.getId(), ChangeOperation.CREATED,
+          reader.getVersion());
+      return reader;
     } catch (
         DataIntegrityViolationException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
@@ -38,7 +76,7 @@ public class ReaderService {
       Gender gender, LocalDate birthday) {
     try {
       if (id == null) {
-        throw new IllegalArgumentException("Reader id is not specified");
+        throw new ValidationException("Reader id is not specified");
       }
       Optional<Reader> optionalReader = readerRepository.findById(id);
       if (!optionalReader.isPresent()) {
@@ -52,58 +90,130 @@ public class ReaderService {
       reader.setLastName(lastName);
       reader.setGender(gender);
       reader.setBirthday(birthday);
-      return readerRepository.saveAndFlush(reader);
+      readerDtoCache.evict(id);
+      Reader updatedReader = readerRepository.saveAndFlush(reader);
+      nameSearchService.readerSaved(id, firstName, middleName, lastName);
+      changeFeedService.record(ChangedEntity.READER, id, ChangeOperation.UPDATED,
+          updatedReader.getVersion());
+      return updatedReader;
     } catch (DataIntegrityViolationException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
   @Transactional
   public Reader findById(Long id) {
     if (id == null) {
-      throw new IllegalArgumentException("Reader id is not specified");
+      throw new ValidationException("Reader id is not specified");
     }
     Optional<Reader> optionalReader = readerRepository.findById(id);
     return optionalReader.orElse(null);
   }
 
+  /**
+   * @return version of the entity, read without loading it, or {@code null} if there is none
+   */
+  @Transactional(readOnly = true)
+  public EntityVersion findVersion(Long id) {
+    if (id == null) {
+      throw new ValidationException("Reader id is not specified");
+    }
+    return readerRepository.findVersion(id);
+  }
+
   @Transactional
   public void deleteById(Long id) {
     try {
       if (id == null) {
-        throw new IllegalArgumentException("Reader id is not specified");
+        throw new ValidationException("Reader id is not specified");
       }
+      readerDtoCache.evict(id);
       readerRepository.deleteById(id);
+      nameSearchService.readerDeleted(id);
+      changeFeedService.record(ChangedEntity.READER, id, ChangeOperation.DELETED, null);
     } catch (EmptyResultDataAccessException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
   @Transactional
   public List<Reader> findByLastName(String lastName) {
+    validateLastName(lastName);
+    return readerRepository.findByLastName(lastName);
+  }
+
+  @Transactional(readOnly = true)
+  public List<ReaderDTO> findByLastName(String lastName, long after, int limit) {
+    validateLastName(lastName);
+    return readerRepository.findByLastNameAfter(lastName, after, Paging.pageAfter(after, limit));
+  }
+
+  /**
+   * Passes every reader with the given last name to {@code consumer} as rows are read, without
+   * collecting them first.
+   */
+  @Transactional(readOnly = true)
+  public void streamByLastName(String lastName, Consumer<ReaderDTO> consumer) {
+    validateLastName(lastName);
+    try (Stream<ReaderDTO> readers = readerRepository.streamByLastName(lastName)) {
+      readers.forEach(consumer);
+    }
+  }
+
+  /**
+   * Like {@link #findByLastName(String, long, int)}, reading only {@code fields}.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> findByLastName(String lastName, long after, int limit,
+      List<String> fields) {
+    validateLastName(lastName);
+    Pageable page = Paging.pageAfter(after, limit);
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("lastName", lastName);
+    parameters.put("after", after);
+    return fieldProjectionRepository.find(EntityProjection.READER,
+        EntityProjection.READER.select(fields), BY_LAST_NAME + " AND e.id > :after", parameters,
+        page);
+  }
+
+  /**
+   * Like {@link #streamByLastName(String, Consumer)}, reading only {@code fields}.
+   */
+  @Transactional(readOnly = true)
+  public void streamByLastName(String lastName, List<String> fields,
+      Consumer<Map<String, Object>> consumer) {
+    validateLastName(lastName);
+    Set<String> selected = EntityProjection.READER.select(fields);
+    try (Stream<Map<String, Object>> readers = fieldProjectionRepository.stream(
+        EntityProjection.READER, selected, BY_LAST_NAME,
+        Collections.singletonMap("lastName", lastName))) {
+      readers.forEach(consumer);
+    }
+  }
+
+  private void validateLastName(String lastName) {
     if (lastName == null || lastName.isEmpty()) {
-      throw new IllegalArgumentException("Reader last name is not specified");
+      throw new ValidationException("Reader last name is not specified");
     }
-    return readerRepository.findByLastName(lastName);
   }
 
   private void validate(String firstName, String middleName, String lastName, Gender gender,
       LocalDate birthday)
   {
     if (firstName == null || firstName.isEmpty()) {
-      throw new IllegalArgumentException("Reader first name is null or empty");
+      throw new ValidationException("Reader first name is null or empty");
     }
     if (middleName == null || middleName.isEmpty()) {
-      throw new IllegalArgumentException("Reader middle name is null or empty");
+      throw new ValidationException("Reader middle name is null or empty");
     }
     if (lastName == null || lastName.isEmpty()) {
-      throw new IllegalArgumentException("Reader last name is null or empty");
+      throw new ValidationException("Reader last name is null or empty");
     }
     if (gender == null) {
-      throw new IllegalArgumentException("Reader gender is not specified");
+      throw new ValidationException("Reader gender is not specified");
     }
     if (birthday == null) {
-      throw new IllegalArgumentException("Reader birthday is not specified");
+      throw new ValidationException("Reader birthday is not specified");
     }
   }
 }
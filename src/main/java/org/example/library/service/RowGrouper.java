@@ -0,0 +1,54 @@
+package org.example.library.service;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Collects the columns of consecutive rows with the same key into arrays and stores them in the
+ * index when the next key starts, so an index is rebuilt from one ordered stream of rows without
+ * boxing every value. Rows have to come ordered by key; {@link #flush()} stores the last group.
+ */
+final class RowGrouper<V> {
+  private final LongObjectMap<V> index;
+  private final Function<long[][], V> toValue;
+  private long key;
+  private long[][] columns;
+  private int size;
+
+  /**
+   * @param toValue makes the value of a key from its columns, each as long as the group
+   */
+  RowGrouper(LongObjectMap<V> index, int columnCount, Function<long[][], V> toValue) {
+    this.index = index;
+    this.toValue = toValue;
+    this.columns = new long[columnCount][16];
+  }
+
+  void accept(long rowKey, long... values) {
+    if (rowKey != key) {
+      flush();
+    }
+    key = rowKey;
+    if (size == columns[0].length) {
+      for (int i = 0; i < columns.length; i++) {
+        columns[i] = Arrays.copyOf(columns[i], size * 2);
+      }
+    }
+    for (int i = 0; i < columns.length; i++) {
+      columns[i][size] = values[i];
+    }
+    size++;
+  }
+
+  void flush() {
+    if (size == 0) {
+      return;
+    }
+    long[][] group = new long[columns.length][];
+    for (int i = 0; i < columns.length; i++) {
+      group[i] = Arrays.copyOf(columns[i], size);
+    }
+    index.put(key, toValue.apply(group));
+    size = 0;
+  }
+}
@@ -0,0 +1,18 @@
+package org.example.library.service;
+
+/**
+ * The request can't be taken right now, such as when a queue is full; answered with 503 and,
+ * if known, how many seconds to wait before retrying. Carries no stack trace.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+  private final Integer retryAfterSeconds;
+
+  public ServiceUnavailableException(String message, Integer retryAfterSeconds) {
+    super(message, null, false, false);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public Integer getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
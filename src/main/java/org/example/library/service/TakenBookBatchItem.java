@@ -0,0 +1,33 @@
+package org.example.library.service;
+
+import java.time.LocalDate;
+
+public class TakenBookBatchItem {
+  private final Long readerId;
+  private final Long bookId;
+  private final LocalDate dateFrom;
+  private final LocalDate dateTo;
+
+  public TakenBookBatchItem(Long readerId, Long bookId, LocalDate dateFrom, LocalDate dateTo) {
+    this.readerId = readerId;
+    this.bookId = bookId;
+    this.dateFrom = dateFrom;
+    this.dateTo = dateTo;
+  }
+
+  public Long getReaderId() {
+    return readerId;
+  }
+
+  public Long getBookId() {
+    return bookId;
+  }
+
+  public LocalDate getDateFrom() {
+    return dateFrom;
+  }
+
+  public LocalDate getDateTo() {
+    return dateTo;
+  }
+}
@@ -0,0 +1,245 @@
+package org.example.library.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.example.library.entities.ChangeOperation;
+import org.example.library.entities.ChangedEntity;
+import org.example.library.entities.TakenBook;
+import org.example.library.repositories.BookRepository;
+import org.example.library.repositories.ReaderRepository;
+import org.example.library.repositories.TakenBookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk creation of taken books. Reader and book ids of the whole batch are checked with one
+ * {@code IN} query each, then valid rows are inserted chunk by chunk, every chunk in its own
+ * transaction so hibernate can send the inserts as JDBC batches. The books of a chunk stay locked
+ * until it commits, and rows overlapping an existing loan of their book are rejected. A chunk that
+ * fails on flush is replayed row by row, so one bad row doesn't reject its neighbours.
+ */
+@Service
+public class TakenBookBatchService {
+  private static final Logger LOG = LoggerFactory.getLogger(TakenBookBatchService.class);
+
+  @Autowired
+  private BookRepository bookRepository;
+  @Autowired
+  private ReaderRepository readerRepository;
+  @Autowired
+  private TakenBookRepository takenBookRepository;
+  @Autowired
+  private AvailabilityService availabilityService;
+  @Autowired
+  private ChangeFeedService changeFeedService;
+
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+  private final int maxSize;
+
+  public TakenBookBatchService(BookRepository bookRepository, ReaderRepository readerRepository,
+      TakenBookRepository takenBookRepository, AvailabilityService availabilityService,
+      ChangeFeedService changeFeedService, PlatformTransactionManager transactionManager,
+      @Value("${library.taken-book.batch.chunk-size:500}") int chunkSize,
+      @Value("${library.taken-book.batch.max-size:10000}") int maxSize) {
+    this.bookRepository = bookRepository;
+    this.readerRepository = readerRepository;
+    this.takenBookRepository = takenBookRepository;
+    this.availabilityService = availabilityService;
+    this.changeFeedService = changeFeedService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Creates taken books for all valid items.
+   *
+   * @return results in the order of {@code items}
+   */
+  public List<BatchItemResult> createTakenBooks(List<TakenBookBatchItem> items) {
+    if (items == null || items.isEmpty()) {
+      throw new ValidationException("Taken book batch is empty");
+    }
+    if (items.size() > maxSize) {
+      throw new ValidationException("Taken book batch size " + items.size()
+          + " exceeds maximum " + maxSize);
+    }
+
+    BatchItemResult[] results = new BatchItemResult[items.size()];
+    Set<Long> existingReaderIds = findExisting(items, TakenBookBatchItem::getReaderId,
+        readerRepository::findExistingIds);
+    Set<Long> existingBookIds = findExisting(items, TakenBookBatchItem::getBookId,
+        bookRepository::findExistingIds);
+
+    List<Integer> chunk = new ArrayList<>(chunkSize);
+    for (int i = 0; i < items.size(); i++) {
+      String error = validate(items.get(i), existingReaderIds, existingBookIds);
+      if (error != null) {
+        results[i] = BatchItemResult.failed(error);
+        continue;
+      }
+      chunk.add(i);
+      if (chunk.size() == chunkSize) {
+        insertChunk(items, chunk, results);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      insertChunk(items, chunk, results);
+    }
+    return Arrays.asList(results);
+  }
+
+  private Set<Long> findExisting(List<TakenBookBatchItem> items,
+      Function<TakenBookBatchItem, Long> idGetter,
+      Function<Set<Long>, Set<Long>> finder) {
+    Set<Long> ids = items.stream()
+        .filter(Objects::nonNull)
+        .map(idGetter)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+    return ids.isEmpty() ? new HashSet<>() : finder.apply(ids);
+  }
+
+  private String validate(TakenBookBatchItem item, Set<Long> existingReaderIds,
+      Set<Long> existingBookIds) {
+    if (item == null) {
+      return "Taken book is not specified";
+    }
+    try {
+      TakenBookService.validate(item.getDateFrom(), item.getDateTo());
+    } catch (IllegalArgumentException ex) {
+      return ex.getMessage();
+    }
+    if (item.getReaderId() == null) {
+      return "Reader id is not specified";
+    }
+    if (!existingReaderIds.contains(item.getReaderId())) {
+      return "Reader id is not found";
+    }
+    if (item.getBookId() == null) {
+      return "Book id is not specified";
+    }
+    if (!existingBookIds.contains(item.getBookId())) {
+      return "Book id is not found";
+    }
+    return null;
+  }
+
+  private void insertChunk(List<TakenBookBatchItem> items, List<Integer> chunk,
+      BatchItemResult[] results) {
+    try {
+      BatchItemResult[] chunkResults = transactionTemplate.execute(
+          status -> insertInTransaction(items, chunk));
+      for (int i = 0; i < chunk.size(); i++) {
+        results[chunk.get(i)] = chunkResults[i];
+      }
+    } catch (DataAccessException | TransactionException ex) {
+      LOG.warn("Taken book batch chunk of {} rows failed, retrying row by row: {}", chunk.size(),
+          ex.getMessage());
+      for (Integer index : chunk) {
+        results[index] = insertOne(items, index);
+      }
+    }
+  }
+
+  private BatchItemResult insertOne(List<TakenBookBatchItem> items, int index) {
+    try {
+      return transactionTemplate.execute(
+          status -> insertInTransaction(items, Collections.singletonList(index)))[0];
+    } catch (DataAccessException | TransactionException ex) {
+      return BatchItemResult.failed(ex.getMessage());
+    }
+  }
+
+  /**
+   * Locks the books of the chunk, loads their loans intersecting the chunk's dates and inserts
+   * the rows overlapping neither those loans nor earlier rows of the chunk.
+   */
+  private BatchItemResult[] insertInTransaction(List<TakenBookBatchItem> items,
+      List<Integer> chunk) {
+    Set<Long> bookIds = new HashSet<>();
+    LocalDate dateFrom = LocalDate.MAX;
+    LocalDate dateTo = LocalDate.MIN;
+    for (Integer index : chunk) {
+      TakenBookBatchItem item = items.get(index);
+      bookIds.add(item.getBookId());
+      dateFrom = item.getDateFrom().isBefore(dateFrom) ? item.getDateFrom() : dateFrom;
+      dateTo = item.getDateTo().isAfter(dateTo) ? item.getDateTo() : dateTo;
+    }
+    bookRepository.findAllByIdForUpdate(bookIds);
+    BookPeriods periods = new BookPeriods();
+    for (Object[] row : takenBookRepository.findPeriodsOverlapping(bookIds, dateFrom, dateTo)) {
+      periods.add((Long) row[0], (LocalDate) row[1], (LocalDate) row[2]);
+    }
+
+    BatchItemResult[] chunkResults = new BatchItemResult[chunk.size()];
+    List<Integer> accepted = new ArrayList<>(chunk.size());
+    List<TakenBook> takenBooks = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      TakenBookBatchItem item = items.get(chunk.get(i));
+      if (periods.overlaps(item.getBookId(), item.getDateFrom(), item.getDateTo())) {
+        chunkResults[i] = BatchItemResult.failed(TakenBookService.BOOK_IS_TAKEN);
+        continue;
+      }
+      periods.add(item.getBookId(), item.getDateFrom(), item.getDateTo());
+      accepted.add(i);
+      takenBooks.add(newTakenBook(item));
+    }
+    List<TakenBook> saved = takenBookRepository.saveAll(takenBooks);
+    takenBookRepository.flush();
+    for (int i = 0; i < accepted.size(); i++) {
+      TakenBook takenBook = saved.get(i);
+      chunkResults[accepted.get(i)] = BatchItemResult.created(takenBook.getId());
+      availabilityService.loanSaved(takenBook.getBook().getId(), takenBook.getId(),
+          takenBook.getDateFrom(), takenBook.getDateTo());
+      changeFeedService.record(ChangedEntity.TAKEN_BOOK, takenBook.getId(),
+          ChangeOperation.CREATED, takenBook.getVersion());
+    }
+    return chunkResults;
+  }
+
+  private TakenBook newTakenBook(TakenBookBatchItem item) {
+    return new TakenBook(readerRepository.getOne(item.getReaderId()),
+        bookRepository.getOne(item.getBookId()), item.getDateFrom(), item.getDateTo());
+  }
+
+  /**
+   * Loan periods per book. A period without a return date is open-ended.
+   */
+  private static class BookPeriods {
+    private final Map<Long, List<LocalDate[]>> periods = new HashMap<>();
+
+    void add(Long bookId, LocalDate dateFrom, LocalDate dateTo) {
+      periods.computeIfAbsent(bookId, id -> new ArrayList<>())
+          .add(new LocalDate[] {dateFrom, dateTo == null ? LocalDate.MAX : dateTo});
+    }
+
+    boolean overlaps(Long bookId, LocalDate dateFrom, LocalDate dateTo) {
+      for (LocalDate[] period : periods.getOrDefault(bookId, Collections.emptyList())) {
+        if (period[0].isBefore(dateTo) && period[1].isAfter(dateFrom)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package org.example.library.service;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Related entities that can be returned together with taken books instead of just their ids.
+ */
+public enum TakenBookExpansion {
+  BOOK,
+  AUTHORS,
+  READER;
+
+  /**
+   * @param names lower case names as given in the {@code expand} request parameter, may be
+   *     {@code null}
+   * @throws ValidationException if a name is unknown
+   */
+  public static Set<TakenBookExpansion> parse(Collection<String> names) {
+    Set<TakenBookExpansion> expansions = EnumSet.noneOf(TakenBookExpansion.class);
+    if (names == null) {
+      return expansions;
+    }
+    for (String name : names) {
+      try {
+        expansions.add(valueOf(name.trim().toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException ex) {
+        throw new ValidationException("Unknown expansion '" + name
+            + "', expected book, authors or reader");
+      }
+    }
+    return expansions;
+  }
+}
@@ -0,0 +1,31 @@
+package org.example.library.service;
+
+import java.util.Collections;
+import java.util.Map;
+import org.example.library.entities.Book;
+import org.example.library.service.dto.ReaderDTO;
+
+/**
+ * Books, with their authors loaded, and readers of a set of taken books, by id. A map is empty
+ * when its expansion was not requested.
+ */
+public class TakenBookGraph {
+  static final TakenBookGraph EMPTY = new TakenBookGraph(Collections.emptyMap(),
+      Collections.emptyMap());
+
+  private final Map<Long, Book> books;
+  private final Map<Long, ReaderDTO> readers;
+
+  public TakenBookGraph(Map<Long, Book> books, Map<Long, ReaderDTO> readers) {
+    this.books = books;
+    this.readers = readers;
+  }
+
+  public Book getBook(Long id) {
+    return books.get(id);
+  }
+
+  public ReaderDTO getReader(Long id) {
+    return readers.get(id);
+  }
+}
@@ -1,34 +1,65 @@
 package org.example.library.service;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.example.library.entities.Book;
+import org.example.library.entities.ChangeOperation;
+import org.example.library.entities.ChangedEntity;
 import org.example.library.entities.Reader;
 import org.example.library.entities.TakenBook;
 import org.example.library.repositories.BookRepository;
+import org.example.library.repositories.EntityProjection;
+import org.example.library.repositories.FieldProjectionRepository;
 import org.example.library.repositories.ReaderRepository;
 import org.example.library.repositories.TakenBookRepository;
+import org.example.library.service.dto.ReaderDTO;
+import org.example.library.service.dto.TakenBookDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class TakenBookService {
+  static final String BOOK_IS_TAKEN = "Book is already taken for an overlapping period";
+  private static final long NO_TAKEN_BOOK = 0L;
+  private static final String BY_READER_AND_PERIOD =
+      "e.reader.id = :readerId AND e.dateFrom BETWEEN :dateFrom AND :dateTo";
+
   @Autowired
   private BookRepository bookRepository;
   @Autowired
   private ReaderRepository readerRepository;
   @Autowired
   private TakenBookRepository takenBookRepository;
+  @Autowired
+  private AvailabilityService availabilityService;
+  @Autowired
+  private FieldProjectionRepository fieldProjectionRepository;
+  @Autowired
+  private ChangeFeedService changeFeedService;
 
   public TakenBookService(BookRepository bookRepository, ReaderRepository readerRepository,
-      TakenBookRepository takenBookRepository) {
+      TakenBookRepository takenBookRepository, AvailabilityService availabilityService,
+      FieldProjectionRepository fieldProjectionRepository, ChangeFeedService changeFeedService) {
     this.bookRepository = bookRepository;
     this.readerRepository = readerRepository;
     this.takenBookRepository = takenBookRepository;
+    this.availabilityService = availabilityService;
+    this.fieldProjectionRepository = fieldProjectionRepository;
+    this.changeFeedService = changeFeedService;
   }
 
   @Transactional
@@ -37,10 +68,16 @@ public class TakenBookService {
     try {
       validate(dateFrom, dateTo);
       Reader reader = validateAndGetReader(readerId);
-      Book book = validateAndGetBook(bookId);
-      return takenBookRepository.saveAndFlush(new TakenBook(reader, book, dateFrom, dateTo));
+      Book book = validateAndLockBook(bookId);
+      validateNotOverlapping(bookId, dateFrom, dateTo, NO_TAKEN_BOOK);
+      TakenBook takenBook =
+          takenBookRepository.saveAndFlush(new TakenBook(reader, book, dateFrom, dateTo));
+      availabilityService.loanSaved(bookId, takenBook.getId(), dateFrom, dateTo);
+      changeFeedService.record(ChangedEntity.TAKEN_BOOK, takenBook.getId(),
+          ChangeOperation.CREATED, takenBook.getVersion());
+      return takenBook;
     } catch (DataIntegrityViolationException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
@@ -49,33 +86,42 @@ public class TakenBookService {
       LocalDate dateTo) {
     try {
       if (id == null) {
-        throw new IllegalArgumentException("Taken book id is not specified");
+        throw new ValidationException("Taken book id is not specified");
       }
 
       validate(dateFrom, dateTo);
       Reader reader = validateAndGetReader(readerId);
-      Book book = validateAndGetBook(bookId);
+      Book book = validateAndLockBook(bookId);
 
       Optional<TakenBook> optionalTakenBook = takenBookRepository.findById(id);
       if (!optionalTakenBook.isPresent()) {
         throw new NotFoundException("Taken book with id=" + id + " doesn't exist");
       }
+      validateNotOverlapping(bookId, dateFrom, dateTo, id);
 
       TakenBook takenBook = optionalTakenBook.get();
+      Long oldBookId = takenBook.getBook().getId();
       takenBook.setReader(reader);
       takenBook.setBook(book);
       takenBook.setDateFrom(dateFrom);
       takenBook.setDateTo(dateTo);
-      return takenBookRepository.saveAndFlush(takenBook);
+      TakenBook updatedTakenBook = takenBookRepository.saveAndFlush(takenBook);
+      if (!bookId.equals(oldBookId)) {
+        availabilityService.loanDeleted(oldBookId, id);
+      }
+      availabilityService.loanSaved(bookId, id, dateFrom, dateTo);
+      changeFeedService.record(ChangedEntity.TAKEN_BOOK, id, ChangeOperation.UPDATED,
+          updatedTakenBook.getVersion());
+      return updatedTakenBook;
     } catch(DataIntegrityViolationException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
   @Transactional
   public TakenBook findById(Long id) {
     if (id == null) {
-      throw new IllegalArgumentException("Taken book id is not specified");
+      throw new ValidationException("Taken book id is not specified");
     }
     Optional<TakenBook> optionalTakenBook = takenBookRepository.findById(id);
     return optionalTakenBook.orElse(null);
@@ -85,64 +131,174 @@ public class TakenBookService {
   public void deleteById(Long id) {
     try {
       if (id == null) {
-        throw new IllegalArgumentException("Taken book id is not specified");
+        throw new ValidationException("Taken book id is not specified");
       }
+      Optional<TakenBook> optionalTakenBook = takenBookRepository.findById(id);
       takenBookRepository.deleteById(id);
+      optionalTakenBook.ifPresent(
+          takenBook -> availabilityService.loanDeleted(takenBook.getBook().getId(), id));
+      changeFeedService.record(ChangedEntity.TAKEN_BOOK, id, ChangeOperation.DELETED, null);
     } catch (EmptyResultDataAccessException ex) {
-      throw new IllegalArgumentException(ex.getMessage());
+      throw new ValidationException(ex.getMessage());
     }
   }
 
   @Transactional
-  public List<TakenBook> findByReaderAndPeriod(Long readerId, LocalDate dateFrom, LocalDate dateTo) {
+  public List<TakenBookDTO> findByReaderAndPeriod(Long readerId, LocalDate dateFrom, LocalDate dateTo) {
+    validatePeriod(readerId, dateFrom, dateTo);
+    return takenBookRepository.findByReaderAndPeriod(readerId, dateFrom, dateTo);
+  }
+
+  @Transactional(readOnly = true)
+  public List<TakenBookDTO> findByReaderAndPeriod(Long readerId, LocalDate dateFrom,
+      LocalDate dateTo, long after, int limit) {
+    validatePeriod(readerId, dateFrom, dateTo);
+    return takenBookRepository.findByReaderAndPeriodAfter(readerId, dateFrom, dateTo, after,
+        Paging.pageAfter(after, limit));
+  }
+
+  /**
+   * Passes every taken book of the reader in the period to {@code consumer} as rows are read,
+   * without collecting them first.
+   */
+  @Transactional(readOnly = true)
+  public void streamByReaderAndPeriod(Long readerId, LocalDate dateFrom, LocalDate dateTo,
+      Consumer<TakenBookDTO> consumer) {
+    validatePeriod(readerId, dateFrom, dateTo);
+    try (Stream<TakenBookDTO> takenBooks =
+        takenBookRepository.streamByReaderAndPeriod(readerId, dateFrom, dateTo)) {
+      takenBooks.forEach(consumer);
+    }
+  }
+
+  /**
+   * Like {@link #findByReaderAndPeriod(Long, LocalDate, LocalDate, long, int)}, reading only
+   * {@code fields}.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> findByReaderAndPeriod(Long readerId, LocalDate dateFrom,
+      LocalDate dateTo, long after, int limit, List<String> fields) {
+    validatePeriod(readerId, dateFrom, dateTo);
+    Pageable page = Paging.pageAfter(after, limit);
+    Map<String, Object> parameters = periodParameters(readerId, dateFrom, dateTo);
+    parameters.put("after", after);
+    return fieldProjectionRepository.find(EntityProjection.TAKEN_BOOK,
+        EntityProjection.TAKEN_BOOK.select(fields), BY_READER_AND_PERIOD + " AND e.id > :after",
+        parameters, page);
+  }
+
+  /**
+   * Like {@link #streamByReaderAndPeriod(Long, LocalDate, LocalDate, Consumer)}, reading only
+   * {@code fields}.
+   */
+  @Transactional(readOnly = true)
+  public void streamByReaderAndPeriod(Long readerId, LocalDate dateFrom, LocalDate dateTo,
+      List<String> fields, Consumer<Map<String, Object>> consumer) {
+    validatePeriod(readerId, dateFrom, dateTo);
+    Set<String> selected = EntityProjection.TAKEN_BOOK.select(fields);
+    try (Stream<Map<String, Object>> takenBooks = fieldProjectionRepository.stream(
+        EntityProjection.TAKEN_BOOK, selected, BY_READER_AND_PERIOD,
+        periodParameters(readerId, dateFrom, dateTo))) {
+      takenBooks.forEach(consumer);
+    }
+  }
+
+  /**
+   * Loads what {@code expansions} ask for: the books of {@code takenBooks} with their authors in
+   * one query and their readers in another, however many taken books there are.
+   */
+  @Transactional(readOnly = true)
+  public TakenBookGraph loadGraph(Collection<TakenBookDTO> takenBooks,
+      Set<TakenBookExpansion> expansions) {
+    if (takenBooks.isEmpty() || expansions.isEmpty()) {
+      return TakenBookGraph.EMPTY;
+    }
+    Map<Long, Book> books = Collections.emptyMap();
+    if (expansions.contains(TakenBookExpansion.BOOK)
+        || expansions.contains(TakenBookExpansion.AUTHORS)) {
+      Set<Long> bookIds = takenBooks.stream().map(TakenBookDTO::getBookId)
+          .collect(Collectors.toSet());
+      books = bookRepository.findWithAuthorsByIdIn(bookIds).stream()
+          .collect(Collectors.toMap(Book::getId, Function.identity()));
+    }
+    Map<Long, ReaderDTO> readers = Collections.emptyMap();
+    if (expansions.contains(TakenBookExpansion.READER)) {
+      Set<Long> readerIds = takenBooks.stream().map(TakenBookDTO::getReaderId)
+          .collect(Collectors.toSet());
+      readers = readerRepository.findByIdIn(readerIds).stream()
+          .collect(Collectors.toMap(ReaderDTO::getId, Function.identity()));
+    }
+    return new TakenBookGraph(books, readers);
+  }
+
+  private static Map<String, Object> periodParameters(Long readerId, LocalDate dateFrom,
+      LocalDate dateTo) {
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("readerId", readerId);
+    parameters.put("dateFrom", dateFrom);
+    parameters.put("dateTo", dateTo);
+    return parameters;
+  }
+
+  private void validatePeriod(Long readerId, LocalDate dateFrom, LocalDate dateTo) {
     if (dateFrom == null) {
-      throw new IllegalArgumentException("Period date from is not specified");
+      throw new ValidationException("Period date from is not specified");
     }
     if (dateTo == null) {
-      throw new IllegalArgumentException("Period date to is not specified");
+      throw new ValidationException("Period date to is not specified");
     }
     if (!dateTo.isAfter(dateFrom)) {
-      throw new IllegalArgumentException("Period date to is not after date from");
+      throw new ValidationException("Period date to is not after date from");
     }
     if (readerId == null) {
-      throw new IllegalArgumentException("Reader id is not specified");
+      throw new ValidationException("Reader id is not specified");
     }
-    return takenBookRepository.findByReaderAndPeriod(readerId, dateFrom, dateTo);
   }
 
-  private void validate(LocalDate dateFrom, LocalDate dateTo) {
+  static void validate(LocalDate dateFrom, LocalDate dateTo) {
     if (dateFrom == null) {
-      throw new IllegalArgumentException("Date when book was taken is not specified");
+      throw new ValidationException("Date when book was taken is not specified");
     }
     if (dateTo == null) {
-      throw new IllegalArgumentException("Date when book should be returned is not specified");
+      throw new ValidationException("Date when book should be returned is not specified");
     }
     if (!dateTo.isAfter(dateFrom)) {
-      throw new IllegalArgumentException("Date when book is returned is not after taken date");
+      throw new ValidationException("Date when book is returned is not after taken date");
     }
   }
 
   private Reader validateAndGetReader(Long readerId) {
     if (readerId == null) {
-      throw new IllegalArgumentException("Reader id is not specified");
+      throw new ValidationException("Reader id is not specified");
     }
 
     Optional<Reader> optionalReader = readerRepository.findById(readerId);
     if(!optionalReader.isPresent()) {
-      throw new IllegalArgumentException("Reader id is not found");
+      throw new ValidationException("Reader id is not found");
     }
     return optionalReader.get();
   }
 
-  private Book validateAndGetBook(Long bookId) {
+  /**
+   * Locks the book row until the end of the transaction: concurrent loans of the same book wait
+   * here, so the overlap check below always sees the loans committed before it.
+   */
+  private Book validateAndLockBook(Long bookId) {
     if (bookId == null) {
-      throw new IllegalArgumentException("Book id is not specified");
+      throw new ValidationException("Book id is not specified");
     }
 
-    Optional<Book> optionalBook = bookRepository.findById(bookId);
+    Optional<Book> optionalBook = bookRepository.findByIdForUpdate(bookId);
     if(!optionalBook.isPresent()) {
-      throw new IllegalArgumentException("Book id is not found");
+      throw new ValidationException("Book id is not found");
     }
     return optionalBook.get();
   }
+
+  private void validateNotOverlapping(Long bookId, LocalDate dateFrom, LocalDate dateTo,
+      long excludedId) {
+    if (takenBookRepository.countOverlapping(bookId, dateFrom, dateTo, excludedId) > 0) {
+      throw new ValidationException(BOOK_IS_TAKEN);
+    }
+  }
 }
@@ -0,0 +1,60 @@
+package org.example.library.service;
+
+/**
+ * State of a taken book accepted for asynchronous creation: still queued, created with an id, or
+ * rejected with the reason. Tickets are random UUIDs, so a ticket of an earlier run of the
+ * application, whose result is gone with the process, is unknown rather than another loan's.
+ */
+public class TakenBookTicket {
+  public enum Status {
+    QUEUED, CREATED, FAILED
+  }
+
+  private final String ticket;
+  private final Status status;
+  private final Long takenBookId;
+  private final String error;
+
+  TakenBookTicket(String ticket, Status status, Long takenBookId, String error) {
+    this.ticket = ticket;
+    this.status = status;
+    this.takenBookId = takenBookId;
+    this.error = error;
+  }
+
+  static TakenBookTicket queued(String ticket) {
+    return new TakenBookTicket(ticket, Status.QUEUED, null, null);
+  }
+
+  static TakenBookTicket of(String ticket, BatchItemResult result) {
+    return result.isCreated()
+        ? new TakenBookTicket(ticket, Status.CREATED, result.getId(), null)
+        : new TakenBookTicket(ticket, Status.FAILED, null, result.getError());
+  }
+
+  public String getTicket() {
+    return ticket;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public Long getTakenBookId() {
+    return takenBookId;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  @Override
+  public String toString() {
+    return "TakenBookTicket{" +
+        "ticket='" + ticket + '\'' +
+        ", status=" + status +
+        ", takenBookId=" + takenBookId +
+        ", error='" + error + '\'' +
+        '}';
+  }
+}
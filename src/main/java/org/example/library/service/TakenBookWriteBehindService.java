@@ -0,0 +1,216 @@
+package org.example.library.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Creates taken books in the background, so a burst of checkouts doesn't wait for a transaction
+ * each. {@link #accept} checks what it can without the database, puts the taken book into a
+ * bounded queue and returns a ticket right away; writer threads take whatever has queued up, up
+ * to {@code batch-size} rows, and create it through {@link TakenBookBatchService} in batched
+ * transactions. The taken book is durable only once its ticket is {@code CREATED}: queued rows
+ * are written on a normal shutdown, within {@code drain-timeout}, but lost if the process dies.
+ * A full queue is rejected with {@link ServiceUnavailableException} instead of growing. Ticket
+ * results are kept in memory as {@code library.taken-book.async.result-spec} allows; tickets are
+ * random UUIDs, so one issued before a restart is unknown afterwards instead of naming another
+ * taken book. Disabled unless
+ * {@code library.taken-book.async.enabled} is set.
+ */
+@Service
+public class TakenBookWriteBehindService {
+  private static final Logger LOG = LoggerFactory.getLogger(TakenBookWriteBehindService.class);
+  private static final long POLL_MILLIS = 100;
+
+  @Autowired
+  private TakenBookBatchService takenBookBatchService;
+
+  private final boolean enabled;
+  private final int writers;
+  private final int batchSize;
+  private final Duration drainTimeout;
+  private final BlockingQueue<Entry> queue;
+  private final Set<String> queued = ConcurrentHashMap.newKeySet();
+  private final Cache<String, TakenBookTicket> results;
+  private final List<Thread> threads = new ArrayList<>();
+  private volatile boolean running;
+
+  public TakenBookWriteBehindService(TakenBookBatchService takenBookBatchService,
+      @Value("${library.taken-book.async.enabled:false}") boolean enabled,
+      @Value("${library.taken-book.async.queue-capacity:10000}") int queueCapacity,
+      @Value("${library.taken-book.async.writers:2}") int writers,
+      @Value("${library.taken-book.async.batch-size:500}") int batchSize,
+      @Value("${library.taken-book.async.drain-timeout:30s}") Duration drainTimeout,
+      @Value("${library.taken-book.async.result-spec:maximumSize=100000,expireAfterWrite=1h}")
+          String resultSpec) {
+    this.takenBookBatchService = takenBookBatchService;
+    this.enabled = enabled;
+    this.writers = writers;
+    this.batchSize = batchSize;
+    this.drainTimeout = drainTimeout;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.results = Caffeine.from(resultSpec).build();
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    running = true;
+    for (int i = 0; i < writers; i++) {
+      Thread thread = new Thread(this::write, "taken-book-writer-" + i);
+      // the queue is drained by stop(), these threads shouldn't keep the JVM alive on their own
+      thread.setDaemon(true);
+      thread.start();
+      threads.add(thread);
+    }
+  }
+
+  /**
+   * Stops accepting taken books and waits up to {@code drain-timeout} for the queued ones to be
+   * written.
+   */
+  @PreDestroy
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    long deadline = System.nanoTime() + drainTimeout.toNanos();
+    for (Thread thread : threads) {
+      try {
+        thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    if (!queue.isEmpty()) {
+      LOG.warn("{} queued taken books not written within {}", queue.size(), drainTimeout);
+    }
+  }
+
+  /**
+   * @return ticket of the taken book, {@code QUEUED}
+   * @throws ServiceUnavailableException if the queue is full or asynchronous writes are off
+   */
+  public TakenBookTicket accept(Long readerId, Long bookId, LocalDate dateFrom,
+      LocalDate dateTo) {
+    TakenBookService.validate(dateFrom, dateTo);
+    if (readerId == null) {
+      throw new ValidationException("Reader id is not specified");
+    }
+    if (bookId == null) {
+      throw new ValidationException("Book id is not specified");
+    }
+    if (!running) {
+      throw notRunning();
+    }
+    Entry entry = new Entry(UUID.randomUUID().toString(),
+        new TakenBookBatchItem(readerId, bookId, dateFrom, dateTo));
+    queued.add(entry.ticket);
+    if (!queue.offer(entry)) {
+      queued.remove(entry.ticket);
+      throw new ServiceUnavailableException("Taken book queue is full", 1);
+    }
+    // the writers may have drained the queue and exited between the check above and the offer
+    if (!running && queue.remove(entry)) {
+      queued.remove(entry.ticket);
+      throw notRunning();
+    }
+    return TakenBookTicket.queued(entry.ticket);
+  }
+
+  /**
+   * @throws NotFoundException if there is no such ticket or its result is no longer kept
+   */
+  public TakenBookTicket findTicket(String ticket) {
+    // a written ticket gets its result before it leaves the queued set
+    if (queued.contains(ticket)) {
+      return TakenBookTicket.queued(ticket);
+    }
+    TakenBookTicket result = results.getIfPresent(ticket);
+    if (result == null) {
+      throw new NotFoundException("Taken book ticket " + ticket + " doesn't exist");
+    }
+    return result;
+  }
+
+  int queueSize() {
+    return queue.size();
+  }
+
+  private void write() {
+    List<Entry> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      Entry first;
+      try {
+        first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (first == null) {
+        continue;
+      }
+      batch.add(first);
+      queue.drainTo(batch, batchSize - 1);
+      write(batch);
+      batch.clear();
+    }
+  }
+
+  private void write(List<Entry> batch) {
+    List<TakenBookBatchItem> items = new ArrayList<>(batch.size());
+    for (Entry entry : batch) {
+      items.add(entry.item);
+    }
+    List<BatchItemResult> written;
+    try {
+      written = takenBookBatchService.createTakenBooks(items);
+    } catch (RuntimeException e) {
+      LOG.warn("Batch of {} queued taken books failed", batch.size(), e);
+      BatchItemResult failed = BatchItemResult.failed(e.getMessage());
+      written = new ArrayList<>(batch.size());
+      for (int i = 0; i < batch.size(); i++) {
+        written.add(failed);
+      }
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      String ticket = batch.get(i).ticket;
+      results.put(ticket, TakenBookTicket.of(ticket, written.get(i)));
+      queued.remove(ticket);
+    }
+  }
+
+  private static ServiceUnavailableException notRunning() {
+    return new ServiceUnavailableException("Asynchronous taken book writes are not running", null);
+  }
+
+  private static class Entry {
+    private final String ticket;
+    private final TakenBookBatchItem item;
+
+    Entry(String ticket, TakenBookBatchItem item) {
+      this.ticket = ticket;
+      this.item = item;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package org.example.library.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a title or a query into index terms: letters and digits are split into words, lower cased
+ * with diacritics removed (so {@code ё} matches {@code е}), and each word loses at most one common
+ * English or Russian inflection ending. This is a light stemmer, not a dictionary one: it only has
+ * to map the forms a reader is likely to type onto the same term, and it is applied the same way
+ * to titles and queries.
+ */
+final class TitleAnalyzer {
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final int MIN_STEM = 3;
+  /**
+   * Longer endings first, so the longest matching one is removed. Endings are matched after
+   * folding, where {@code й} has already become {@code и}.
+   */
+  private static final String[] ENDINGS = {
+      "иями", "ями", "ами", "ого", "его", "ому", "ему", "ыми", "ими", "иеи", "ings", "ing", "ies",
+      "ed", "es", "ия", "ие", "ии", "ыи", "ои", "ая", "яя", "ое", "ее", "ые", "ов", "ев", "ах",
+      "ях", "ых", "их", "ам", "ям", "ом", "ем", "еи", "s", "а", "я", "о", "е", "ы", "и", "у",
+      "ю", "ь"};
+
+  private TitleAnalyzer() {
+  }
+
+  static List<String> terms(String text) {
+    List<String> terms = words(text);
+    terms.replaceAll(TitleAnalyzer::stem);
+    return terms;
+  }
+
+  /**
+   * Words of {@code text} lower cased with diacritics removed, but not stemmed.
+   */
+  static List<String> words(String text) {
+    String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+        .replaceAll("").toLowerCase(Locale.ROOT);
+    List<String> words = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i <= folded.length(); i++) {
+      boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        words.add(folded.substring(start, i));
+        start = -1;
+      }
+    }
+    return words;
+  }
+
+  static String stem(String word) {
+    for (String ending : ENDINGS) {
+      if (word.length() - ending.length() >= MIN_STEM && word.endsWith(ending)) {
+        return word.substring(0, word.length() - ending.length());
+      }
+    }
+    return word;
+  }
+}
@@ -0,0 +1,270 @@
+package org.example.library.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Inverted index of book titles. Every term maps to the ids of the titles containing it, ascending,
+ * with the positions of the term in each title, so phrases are matched without reading titles.
+ * Matches are ranked by BM25. Each title's terms are kept as well, to remove its postings when it
+ * changes and to write the index to disk. Not thread-safe.
+ */
+final class TitleIndex {
+  private static final int FORMAT = 0x54490001;
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private final Map<String, Postings> postings = new HashMap<>();
+  private final LongObjectMap<String[]> titles;
+  private long totalLength;
+
+  TitleIndex() {
+    this(16);
+  }
+
+  TitleIndex(int expectedSize) {
+    titles = new LongObjectMap<>(expectedSize);
+  }
+
+  int size() {
+    return titles.size();
+  }
+
+  void put(long id, String title) {
+    putTerms(id, TitleAnalyzer.terms(title).toArray(new String[0]));
+  }
+
+  void remove(long id) {
+    String[] terms = titles.get(id);
+    if (terms == null) {
+      return;
+    }
+    titles.remove(id);
+    totalLength -= terms.length;
+    for (String term : new LinkedHashSet<>(Arrays.asList(terms))) {
+      Postings termPostings = postings.get(term);
+      termPostings.remove(id);
+      if (termPostings.size == 0) {
+        postings.remove(term);
+      }
+    }
+  }
+
+  /**
+   * Walks the posting lists of the query terms together in id order, so each matching title is
+   * scored once, without collecting scores of all matches first; only titles scoring above the
+   * current {@code limit}-th best are checked for phrases.
+   *
+   * @param terms terms scored by BM25; a title matches if it contains any of them
+   * @param phrases term sequences a title must contain, each at consecutive positions
+   * @return the best {@code limit} matches, higher score first, then lower id
+   */
+  List<TitleSearchHit> search(List<String> terms, List<List<String>> phrases, int limit) {
+    Set<String> scored = new LinkedHashSet<>(terms);
+    for (List<String> phrase : phrases) {
+      scored.addAll(phrase);
+    }
+    List<Postings> lists = new ArrayList<>(scored.size());
+    for (String term : scored) {
+      Postings termPostings = postings.get(term);
+      if (termPostings != null) {
+        lists.add(termPostings);
+      }
+    }
+    double[] idf = new double[lists.size()];
+    for (int t = 0; t < idf.length; t++) {
+      int matching = lists.get(t).size;
+      idf[t] = Math.log(1 + (titles.size() - matching + 0.5) / (matching + 0.5));
+    }
+    double averageLength = titles.size() == 0 ? 1 : (double) totalLength / titles.size();
+
+    Comparator<TitleSearchHit> worstFirst = Comparator.comparingDouble(TitleSearchHit::getScore)
+        .thenComparing(TitleSearchHit::getId, Comparator.reverseOrder());
+    PriorityQueue<TitleSearchHit> best = new PriorityQueue<>(worstFirst);
+    int[] cursors = new int[lists.size()];
+    while (true) {
+      long id = Long.MAX_VALUE;
+      for (int t = 0; t < cursors.length; t++) {
+        Postings list = lists.get(t);
+        if (cursors[t] < list.size) {
+          id = Math.min(id, list.ids[cursors[t]]);
+        }
+      }
+      if (id == Long.MAX_VALUE) {
+        break;
+      }
+      double score = 0;
+      for (int t = 0; t < cursors.length; t++) {
+        Postings list = lists.get(t);
+        int i = cursors[t];
+        if (i < list.size && list.ids[i] == id) {
+          int frequency = list.positions[i].length;
+          double norm = K1 * (1 - B + B * list.lengths[i] / averageLength);
+          score += idf[t] * frequency * (K1 + 1) / (frequency + norm);
+          cursors[t]++;
+        }
+      }
+      // titles come in ascending id order, so a later title only wins with a higher score
+      if ((best.size() < limit || score > best.peek().getScore())
+          && containsPhrases(id, phrases)) {
+        best.add(new TitleSearchHit(id, score));
+        if (best.size() > limit) {
+          best.poll();
+        }
+      }
+    }
+    List<TitleSearchHit> hits = new ArrayList<>(best);
+    hits.sort(worstFirst.reversed());
+    return hits;
+  }
+
+  /**
+   * Writes the terms of every title in id order; {@link #read(DataInput)} rebuilds the postings
+   * from them without analyzing the titles again, appending to the end of every posting list.
+   */
+  void write(DataOutput out) throws IOException {
+    Map<String, Integer> numbers = new HashMap<>();
+    List<String> dictionary = new ArrayList<>(postings.keySet());
+    for (int i = 0; i < dictionary.size(); i++) {
+      numbers.put(dictionary.get(i), i);
+    }
+    out.writeInt(FORMAT);
+    out.writeInt(dictionary.size());
+    for (String term : dictionary) {
+      out.writeUTF(term);
+    }
+    long[] ids = new long[titles.size()];
+    int[] count = new int[1];
+    titles.forEach((id, terms) -> ids[count[0]++] = id);
+    Arrays.sort(ids);
+    out.writeInt(ids.length);
+    for (long id : ids) {
+      String[] terms = titles.get(id);
+      out.writeLong(id);
+      out.writeShort(terms.length);
+      for (String term : terms) {
+        out.writeInt(numbers.get(term));
+      }
+    }
+  }
+
+  static TitleIndex read(DataInput in) throws IOException {
+    if (in.readInt() != FORMAT) {
+      throw new IOException("Unknown title index format");
+    }
+    String[] dictionary = new String[in.readInt()];
+    for (int i = 0; i < dictionary.length; i++) {
+      dictionary[i] = in.readUTF();
+    }
+    int count = in.readInt();
+    TitleIndex index = new TitleIndex(count);
+    for (int i = 0; i < count; i++) {
+      long id = in.readLong();
+      String[] terms = new String[in.readUnsignedShort()];
+      for (int t = 0; t < terms.length; t++) {
+        terms[t] = dictionary[in.readInt()];
+      }
+      index.putTerms(id, terms);
+    }
+    return index;
+  }
+
+  private void putTerms(long id, String[] terms) {
+    remove(id);
+    titles.put(id, terms);
+    totalLength += terms.length;
+    Map<String, int[]> termPositions = new HashMap<>();
+    for (int position = 0; position < terms.length; position++) {
+      int[] previous = termPositions.get(terms[position]);
+      int[] positions = previous == null ? new int[1] : Arrays.copyOf(previous,
+          previous.length + 1);
+      positions[positions.length - 1] = position;
+      termPositions.put(terms[position], positions);
+    }
+    termPositions.forEach((term, positions) ->
+        postings.computeIfAbsent(term, key -> new Postings()).add(id, positions, terms.length));
+  }
+
+  private boolean containsPhrases(long id, List<List<String>> phrases) {
+    for (List<String> phrase : phrases) {
+      if (!containsPhrase(id, phrase)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean containsPhrase(long id, List<String> phrase) {
+    List<int[]> positions = new ArrayList<>(phrase.size());
+    for (String term : phrase) {
+      Postings termPostings = postings.get(term);
+      int i = termPostings == null ? -1 : termPostings.indexOf(id);
+      if (i < 0) {
+        return false;
+      }
+      positions.add(termPostings.positions[i]);
+    }
+    for (int start : positions.isEmpty() ? new int[0] : positions.get(0)) {
+      boolean matches = true;
+      for (int t = 1; t < positions.size() && matches; t++) {
+        matches = Arrays.binarySearch(positions.get(t), start + t) >= 0;
+      }
+      if (matches) {
+        return true;
+      }
+    }
+    return positions.isEmpty();
+  }
+
+  /**
+   * Ids of the titles containing a term, ascending, the positions of the term in each and the
+   * number of terms of each title, which BM25 needs for every posting.
+   */
+  private static final class Postings {
+    private long[] ids = new long[1];
+    private int[][] positions = new int[1][];
+    private int[] lengths = new int[1];
+    private int size;
+
+    void add(long id, int[] termPositions, int length) {
+      int i = size == 0 || ids[size - 1] < id ? size : -indexOf(id) - 1;
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+        positions = Arrays.copyOf(positions, size * 2);
+        lengths = Arrays.copyOf(lengths, size * 2);
+      }
+      System.arraycopy(ids, i, ids, i + 1, size - i);
+      System.arraycopy(positions, i, positions, i + 1, size - i);
+      System.arraycopy(lengths, i, lengths, i + 1, size - i);
+      ids[i] = id;
+      positions[i] = termPositions;
+      lengths[i] = length;
+      size++;
+    }
+
+    void remove(long id) {
+      int i = indexOf(id);
+      if (i < 0) {
+        return;
+      }
+      System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+      System.arraycopy(positions, i + 1, positions, i, size - i - 1);
+      System.arraycopy(lengths, i + 1, lengths, i, size - i - 1);
+      positions[--size] = null;
+    }
+
+    int indexOf(long id) {
+      return Arrays.binarySearch(ids, 0, size, id);
+    }
+  }
+}
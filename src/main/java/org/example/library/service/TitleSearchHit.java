@@ -0,0 +1,27 @@
+package org.example.library.service;
+
+/**
+ * A book matching a title search and its BM25 score.
+ */
+public class TitleSearchHit {
+  private final long id;
+  private final double score;
+
+  public TitleSearchHit(long id, double score) {
+    this.id = id;
+    this.score = score;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  @Override
+  public String toString() {
+    return "TitleSearchHit{" + "id=" + id + ", score=" + score + '}';
+  }
+}
@@ -0,0 +1,194 @@
+package org.example.library.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.example.library.repositories.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Searches book titles in a {@link TitleIndex} held in memory. The index follows the book service
+ * like {@link AvailabilityService} does. With {@code library.title-index.file} set it is written
+ * there at shutdown together with a fingerprint of the book table (row count, greatest id and sum
+ * of versions, which any insert, update or delete changes) and read back at startup instead of
+ * being rebuilt, if the fingerprint still matches. Results are limited to
+ * {@code library.batch-read.max-size}, the most the batch read loading them accepts.
+ */
+@Service
+public class TitleSearchService {
+  private static final Logger LOG = LoggerFactory.getLogger(TitleSearchService.class);
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  private final TransactionTemplate transactionTemplate;
+  private final Path file;
+  private final int maxLimit;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private TitleIndex index = new TitleIndex();
+
+  public TitleSearchService(BookRepository bookRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${library.title-index.file:}") String file,
+      @Value("${library.batch-read.max-size:100}") int maxLimit) {
+    this.bookRepository = bookRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.file = file.isEmpty() ? null : Paths.get(file);
+    this.maxLimit = maxLimit;
+  }
+
+  @PostConstruct
+  public void load() {
+    if (file != null && Files.isRegularFile(file)) {
+      long started = System.currentTimeMillis();
+      try (DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(file)))) {
+        long[] fingerprint = {in.readLong(), in.readLong(), in.readLong()};
+        if (Arrays.equals(fingerprint, fingerprint())) {
+          TitleIndex loaded = TitleIndex.read(in);
+          replace(loaded);
+          LOG.info("Title index of {} books read from {} in {} ms", loaded.size(), file,
+              System.currentTimeMillis() - started);
+          return;
+        }
+        LOG.info("Title index in {} is out of date", file);
+      } catch (IOException e) {
+        LOG.warn("Title index in {} is not readable: {}", file, e.toString());
+      }
+    }
+    rebuild();
+  }
+
+  /**
+   * Replaces the index with the titles currently in the database.
+   */
+  public void rebuild() {
+    long started = System.currentTimeMillis();
+    TitleIndex rebuilt = transactionTemplate.execute(status -> {
+      TitleIndex titles = new TitleIndex();
+      try (Stream<Object[]> rows = bookRepository.streamAllTitles()) {
+        rows.forEach(row -> titles.put((Long) row[0], (String) row[1]));
+      }
+      return titles;
+    });
+    replace(rebuilt);
+    LOG.info("Title index of {} books built in {} ms", rebuilt.size(),
+        System.currentTimeMillis() - started);
+  }
+
+  /**
+   * Writes the index to {@code library.title-index.file}, through a temporary file so a crash
+   * midway leaves the previous one.
+   */
+  @PreDestroy
+  public void save() {
+    if (file == null) {
+      return;
+    }
+    long started = System.currentTimeMillis();
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    lock.readLock().lock();
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+        for (long value : fingerprint()) {
+          out.writeLong(value);
+        }
+        index.write(out);
+      }
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      LOG.info("Title index of {} books written to {} in {} ms", index.size(), file,
+          System.currentTimeMillis() - started);
+    } catch (IOException e) {
+      LOG.warn("Title index not written to {}: {}", file, e.toString());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Words of {@code query} are scored by BM25 and a title matches if it has any of them; words in
+   * double quotes form a phrase the title must contain as is.
+   *
+   * @return the best {@code limit} matches, higher score first
+   */
+  public List<TitleSearchHit> search(String query, int limit) {
+    if (query == null || query.trim().isEmpty()) {
+      throw new ValidationException("Search query is not specified");
+    }
+    if (limit <= 0 || limit > maxLimit) {
+      throw new ValidationException("Search limit is not between 1 and " + maxLimit);
+    }
+    List<String> terms = new ArrayList<>();
+    List<List<String>> phrases = new ArrayList<>();
+    String[] parts = query.split("\"", -1);
+    for (int i = 0; i < parts.length; i++) {
+      List<String> partTerms = TitleAnalyzer.terms(parts[i]);
+      if (i % 2 == 1 && partTerms.size() > 1) {
+        phrases.add(partTerms);
+      } else {
+        terms.addAll(partTerms);
+      }
+    }
+    if (terms.isEmpty() && phrases.isEmpty()) {
+      throw new ValidationException("Search query has no words");
+    }
+    lock.readLock().lock();
+    try {
+      return index.search(terms, phrases, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  void bookSaved(long bookId, String title) {
+    IndexChanges.afterCommit(lock, () -> index.put(bookId, title));
+  }
+
+  void bookDeleted(long bookId) {
+    IndexChanges.afterCommit(lock, () -> index.remove(bookId));
+  }
+
+  private long[] fingerprint() {
+    Object[] row = transactionTemplate.execute(status -> bookRepository.findFingerprint().get(0));
+    long[] fingerprint = new long[row.length];
+    for (int i = 0; i < row.length; i++) {
+      fingerprint[i] = row[i] == null ? 0 : ((Number) row[i]).longValue();
+    }
+    return fingerprint;
+  }
+
+  private void replace(TitleIndex replacement) {
+    lock.writeLock().lock();
+    try {
+      index = replacement;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+}
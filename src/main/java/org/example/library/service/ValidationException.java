@@ -0,0 +1,17 @@
+package org.example.library.service;
+
+/**
+ * Invalid client input. It is expected and answered with 400, so it skips capturing a stack
+ * trace, which would cost more than the rest of a rejected request.
+ */
+public class ValidationException extends IllegalArgumentException {
+
+  public ValidationException(String message) {
+    super(message);
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+}
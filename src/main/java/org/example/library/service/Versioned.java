@@ -0,0 +1,23 @@
+package org.example.library.service;
+
+/**
+ * A converted DTO together with the version of the entity it was converted from, so the ETag
+ * served with a cached DTO always describes that DTO.
+ */
+public class Versioned<D> {
+  private final D value;
+  private final EntityVersion entityVersion;
+
+  public Versioned(D value, EntityVersion entityVersion) {
+    this.value = value;
+    this.entityVersion = entityVersion;
+  }
+
+  public D getValue() {
+    return value;
+  }
+
+  public EntityVersion getEntityVersion() {
+    return entityVersion;
+  }
+}
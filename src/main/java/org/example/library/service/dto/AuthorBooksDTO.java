@@ -0,0 +1,48 @@
+package org.example.library.service.dto;
+
+import java.util.List;
+
+/**
+ * Books of one author: how many there are and the ids of the first of them, ascending. {@code next}
+ * is the cursor to pass as {@code after} to {@code /author/books} for the rest, or {@code null}
+ * when all of them are here.
+ */
+public class AuthorBooksDTO {
+  private final Long authorId;
+  private final int bookCount;
+  private final List<Long> bookIds;
+  private final Long next;
+
+  public AuthorBooksDTO(Long authorId, int bookCount, List<Long> bookIds, Long next) {
+    this.authorId = authorId;
+    this.bookCount = bookCount;
+    this.bookIds = bookIds;
+    this.next = next;
+  }
+
+  public Long getAuthorId() {
+    return authorId;
+  }
+
+  public int getBookCount() {
+    return bookCount;
+  }
+
+  public List<Long> getBookIds() {
+    return bookIds;
+  }
+
+  public Long getNext() {
+    return next;
+  }
+
+  @Override
+  public String toString() {
+    return "AuthorBooksDTO{" +
+        "authorId=" + authorId +
+        ", bookCount=" + bookCount +
+        ", bookIds=" + bookIds +
+        ", next=" + next +
+        '}';
+  }
+}
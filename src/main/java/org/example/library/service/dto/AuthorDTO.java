@@ -1,4 +1,4 @@
-package org.example.library.controller.dto;
+package org.example.library.service.dto;
 
 public class AuthorDTO {
   private final Long id;
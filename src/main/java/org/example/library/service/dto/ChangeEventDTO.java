@@ -0,0 +1,58 @@
+package org.example.library.service.dto;
+
+import java.time.Instant;
+
+public class ChangeEventDTO {
+  private final long offset;
+  private final String entity;
+  private final long entityId;
+  private final String operation;
+  private final Long version;
+  private final Instant time;
+
+  public ChangeEventDTO(long offset, String entity, long entityId, String operation,
+      Long version, Instant time) {
+    this.offset = offset;
+    this.entity = entity;
+    this.entityId = entityId;
+    this.operation = operation;
+    this.version = version;
+    this.time = time;
+  }
+
+  public long getOffset() {
+    return offset;
+  }
+
+  public String getEntity() {
+    return entity;
+  }
+
+  public long getEntityId() {
+    return entityId;
+  }
+
+  public String getOperation() {
+    return operation;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public Instant getTime() {
+    return time;
+  }
+
+  @Override
+  public String toString() {
+    return "ChangeEventDTO{" +
+        "offset=" + offset +
+        ", entity='" + entity + '\'' +
+        ", entityId=" + entityId +
+        ", operation='" + operation + '\'' +
+        ", version=" + version +
+        ", time=" + time +
+        '}';
+  }
+}
@@ -1,4 +1,4 @@
-package org.example.library.controller.dto;
+package org.example.library.service.dto;
 
 import java.time.LocalDate;
 import org.example.library.entities.Gender;
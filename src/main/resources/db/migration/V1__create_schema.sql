@@ -0,0 +1,57 @@
+-- PooledSequenceGenerator hands out ids in blocks of the sequence increment, so it must match
+-- spring.jpa.properties.library.id.increment_size.
+CREATE SEQUENCE AUTHOR_SEQ START WITH 1 INCREMENT BY ${id_increment_size};
+CREATE SEQUENCE BOOK_SEQ START WITH 1 INCREMENT BY ${id_increment_size};
+CREATE SEQUENCE READER_SEQ START WITH 1 INCREMENT BY ${id_increment_size};
+CREATE SEQUENCE TAKEN_BOOK_SEQ START WITH 1 INCREMENT BY ${id_increment_size};
+
+CREATE TABLE AUTHOR (
+  ID BIGINT NOT NULL,
+  FIRST_NAME VARCHAR(255) NOT NULL,
+  LAST_NAME VARCHAR(255) NOT NULL,
+  CONSTRAINT PK_AUTHOR PRIMARY KEY (ID),
+  CONSTRAINT UK_AUTHOR_NAME UNIQUE (FIRST_NAME, LAST_NAME)
+);
+CREATE INDEX IDX_AUTHOR_LAST_NAME ON AUTHOR (LAST_NAME);
+
+CREATE TABLE BOOK (
+  ID BIGINT NOT NULL,
+  PUBLISHED INTEGER NOT NULL,
+  TITLE VARCHAR(255) NOT NULL,
+  CONSTRAINT PK_BOOK PRIMARY KEY (ID),
+  CONSTRAINT UK_BOOK_TITLE_PUBLISHED UNIQUE (TITLE, PUBLISHED)
+);
+
+CREATE TABLE BOOK_AUTHORS (
+  BOOK_ID BIGINT NOT NULL,
+  AUTHORS_ID BIGINT NOT NULL,
+  CONSTRAINT FK_BOOK_AUTHORS_BOOK FOREIGN KEY (BOOK_ID) REFERENCES BOOK (ID),
+  CONSTRAINT FK_BOOK_AUTHORS_AUTHOR FOREIGN KEY (AUTHORS_ID) REFERENCES AUTHOR (ID)
+);
+CREATE INDEX IDX_BOOK_AUTHORS_BOOK ON BOOK_AUTHORS (BOOK_ID);
+CREATE INDEX IDX_BOOK_AUTHORS_AUTHOR ON BOOK_AUTHORS (AUTHORS_ID);
+
+CREATE TABLE READER (
+  ID BIGINT NOT NULL,
+  BIRTHDAY DATE NOT NULL,
+  FIRST_NAME VARCHAR(255) NOT NULL,
+  GENDER VARCHAR(255),
+  LAST_NAME VARCHAR(255) NOT NULL,
+  MIDDLE_NAME VARCHAR(255) NOT NULL,
+  CONSTRAINT PK_READER PRIMARY KEY (ID),
+  CONSTRAINT UK_READER_NAME_BIRTHDAY UNIQUE (FIRST_NAME, MIDDLE_NAME, LAST_NAME, BIRTHDAY)
+);
+CREATE INDEX IDX_READER_LAST_NAME ON READER (LAST_NAME);
+
+CREATE TABLE TAKEN_BOOK (
+  ID BIGINT NOT NULL,
+  DATE_FROM DATE NOT NULL,
+  DATE_TO DATE,
+  BOOK_ID BIGINT NOT NULL,
+  READER_ID BIGINT NOT NULL,
+  CONSTRAINT PK_TAKEN_BOOK PRIMARY KEY (ID),
+  CONSTRAINT FK_TAKEN_BOOK_BOOK FOREIGN KEY (BOOK_ID) REFERENCES BOOK (ID),
+  CONSTRAINT FK_TAKEN_BOOK_READER FOREIGN KEY (READER_ID) REFERENCES READER (ID)
+);
+CREATE INDEX IDX_TAKEN_BOOK_READER_DATE_FROM ON TAKEN_BOOK (READER_ID, DATE_FROM);
+CREATE INDEX IDX_TAKEN_BOOK_BOOK_DATE_FROM ON TAKEN_BOOK (BOOK_ID, DATE_FROM);
@@ -0,0 +1,9 @@
+-- Optimistic locking version and time of the last change, served as ETag and Last-Modified.
+ALTER TABLE AUTHOR ADD COLUMN VERSION BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE AUTHOR ADD COLUMN LAST_MODIFIED TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE BOOK ADD COLUMN VERSION BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE BOOK ADD COLUMN LAST_MODIFIED TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE READER ADD COLUMN VERSION BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE READER ADD COLUMN LAST_MODIFIED TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE TAKEN_BOOK ADD COLUMN VERSION BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE TAKEN_BOOK ADD COLUMN LAST_MODIFIED TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
@@ -0,0 +1,4 @@
+-- Books of an author are read in book id order, straight from the index. A database created by
+-- hibernate before the migrations and baselined as version 1 has no IDX_BOOK_AUTHORS_AUTHOR.
+DROP INDEX IF EXISTS IDX_BOOK_AUTHORS_AUTHOR;
+CREATE INDEX IF NOT EXISTS IDX_BOOK_AUTHORS_AUTHOR_BOOK ON BOOK_AUTHORS (AUTHORS_ID, BOOK_ID);
@@ -0,0 +1,10 @@
+-- Outbox of entity changes, written in the transaction of the change and read as a feed by id.
+CREATE TABLE CHANGE_EVENT (
+  ID BIGINT NOT NULL,
+  ENTITY VARCHAR(16) NOT NULL,
+  ENTITY_ID BIGINT NOT NULL,
+  OPERATION VARCHAR(8) NOT NULL,
+  ENTITY_VERSION BIGINT,
+  CREATED TIMESTAMP NOT NULL,
+  CONSTRAINT PK_CHANGE_EVENT PRIMARY KEY (ID)
+);
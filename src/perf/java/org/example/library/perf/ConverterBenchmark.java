@@ -0,0 +1,63 @@
+package org.example.library.perf;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.example.library.controller.converter.BookConverter;
+import org.example.library.controller.converter.TakenBookConverter;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.entities.TakenBook;
+import org.example.library.service.dto.BookDTO;
+import org.example.library.service.dto.TakenBookDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+  private final BookConverter bookConverter = new BookConverter();
+  private final TakenBookConverter takenBookConverter = new TakenBookConverter();
+
+  private Book book;
+  private TakenBook takenBook;
+
+  @Setup
+  public void setUp() {
+    Author first = new Author("Ilya", "Ilf");
+    first.setId(1L);
+    Author second = new Author("Evgeny", "Petrov");
+    second.setId(2L);
+    book = new Book("The Twelve Chairs", Arrays.asList(first, second), 1928);
+    book.setId(10L);
+    Reader reader = new Reader("Ivan", "Ivanovich", "Ivanov", Gender.MALE,
+        LocalDate.of(1990, 1, 1));
+    reader.setId(20L);
+    takenBook = new TakenBook(reader, book, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15));
+    takenBook.setId(30L);
+  }
+
+  @Benchmark
+  public BookDTO book() {
+    return bookConverter.apply(book);
+  }
+
+  @Benchmark
+  public TakenBookDTO takenBook() {
+    return takenBookConverter.apply(takenBook);
+  }
+}
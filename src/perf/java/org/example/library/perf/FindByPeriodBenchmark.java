@@ -0,0 +1,83 @@
+package org.example.library.perf;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.example.library.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Latency of the {@code /takenBook/findByPeriod} report through the dispatcher, on an in-memory
+ * H2 filled by {@link LibraryDataGenerator} with about {@code loans} loans over ten years. Books
+ * and readers grow with the volume, so a reader's history keeps its size and the time shows what
+ * the table size costs. Readers are drawn by popularity and the period is the same 30 days within
+ * the last year as in {@link LoadTest}; JMH reports the p50 and p99 of the samples. Ten million
+ * loans need about 8 GB of heap and take several minutes to generate:
+ * {@code -Djmh.args="FindByPeriodBenchmark -p loans=10000000"}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx10g")
+@State(Scope.Benchmark)
+public class FindByPeriodBenchmark {
+  private static final int YEARS = 10;
+  private static final int LIMIT = 100;
+
+  @Param({"100000", "1000000", "10000000"})
+  private int loans;
+
+  private ConfigurableApplicationContext context;
+  private MockMvc mockMvc;
+  private LibraryData data;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(Main.class).run(
+        "--spring.datasource.url=jdbc:h2:mem:perf;LOCK_TIMEOUT=10000",
+        "--spring.jpa.show-sql=false",
+        "--library.h2.tcp.enabled=false",
+        "--logging.level.root=WARN");
+    mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    int books = Math.max(1_000, loans / 20);
+    data = new LibraryDataGenerator(context).generate(new LibraryVolume(books / 10, books, 3,
+        Math.max(1_000, loans / 100), YEARS, loans / YEARS, 42L));
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public int findByPeriod() throws Exception {
+    Random random = ThreadLocalRandom.current();
+    LocalDate from = data.getHistoryEnd().minusDays(30 + random.nextInt(365));
+    return mockMvc.perform(get("/takenBook/findByPeriod")
+        .param("readerId", String.valueOf(data.activeReader(random)))
+        .param("from", from.toString())
+        .param("to", from.plusDays(30).toString())
+        .param("limit", String.valueOf(LIMIT)))
+        .andReturn().getResponse().getStatus();
+  }
+}
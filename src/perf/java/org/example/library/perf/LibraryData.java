@@ -0,0 +1,78 @@
+package org.example.library.perf;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Ids created by {@link LibraryDataGenerator}. Books and readers are ordered by popularity, so
+ * drawing them with the same skew as the history keeps the load on the hot rows.
+ */
+public class LibraryData {
+  private static final double SKEW = 1.0;
+
+  private final long[] authorIds;
+  private final long[] bookIds;
+  private final long[] readerIds;
+  private final long[] returnedBookIds;
+  private final int lastNames;
+  private final LocalDate historyStart;
+  private final LocalDate historyEnd;
+  private final ZipfSampler books;
+  private final ZipfSampler readers;
+
+  LibraryData(long[] authorIds, long[] bookIds, long[] readerIds, long[] returnedBookIds,
+      int lastNames, LocalDate historyStart, LocalDate historyEnd) {
+    this.authorIds = authorIds;
+    this.bookIds = bookIds;
+    this.readerIds = readerIds;
+    this.returnedBookIds = returnedBookIds;
+    this.lastNames = lastNames;
+    this.historyStart = historyStart;
+    this.historyEnd = historyEnd;
+    this.books = new ZipfSampler(bookIds.length, SKEW);
+    this.readers = new ZipfSampler(readerIds.length, SKEW);
+  }
+
+  static ZipfSampler bookSampler(int books) {
+    return new ZipfSampler(books, SKEW);
+  }
+
+  static ZipfSampler readerSampler(int readers) {
+    return new ZipfSampler(readers, SKEW);
+  }
+
+  public long author(Random random) {
+    return authorIds[random.nextInt(authorIds.length)];
+  }
+
+  public long popularBook(Random random) {
+    return bookIds[books.next(random)];
+  }
+
+  /**
+   * @return one of the books not out today, which can be taken for any future period
+   */
+  public long returnedBook(int index) {
+    return returnedBookIds[index % returnedBookIds.length];
+  }
+
+  public int returnedBookCount() {
+    return returnedBookIds.length;
+  }
+
+  public long activeReader(Random random) {
+    return readerIds[readers.next(random)];
+  }
+
+  public String lastName(Random random) {
+    return LibraryDataGenerator.lastName(random.nextInt(lastNames));
+  }
+
+  public LocalDate getHistoryStart() {
+    return historyStart;
+  }
+
+  public LocalDate getHistoryEnd() {
+    return historyEnd;
+  }
+}
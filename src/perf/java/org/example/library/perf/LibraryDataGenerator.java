@@ -0,0 +1,276 @@
+package org.example.library.perf;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.example.library.entities.Gender;
+import org.example.library.service.AuthorBooksService;
+import org.example.library.service.AvailabilityService;
+import org.example.library.service.TitleSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Fills the database with a synthetic library through JDBC batches, bypassing the services:
+ * authors, books with one or more authors, readers and years of loan history ending today.
+ * Circulation is skewed like in a real library: books, readers and prolific authors are drawn
+ * from Zipf distributions, more loans start on Saturdays than on Sundays, and loans not returned
+ * by today have no return date. Loans of one book never overlap. Titles are one to five words
+ * of a synthetic vocabulary, also drawn by Zipf, so title search sees common and rare terms. Ids
+ * continue after the rows already stored; the id sequences and the in-memory indexes are updated
+ * at the end.
+ */
+public class LibraryDataGenerator {
+  private static final Logger LOG = LoggerFactory.getLogger(LibraryDataGenerator.class);
+
+  private static final int BATCH_SIZE = 1000;
+  private static final double[] WEEKDAY_FACTOR = {1.0, 1.0, 1.0, 1.1, 1.2, 1.6, 0.4};
+  private static final String[] SYLLABLES = {"ka", "ro", "mi", "te", "lu", "sa", "no", "vi", "de",
+      "po", "ra", "li", "ne", "to", "ma", "gu", "zo", "be", "fi", "ya"};
+  static final int TITLE_WORDS = 20_000;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final AvailabilityService availabilityService;
+  private final TitleSearchService titleSearchService;
+  private final AuthorBooksService authorBooksService;
+
+  public LibraryDataGenerator(ApplicationContext context) {
+    this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+    this.availabilityService = context.getBean(AvailabilityService.class);
+    this.titleSearchService = context.getBean(TitleSearchService.class);
+    this.authorBooksService = context.getBean(AuthorBooksService.class);
+  }
+
+  static String lastName(int index) {
+    return "Surname" + index;
+  }
+
+  /**
+   * @return word {@code rank} of the title vocabulary: rank written in base 20 with a syllable per
+   *     digit, at least two syllables long
+   */
+  static String titleWord(int rank) {
+    StringBuilder word = new StringBuilder();
+    for (int rest = rank + SYLLABLES.length; rest > 0; rest /= SYLLABLES.length) {
+      word.append(SYLLABLES[rest % SYLLABLES.length]);
+    }
+    return word.toString();
+  }
+
+  public LibraryData generate(LibraryVolume volume) {
+    long started = System.currentTimeMillis();
+    Random random = new Random(volume.getSeed());
+    int lastNames = Math.max(1, volume.getAuthors() / 4);
+    LocalDate historyEnd = LocalDate.now();
+    LocalDate historyStart = historyEnd.minusYears(volume.getYears());
+
+    long[] authorIds = insertAuthors(volume.getAuthors(), lastNames);
+    long[] bookIds = insertBooks(volume, authorIds, random);
+    long[] readerIds = insertReaders(volume.getReaders(), lastNames, random);
+    long[] busyUntil = new long[bookIds.length];
+    long loans = insertLoans(volume, bookIds, readerIds, busyUntil, historyStart, historyEnd,
+        random);
+    long lastDay = historyEnd.toEpochDay();
+    long[] returnedBookIds = IntStream.range(0, bookIds.length)
+        .filter(book -> busyUntil[book] <= lastDay)
+        .mapToLong(book -> bookIds[book])
+        .toArray();
+
+    restartSequence("AUTHOR_SEQ", "AUTHOR");
+    restartSequence("BOOK_SEQ", "BOOK");
+    restartSequence("READER_SEQ", "READER");
+    restartSequence("TAKEN_BOOK_SEQ", "TAKEN_BOOK");
+    availabilityService.rebuild();
+    titleSearchService.rebuild();
+    authorBooksService.rebuild();
+    LOG.info("Generated {} authors, {} books, {} readers and {} loans in {} ms",
+        authorIds.length, bookIds.length, readerIds.length, loans,
+        System.currentTimeMillis() - started);
+    return new LibraryData(authorIds, bookIds, readerIds, returnedBookIds, lastNames,
+        historyStart, historyEnd);
+  }
+
+  private long[] insertAuthors(int count, int lastNames) {
+    long[] ids = nextIds("AUTHOR", count);
+    List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < count; i++) {
+      rows.add(new Object[] {ids[i], "Author" + ids[i], lastName(i % lastNames)});
+      flushIfFull("INSERT INTO author (id, first_name, last_name) VALUES (?, ?, ?)", rows);
+    }
+    flush("INSERT INTO author (id, first_name, last_name) VALUES (?, ?, ?)", rows);
+    return ids;
+  }
+
+  /**
+   * The first author of a book is drawn by popularity, so a few authors write many books.
+   */
+  private long[] insertBooks(LibraryVolume volume, long[] authorIds, Random random) {
+    long[] ids = nextIds("BOOK", volume.getBooks());
+    ZipfSampler prolificAuthors = new ZipfSampler(authorIds.length, 0.8);
+    ZipfSampler words = titleWordSampler();
+    Set<String> titles = new HashSet<>();
+    List<Object[]> books = new ArrayList<>(BATCH_SIZE);
+    List<Object[]> bookAuthors = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < ids.length; i++) {
+      int published = 1900 + random.nextInt(125);
+      String title;
+      do {
+        title = title(words, random);
+      } while (!titles.add(title + published));
+      books.add(new Object[] {ids[i], title, published});
+      long[] authors = new long[authorsOfBook(volume.getMaxAuthorsPerBook(), authorIds.length,
+          random)];
+      for (int a = 0; a < authors.length; a++) {
+        long authorId;
+        do {
+          authorId = a == 0 ? authorIds[prolificAuthors.next(random)]
+              : authorIds[random.nextInt(authorIds.length)];
+        } while (contains(authors, a, authorId));
+        authors[a] = authorId;
+        bookAuthors.add(new Object[] {ids[i], authorId});
+      }
+      flushIfFull("INSERT INTO book (id, title, published) VALUES (?, ?, ?)", books);
+      if (books.isEmpty()) {
+        flush("INSERT INTO book_authors (book_id, authors_id) VALUES (?, ?)", bookAuthors);
+      }
+    }
+    flush("INSERT INTO book (id, title, published) VALUES (?, ?, ?)", books);
+    flush("INSERT INTO book_authors (book_id, authors_id) VALUES (?, ?)", bookAuthors);
+    return ids;
+  }
+
+  private long[] insertReaders(int count, int lastNames, Random random) {
+    long[] ids = nextIds("READER", count);
+    Gender[] genders = Gender.values();
+    String sql = "INSERT INTO reader (id, first_name, middle_name, last_name, gender, birthday)"
+        + " VALUES (?, ?, ?, ?, ?, ?)";
+    List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < count; i++) {
+      LocalDate birthday = LocalDate.of(1950, 1, 1).plusDays(random.nextInt(60 * 365));
+      rows.add(new Object[] {ids[i], "Reader" + ids[i], "Middlename",
+          lastName(i % lastNames), genders[random.nextInt(genders.length)].name(),
+          Date.valueOf(birthday)});
+      flushIfFull(sql, rows);
+    }
+    flush(sql, rows);
+    return ids;
+  }
+
+  /**
+   * Walks the history day by day. Each loan picks a book by popularity and takes it for one to
+   * four weeks, sometimes longer; when the picked books are all out the demand goes unmet.
+   */
+  private long insertLoans(LibraryVolume volume, long[] bookIds, long[] readerIds,
+      long[] busyUntil, LocalDate historyStart, LocalDate historyEnd, Random random) {
+    String sql = "INSERT INTO taken_book (id, reader_id, book_id, date_from, date_to)"
+        + " VALUES (?, ?, ?, ?, ?)";
+    ZipfSampler books = LibraryData.bookSampler(bookIds.length);
+    ZipfSampler readers = LibraryData.readerSampler(readerIds.length);
+    double loansPerDay = volume.getLoansPerYear() / 365.0;
+    long nextId = maxId("TAKEN_BOOK") + 1;
+    long count = 0;
+    List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+    long lastDay = historyEnd.toEpochDay();
+    for (long day = historyStart.toEpochDay(); day < lastDay; day++) {
+      LocalDate date = LocalDate.ofEpochDay(day);
+      double expected = loansPerDay * WEEKDAY_FACTOR[date.getDayOfWeek().getValue() - 1];
+      int loans = (int) Math.round(expected * (0.8 + 0.4 * random.nextDouble()));
+      for (int i = 0; i < loans; i++) {
+        int book = freeBook(books, busyUntil, day, random);
+        if (book < 0) {
+          continue;
+        }
+        long returned = day + 7 + random.nextInt(22)
+            + (random.nextInt(20) == 0 ? random.nextInt(60) : 0);
+        busyUntil[book] = returned;
+        rows.add(new Object[] {nextId++, readerIds[readers.next(random)], bookIds[book],
+            Date.valueOf(date), returned > lastDay ? null
+            : Date.valueOf(LocalDate.ofEpochDay(returned))});
+        count++;
+        flushIfFull(sql, rows);
+      }
+    }
+    flush(sql, rows);
+    return count;
+  }
+
+  static ZipfSampler titleWordSampler() {
+    return new ZipfSampler(TITLE_WORDS, 1.0);
+  }
+
+  private static String title(ZipfSampler words, Random random) {
+    StringBuilder title = new StringBuilder(titleWord(words.next(random)));
+    for (int count = 1 + random.nextInt(5); count > 1; count--) {
+      title.append(' ').append(titleWord(words.next(random)));
+    }
+    title.setCharAt(0, Character.toUpperCase(title.charAt(0)));
+    return title.toString();
+  }
+
+  private static int freeBook(ZipfSampler books, long[] busyUntil, long day, Random random) {
+    for (int attempt = 0; attempt < 5; attempt++) {
+      int book = books.next(random);
+      if (busyUntil[book] <= day) {
+        return book;
+      }
+    }
+    return -1;
+  }
+
+  private static int authorsOfBook(int maxAuthorsPerBook, int authors, Random random) {
+    int count = 1;
+    while (count < Math.min(maxAuthorsPerBook, authors) && random.nextInt(4) == 0) {
+      count++;
+    }
+    return count;
+  }
+
+  private static boolean contains(long[] ids, int length, long id) {
+    for (int i = 0; i < length; i++) {
+      if (ids[i] == id) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private long[] nextIds(String table, int count) {
+    long first = maxId(table) + 1;
+    long[] ids = new long[count];
+    Arrays.setAll(ids, i -> first + i);
+    return ids;
+  }
+
+  /**
+   * Moves the id sequence past the ids inserted here, so entities saved later don't collide.
+   */
+  private void restartSequence(String sequence, String table) {
+    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId(table) + 1));
+  }
+
+  private long maxId(String table) {
+    Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+    return maxId == null ? 0 : maxId;
+  }
+
+  private void flushIfFull(String sql, List<Object[]> rows) {
+    if (rows.size() >= BATCH_SIZE) {
+      flush(sql, rows);
+    }
+  }
+
+  private void flush(String sql, List<Object[]> rows) {
+    if (!rows.isEmpty()) {
+      jdbcTemplate.batchUpdate(sql, rows);
+      rows.clear();
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package org.example.library.perf;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * How much data {@link LibraryDataGenerator} creates, read from {@code perf.*} properties.
+ */
+public class LibraryVolume {
+  private final int authors;
+  private final int books;
+  private final int maxAuthorsPerBook;
+  private final int readers;
+  private final int years;
+  private final int loansPerYear;
+  private final long seed;
+
+  public LibraryVolume(int authors, int books, int maxAuthorsPerBook, int readers, int years,
+      int loansPerYear, long seed) {
+    this.authors = authors;
+    this.books = books;
+    this.maxAuthorsPerBook = maxAuthorsPerBook;
+    this.readers = readers;
+    this.years = years;
+    this.loansPerYear = loansPerYear;
+    this.seed = seed;
+  }
+
+  public static LibraryVolume from(Environment environment) {
+    return new LibraryVolume(
+        environment.getProperty("perf.authors", Integer.class, 2_000),
+        environment.getProperty("perf.books", Integer.class, 20_000),
+        environment.getProperty("perf.max-authors-per-book", Integer.class, 3),
+        environment.getProperty("perf.readers", Integer.class, 10_000),
+        environment.getProperty("perf.years", Integer.class, 3),
+        environment.getProperty("perf.loans-per-year", Integer.class, 100_000),
+        environment.getProperty("perf.seed", Long.class, 42L));
+  }
+
+  public int getAuthors() {
+    return authors;
+  }
+
+  public int getBooks() {
+    return books;
+  }
+
+  public int getMaxAuthorsPerBook() {
+    return maxAuthorsPerBook;
+  }
+
+  public int getReaders() {
+    return readers;
+  }
+
+  public int getYears() {
+    return years;
+  }
+
+  public int getLoansPerYear() {
+    return loansPerYear;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  @Override
+  public String toString() {
+    return "LibraryVolume{" +
+        "authors=" + authors +
+        ", books=" + books +
+        ", maxAuthorsPerBook=" + maxAuthorsPerBook +
+        ", readers=" + readers +
+        ", years=" + years +
+        ", loansPerYear=" + loansPerYear +
+        ", seed=" + seed +
+        '}';
+  }
+}
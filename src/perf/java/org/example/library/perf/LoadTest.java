@@ -0,0 +1,273 @@
+package org.example.library.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.example.library.Main;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+/**
+ * Starts the application on a random port, fills it with {@link LibraryDataGenerator} and sends a
+ * weighted mix of read and write requests at {@code perf.rate} requests per second, then prints
+ * latency percentiles per endpoint and writes their distributions to {@code target/load}.
+ * Requests are sent open loop: latency is counted from the moment a request was due, not from
+ * when a free worker sent it, so a stalled server shows up in the tail instead of quietly
+ * lowering the load. Arguments are Spring Boot ones, {@code --perf.rate=500} or any application
+ * property.
+ */
+public class LoadTest {
+  private static final LocalDate FUTURE_START = LocalDate.of(2100, 1, 1);
+
+  private final LibraryData data;
+  private final String baseUrl;
+  private final List<Operation> operations = new ArrayList<>();
+  private final AtomicLong number = new AtomicLong();
+  private final AtomicLong futureSlot = new AtomicLong();
+  private int totalWeight;
+
+  LoadTest(LibraryData data, String baseUrl) {
+    this.data = data;
+    this.baseUrl = baseUrl;
+    add("GET /author", 10, random -> get("/author?id=" + data.author(random)));
+    add("GET /author/findByLastName", 5, random ->
+        get("/author/findByLastName?limit=50&lastName=" + data.lastName(random)));
+    add("GET /book", 20, random -> get("/book?id=" + data.popularBook(random)));
+    add("GET /book/availability", 15, random -> {
+      LocalDate from = data.getHistoryEnd().plusDays(random.nextInt(30));
+      return get("/book/availability?id=" + data.popularBook(random) + "&from=" + from
+          + "&to=" + from.plusDays(14));
+    });
+    add("GET /book/available", 3, random -> {
+      LocalDate from = data.getHistoryEnd().plusDays(random.nextInt(30));
+      return get("/book/available?limit=100&from=" + from + "&to=" + from.plusDays(14));
+    });
+    add("GET /reader", 10, random -> get("/reader?id=" + data.activeReader(random)));
+    add("GET /takenBook/findByPeriod", 15, random -> {
+      LocalDate from = data.getHistoryEnd().minusDays(30 + random.nextInt(365));
+      return get("/takenBook/findByPeriod?limit=100&readerId=" + data.activeReader(random)
+          + "&from=" + from + "&to=" + from.plusDays(30));
+    });
+    add("POST /reader", 5, random -> post("/reader", "{\"firstName\":\"Load\","
+        + "\"middleName\":\"Load\",\"lastName\":\"Reader" + number.incrementAndGet() + "\","
+        + "\"gender\":\"FEMALE\",\"birthday\":\"1990-01-01\"}"));
+    add("POST /takenBook", 12, random -> post("/takenBook", futureLoan(random)));
+    add("POST /takenBook/async", 12, random -> post("/takenBook/async", futureLoan(random)));
+    add("POST /takenBook/batch", 5, random -> {
+      StringBuilder body = new StringBuilder("[");
+      for (int i = 0; i < 20; i++) {
+        body.append(i == 0 ? "" : ",").append(futureLoan(random));
+      }
+      return post("/takenBook/batch", body.append(']').toString());
+    });
+  }
+
+  public static void main(String[] args) throws Exception {
+    List<String> arguments = new ArrayList<>();
+    arguments.add("--server.port=0");
+    arguments.add("--spring.datasource.url=jdbc:h2:mem:load;LOCK_TIMEOUT=10000");
+    arguments.add("--spring.jpa.show-sql=false");
+    arguments.add("--library.h2.tcp.enabled=false");
+    arguments.add("--library.taken-book.async.enabled=true");
+    arguments.add("--logging.level.root=WARN");
+    arguments.add("--logging.level.org.example.library.perf=INFO");
+    for (String arg : args) {
+      arguments.add(arg);
+    }
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class)
+        .run(arguments.toArray(new String[0]))) {
+      Environment environment = context.getEnvironment();
+      LibraryVolume volume = LibraryVolume.from(environment);
+      System.out.println("Generating " + volume);
+      LibraryData data = new LibraryDataGenerator(context).generate(volume);
+      String baseUrl = "http://localhost:" + environment.getProperty("local.server.port")
+          + environment.getProperty("server.servlet.context-path", "");
+      new LoadTest(data, baseUrl).run(
+          environment.getProperty("perf.rate", Integer.class, 200),
+          environment.getProperty("perf.warmup", Integer.class, 10),
+          environment.getProperty("perf.duration", Integer.class, 30),
+          environment.getProperty("perf.threads", Integer.class, 32),
+          volume.getSeed());
+    }
+  }
+
+  void run(int rate, int warmupSeconds, int durationSeconds, int threads, long seed)
+      throws InterruptedException, IOException {
+    System.setProperty("http.maxConnections", String.valueOf(threads));
+    System.out.println("Sending " + rate + " requests/s for " + warmupSeconds + " s of warmup and "
+        + durationSeconds + " s of measurement");
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    Random random = new Random(seed);
+    long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+    long start = System.nanoTime();
+    long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+    long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+    for (long due = start; due < end; due += interval) {
+      long wait = due - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      Operation operation = pick(random);
+      Request request = operation.requests.apply(random);
+      boolean measured = due >= measureFrom;
+      long dueAt = due;
+      executor.execute(() -> {
+        boolean ok = send(request);
+        if (measured) {
+          operation.record(System.nanoTime() - dueAt, ok);
+        }
+      });
+    }
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+    report(durationSeconds);
+  }
+
+  private void report(int durationSeconds) throws IOException {
+    File directory = new File("target/load");
+    directory.mkdirs();
+    Histogram total = new Histogram(3);
+    long totalErrors = 0;
+    System.out.printf("%-28s %8s %7s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors",
+        "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    for (Operation operation : operations) {
+      print(operation.name, operation.latencies, operation.errors.get());
+      total.add(operation.latencies);
+      totalErrors += operation.errors.get();
+      String file = operation.name.replaceAll("[^A-Za-z]+", "_") + ".hgrm";
+      try (PrintStream out = new PrintStream(new File(directory, file), "UTF-8")) {
+        operation.latencies.outputPercentileDistribution(out, 1000.0);
+      }
+    }
+    print("total", total, totalErrors);
+    System.out.printf("Throughput: %.1f requests/s%n",
+        total.getTotalCount() / (double) durationSeconds);
+  }
+
+  private static void print(String name, Histogram latencies, long errors) {
+    System.out.printf("%-28s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+        latencies.getTotalCount(), errors,
+        latencies.getValueAtPercentile(50) / 1000.0,
+        latencies.getValueAtPercentile(90) / 1000.0,
+        latencies.getValueAtPercentile(99) / 1000.0,
+        latencies.getValueAtPercentile(99.9) / 1000.0,
+        latencies.getMaxValue() / 1000.0);
+  }
+
+  private void add(String name, int weight, Function<Random, Request> requests) {
+    operations.add(new Operation(name, weight, requests));
+    totalWeight += weight;
+  }
+
+  private Operation pick(Random random) {
+    int value = random.nextInt(totalWeight);
+    for (Operation operation : operations) {
+      value -= operation.weight;
+      if (value < 0) {
+        return operation;
+      }
+    }
+    throw new IllegalStateException("Weights changed");
+  }
+
+  /**
+   * A one day loan in the future that can't overlap any other: slots go round the books that are
+   * not out, a day further each round.
+   */
+  private String futureLoan(Random random) {
+    long slot = futureSlot.getAndIncrement();
+    LocalDate from = FUTURE_START.plusDays(slot / data.returnedBookCount());
+    return "{\"readerId\":" + data.activeReader(random) + ",\"bookId\":"
+        + data.returnedBook((int) (slot % data.returnedBookCount())) + ",\"dateFrom\":\"" + from
+        + "\",\"dateTo\":\"" + from.plusDays(1) + "\"}";
+  }
+
+  private boolean send(Request request) {
+    try {
+      HttpURLConnection connection =
+          (HttpURLConnection) new URL(baseUrl + request.path).openConnection();
+      connection.setRequestMethod(request.method);
+      if (request.body != null) {
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+          out.write(request.body.getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      int status = connection.getResponseCode();
+      // reading the body to the end lets the connection be reused
+      try (InputStream in = status < 400 ? connection.getInputStream()
+          : connection.getErrorStream()) {
+        if (in != null) {
+          byte[] buffer = new byte[8192];
+          while (in.read(buffer) >= 0) {
+            // drain
+          }
+        }
+      }
+      return status < 400;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static Request get(String path) {
+    return new Request("GET", path, null);
+  }
+
+  private static Request post(String path, String body) {
+    return new Request("POST", path, body);
+  }
+
+  private static class Request {
+    final String method;
+    final String path;
+    final String body;
+
+    Request(String method, String path, String body) {
+      this.method = method;
+      this.path = path;
+      this.body = body;
+    }
+  }
+
+  private static class Operation {
+    final String name;
+    final int weight;
+    final Function<Random, Request> requests;
+    // microseconds
+    final Histogram latencies = new ConcurrentHistogram(3);
+    final AtomicLong errors = new AtomicLong();
+
+    Operation(String name, int weight, Function<Random, Request> requests) {
+      this.name = name;
+      this.weight = weight;
+      this.requests = requests;
+    }
+
+    void record(long nanos, boolean ok) {
+      latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+      if (!ok) {
+        errors.incrementAndGet();
+      }
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package org.example.library.perf;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.entities.TakenBook;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BatchItemResult;
+import org.example.library.service.BookService;
+import org.example.library.service.ReaderService;
+import org.example.library.service.TakenBookBatchItem;
+import org.example.library.service.TakenBookBatchService;
+import org.example.library.service.TakenBookService;
+import org.example.library.service.dto.TakenBookDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Calls the services of a running application on an in-memory H2 seeded with {@code books}
+ * books, each taken {@code loansPerBook} times by random readers. Writes keep adding rows for the
+ * whole run, so compare results of runs with the same iteration settings. {@code idBlockSize} is
+ * the number of ids one sequence call reserves ({@code library.id.increment_size}): 1 is a
+ * sequence call per insert as before the pooled generators, 50 the default; the create benchmarks
+ * show the difference, e.g. {@code -Djmh.args="ServiceBenchmark.create -p idBlockSize=1,50"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+  private static final LocalDate HISTORY_START = LocalDate.of(2020, 1, 1);
+  private static final LocalDate FUTURE_START = LocalDate.of(2100, 1, 1);
+  private static final int BATCH_SIZE = 100;
+  private static final String INVALID_READER = "{\"middleName\":\"Perf\",\"lastName\":\"Reader\","
+      + "\"gender\":\"FEMALE\",\"birthday\":\"1990-01-01\"}";
+
+  @Param("2000")
+  private int books;
+
+  @Param("10")
+  private int loansPerBook;
+
+  @Param({"1", "50"})
+  private int idBlockSize;
+
+  private ConfigurableApplicationContext context;
+  private AuthorService authorService;
+  private BookService bookService;
+  private ReaderService readerService;
+  private TakenBookService takenBookService;
+  private TakenBookBatchService takenBookBatchService;
+  private MockMvc mockMvc;
+
+  private long[] authorIds;
+  private long[] bookIds;
+  private long[] readerIds;
+  private long[] takenBookIds;
+  private final AtomicLong number = new AtomicLong();
+  private final AtomicLong futureSlot = new AtomicLong();
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(Main.class).run(
+        "--spring.datasource.url=jdbc:h2:mem:perf;LOCK_TIMEOUT=10000",
+        "--spring.jpa.show-sql=false",
+        "--library.h2.tcp.enabled=false",
+        "--spring.jpa.properties.library.id.increment_size=" + idBlockSize,
+        "--logging.level.root=WARN");
+    authorService = context.getBean(AuthorService.class);
+    bookService = context.getBean(BookService.class);
+    readerService = context.getBean(ReaderService.class);
+    takenBookService = context.getBean(TakenBookService.class);
+    takenBookBatchService = context.getBean(TakenBookBatchService.class);
+    mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    seed();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Author createAuthor() {
+    return authorService.createAuthor("Perf", "Author " + number.incrementAndGet());
+  }
+
+  @Benchmark
+  public Author findAuthorById() {
+    return authorService.findById(random(authorIds));
+  }
+
+  @Benchmark
+  public Book createBook() {
+    return bookService.createBook("Perf book " + number.incrementAndGet(),
+        Collections.singleton(random(authorIds)), 2000);
+  }
+
+  @Benchmark
+  public Book findBookById() {
+    return bookService.findById(random(bookIds));
+  }
+
+  @Benchmark
+  public Reader createReader() {
+    return readerService.createReader("Perf", "Perf", "Reader " + number.incrementAndGet(),
+        Gender.FEMALE, LocalDate.of(1990, 1, 1));
+  }
+
+  @Benchmark
+  public Reader findReaderById() {
+    return readerService.findById(random(readerIds));
+  }
+
+  /**
+   * The 400 path through the dispatcher: JSON is read, validation fails before any statement is
+   * issued, and {@code RestExceptionHandler} logs the error through {@code RateLimitedLog} and
+   * writes the response.
+   */
+  @Benchmark
+  public int rejectInvalidReader() throws Exception {
+    return mockMvc.perform(post("/reader").contentType(MediaType.APPLICATION_JSON)
+        .content(INVALID_READER)).andReturn().getResponse().getStatus();
+  }
+
+  @Benchmark
+  public TakenBook createTakenBook() {
+    TakenBookBatchItem item = nextFutureLoan();
+    return takenBookService.createTakenBook(item.getReaderId(), item.getBookId(),
+        item.getDateFrom(), item.getDateTo());
+  }
+
+  @Benchmark
+  public List<BatchItemResult> createTakenBookBatch() {
+    List<TakenBookBatchItem> items = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      items.add(nextFutureLoan());
+    }
+    return takenBookBatchService.createTakenBooks(items);
+  }
+
+  @Benchmark
+  public TakenBook findTakenBookById() {
+    return takenBookService.findById(random(takenBookIds));
+  }
+
+  @Benchmark
+  public List<TakenBookDTO> findTakenBooksByReaderAndPeriod() {
+    LocalDate dateFrom = HISTORY_START.plusDays(ThreadLocalRandom.current().nextInt(365));
+    return takenBookService.findByReaderAndPeriod(random(readerIds), dateFrom,
+        dateFrom.plusYears(1));
+  }
+
+  private void seed() {
+    authorIds = new long[Math.max(1, books / 10)];
+    for (int i = 0; i < authorIds.length; i++) {
+      authorIds[i] = authorService.createAuthor("Seed", "Author " + i).getId();
+    }
+    bookIds = new long[books];
+    for (int i = 0; i < books; i++) {
+      HashSet<Long> bookAuthorIds = new HashSet<>();
+      bookAuthorIds.add(authorIds[i % authorIds.length]);
+      bookAuthorIds.add(authorIds[(i * 7 + 1) % authorIds.length]);
+      bookIds[i] = bookService.createBook("Seed book " + i, bookAuthorIds, 1950 + i % 70).getId();
+    }
+    readerIds = new long[Math.max(1, books / 4)];
+    for (int i = 0; i < readerIds.length; i++) {
+      readerIds[i] = readerService.createReader("Seed", "Seed", "Reader " + i, Gender.MALE,
+          LocalDate.of(1980, 1, 1).plusDays(i)).getId();
+    }
+
+    List<TakenBookBatchItem> items = new ArrayList<>();
+    for (int loan = 0; loan < loansPerBook; loan++) {
+      LocalDate dateFrom = HISTORY_START.plusDays(loan * 30L);
+      for (long bookId : bookIds) {
+        items.add(new TakenBookBatchItem(random(readerIds), bookId, dateFrom,
+            dateFrom.plusDays(14)));
+      }
+    }
+    List<Long> created = new ArrayList<>(items.size());
+    for (int from = 0; from < items.size(); from += 5000) {
+      for (BatchItemResult result : takenBookBatchService.createTakenBooks(
+          items.subList(from, Math.min(items.size(), from + 5000)))) {
+        if (result.isCreated()) {
+          created.add(result.getId());
+        }
+      }
+    }
+    takenBookIds = created.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  /**
+   * A one day loan that can't overlap any other: slots go round the books, a day further each
+   * round.
+   */
+  private TakenBookBatchItem nextFutureLoan() {
+    long slot = futureSlot.getAndIncrement();
+    LocalDate dateFrom = FUTURE_START.plusDays(slot / bookIds.length);
+    return new TakenBookBatchItem(random(readerIds), bookIds[(int) (slot % bookIds.length)],
+        dateFrom, dateFrom.plusDays(1));
+  }
+
+  private static long random(long[] ids) {
+    return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+  }
+}
@@ -0,0 +1,114 @@
+package org.example.library.perf;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.example.library.Main;
+import org.example.library.service.TitleSearchHit;
+import org.example.library.service.TitleSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Title search through the inverted index against the {@code LIKE '%word%'} scan it replaces, on
+ * an in-memory H2 filled by {@link LibraryDataGenerator} with {@code books} books. Query words
+ * are drawn with the same skew as the title words, so common words with long posting lists come
+ * up as often as they would for real users. The LIKE query stops at the first 20 rows in table
+ * order and can't rank them; the index ranks every match. Restart cost is measured as well:
+ * building the index from the table against reading it from the file written at shutdown.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TitleSearchBenchmark {
+  private static final int LIMIT = 20;
+
+  @Param("1000000")
+  private int books;
+
+  private ConfigurableApplicationContext context;
+  private TitleSearchService titleSearchService;
+  private JdbcTemplate jdbcTemplate;
+  private ZipfSampler words;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(Main.class).run(
+        "--spring.datasource.url=jdbc:h2:mem:perf;LOCK_TIMEOUT=10000",
+        "--spring.jpa.show-sql=false",
+        "--library.h2.tcp.enabled=false",
+        "--library.title-index.file=target/perf/title-index.bin",
+        "--logging.level.root=WARN");
+    titleSearchService = context.getBean(TitleSearchService.class);
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+    new LibraryDataGenerator(context).generate(new LibraryVolume(Math.max(1, books / 50), books,
+        3, 1_000, 1, 1_000, 42L));
+    titleSearchService.save();
+    words = LibraryDataGenerator.titleWordSampler();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<TitleSearchHit> indexOneWord() {
+    return titleSearchService.search(word(), LIMIT);
+  }
+
+  @Benchmark
+  public List<TitleSearchHit> indexTwoWords() {
+    return titleSearchService.search(word() + " " + word(), LIMIT);
+  }
+
+  @Benchmark
+  public List<TitleSearchHit> indexPhrase() {
+    return titleSearchService.search("\"" + word() + " " + word() + "\"", LIMIT);
+  }
+
+  @Benchmark
+  public List<Long> likeOneWord() {
+    return jdbcTemplate.queryForList("SELECT id FROM book WHERE LOWER(title) LIKE ? LIMIT "
+        + LIMIT, Long.class, "%" + word() + "%");
+  }
+
+  @Benchmark
+  public List<Long> likeTwoWords() {
+    return jdbcTemplate.queryForList("SELECT id FROM book WHERE LOWER(title) LIKE ? "
+        + "OR LOWER(title) LIKE ? LIMIT " + LIMIT, Long.class, "%" + word() + "%",
+        "%" + word() + "%");
+  }
+
+  @Benchmark
+  public void rebuildFromTable() {
+    titleSearchService.rebuild();
+  }
+
+  @Benchmark
+  public void readFromFile() {
+    titleSearchService.load();
+  }
+
+  private String word() {
+    Random random = ThreadLocalRandom.current();
+    return LibraryDataGenerator.titleWord(words.next(random));
+  }
+}
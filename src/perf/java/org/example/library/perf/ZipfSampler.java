@@ -0,0 +1,30 @@
+package org.example.library.perf;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^exponent}:
+ * rank 0 is the most frequent, and the larger the exponent the more the head dominates.
+ */
+class ZipfSampler {
+  private final double[] cumulative;
+
+  ZipfSampler(int n, double exponent) {
+    cumulative = new double[n];
+    double sum = 0;
+    for (int i = 0; i < n; i++) {
+      sum += 1 / Math.pow(i + 1, exponent);
+      cumulative[i] = sum;
+    }
+    for (int i = 0; i < n; i++) {
+      cumulative[i] /= sum;
+    }
+  }
+
+  int next(Random random) {
+    int position = Arrays.binarySearch(cumulative, random.nextDouble());
+    int rank = position >= 0 ? position : -position - 1;
+    return Math.min(rank, cumulative.length - 1);
+  }
+}
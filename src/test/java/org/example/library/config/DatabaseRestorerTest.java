@@ -0,0 +1,70 @@
+package org.example.library.config;
+
+import java.io.File;
+import java.nio.file.Path;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class DatabaseRestorerTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRestoreBinaryBackupIntoMissingDatabase() throws Exception {
+    File source = folder.newFolder("source");
+    JdbcTemplate sourceDb = jdbcTemplate("jdbc:h2:file:" + source + "/cft_library");
+    sourceDb.execute("CREATE TABLE book (id BIGINT PRIMARY KEY, title VARCHAR(255))");
+    sourceDb.update("INSERT INTO book VALUES (1, 'Oblomov')");
+    Path backup = folder.getRoot().toPath().resolve("backup.zip");
+    sourceDb.execute("BACKUP TO '" + backup + "'");
+
+    File target = folder.newFolder("target");
+    String targetUrl = "jdbc:h2:file:" + target + "/cft_library;CACHE_SIZE=1024";
+    new DatabaseRestorer(targetUrl, backup).restoreFiles();
+
+    JdbcTemplate targetDb = jdbcTemplate(targetUrl);
+    Assert.assertEquals("Oblomov",
+        targetDb.queryForObject("SELECT title FROM book WHERE id = 1", String.class));
+
+    // an existing database is left as it is
+    targetDb.update("INSERT INTO book VALUES (2, 'The Precipice')");
+    new DatabaseRestorer(targetUrl, backup).restoreFiles();
+    Assert.assertEquals(Integer.valueOf(2),
+        jdbcTemplate(targetUrl).queryForObject("SELECT COUNT(*) FROM book", Integer.class));
+  }
+
+  @Test
+  public void testRestoreScriptBackupIntoEmptyDatabase() {
+    JdbcTemplate sourceDb = jdbcTemplate("jdbc:h2:mem:restore_source;DB_CLOSE_DELAY=-1");
+    sourceDb.execute("CREATE TABLE book (id BIGINT PRIMARY KEY, title VARCHAR(255))");
+    sourceDb.update("INSERT INTO book VALUES (1, 'Oblomov')");
+    Path backup = folder.getRoot().toPath().resolve("backup.sql.gz");
+    sourceDb.execute("SCRIPT TO '" + backup + "' COMPRESSION GZIP");
+
+    String targetUrl = "jdbc:h2:mem:restore_target;DB_CLOSE_DELAY=-1";
+    JdbcTemplate targetDb = jdbcTemplate(targetUrl);
+    new DatabaseRestorer(targetUrl, backup).restoreScript(targetDb.getDataSource());
+    Assert.assertEquals("Oblomov",
+        targetDb.queryForObject("SELECT title FROM book WHERE id = 1", String.class));
+
+    // replaying again would fail on the existing table, so it is skipped
+    new DatabaseRestorer(targetUrl, backup).restoreScript(targetDb.getDataSource());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testBinaryBackupNeedsFileDatabase() {
+    new DatabaseRestorer("jdbc:h2:mem:cft_library", folder.getRoot().toPath().resolve("b.zip"))
+        .restoreFiles();
+  }
+
+  private static JdbcTemplate jdbcTemplate(String url) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL(url);
+    dataSource.setUser("sa");
+    return new JdbcTemplate(dataSource);
+  }
+}
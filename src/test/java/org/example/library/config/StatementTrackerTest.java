@@ -0,0 +1,48 @@
+package org.example.library.config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StatementTrackerTest {
+  private static final List<QueryInfo> SELECT =
+      Collections.singletonList(new QueryInfo("select * from book where id=?"));
+
+  @Test
+  public void testStatementOverBudgetFailsWhenEnforced() {
+    StatementTracker statementTracker = new StatementTracker(Duration.ofSeconds(1), true);
+    statementTracker.begin("BookController.getBook", 1);
+    execute(statementTracker);
+    try {
+      execute(statementTracker);
+      Assert.fail("Statement over budget was executed");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("BookController.getBook exceeded its budget of 1 statements with: "
+          + "select * from book where id=?", e.getMessage());
+    }
+
+    statementTracker.end();
+    execute(statementTracker);
+  }
+
+  @Test
+  public void testStatementOverBudgetIsExecutedWhenNotEnforced() {
+    StatementTracker statementTracker = new StatementTracker(Duration.ofSeconds(1), false);
+    statementTracker.begin("BookController.getBook", 0);
+    try (StatementTracker.Recording recording = statementTracker.startRecording()) {
+      execute(statementTracker);
+      execute(statementTracker);
+      Assert.assertEquals(2, recording.getStatements().size());
+    }
+  }
+
+  private static void execute(StatementTracker statementTracker) {
+    ExecutionInfo executionInfo = new ExecutionInfo();
+    statementTracker.beforeQuery(executionInfo, SELECT);
+    statementTracker.afterQuery(executionInfo, SELECT);
+  }
+}
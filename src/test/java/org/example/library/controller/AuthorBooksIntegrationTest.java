@@ -0,0 +1,85 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class AuthorBooksIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Test
+  public void testBooksFollowChanges() throws Exception {
+    Author averchenko = authorService.createAuthor("Arkady", "Averchenko");
+    Author teffi = authorService.createAuthor("Nadezhda", "Teffi");
+    Book merry = bookService.createBook("Merry Oysters",
+        Collections.singleton(averchenko.getId()), 1910);
+    Book satyricon = bookService.createBook("The Universal History by Satyricon",
+        new HashSet<>(Arrays.asList(averchenko.getId(), teffi.getId())), 1910);
+    Book humorous = bookService.createBook("Humorous Stories",
+        Collections.singleton(teffi.getId()), 1910);
+
+    mockMvc.perform(get("/author/books").param("id", averchenko.getId().toString())
+        .param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[*].id", Matchers.contains(merry.getId().intValue())))
+        .andExpect(jsonPath("$.items[0].title").value("Merry Oysters"))
+        .andExpect(jsonPath("$.next").value(merry.getId()));
+    mockMvc.perform(get("/author/books").param("id", averchenko.getId().toString())
+        .param("limit", "1").param("after", merry.getId().toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[*].id", Matchers.contains(satyricon.getId().intValue())));
+
+    bookService.updateBook(humorous.getId(), "Humorous Stories",
+        Collections.singleton(averchenko.getId()), 1910);
+    bookService.deleteById(merry.getId());
+    mockMvc.perform(get("/author/books/batch")
+        .param("ids", teffi.getId() + "," + averchenko.getId() + ",-1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].authorId").value(teffi.getId()))
+        .andExpect(jsonPath("$.items[0].bookIds[*]",
+            Matchers.contains(satyricon.getId().intValue())))
+        .andExpect(jsonPath("$.items[1].bookCount").value(2))
+        .andExpect(jsonPath("$.items[1].bookIds[*]", Matchers.contains(
+            satyricon.getId().intValue(), humorous.getId().intValue())))
+        .andExpect(jsonPath("$.missingIds[*]", Matchers.contains(-1)));
+  }
+
+  @Test
+  public void testAuthorWithoutBooks() throws Exception {
+    Author author = authorService.createAuthor("Sasha", "Averchenko-Cherny");
+    mockMvc.perform(get("/author/books").param("id", author.getId().toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items").isEmpty());
+
+    authorService.deleteById(author.getId());
+    mockMvc.perform(get("/author/books").param("id", author.getId().toString()))
+        .andExpect(status().isNotFound());
+  }
+}
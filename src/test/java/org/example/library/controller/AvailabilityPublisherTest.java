@@ -0,0 +1,97 @@
+package org.example.library.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+import org.example.library.controller.dto.AvailabilityDTO;
+import org.example.library.service.AvailabilityService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public class AvailabilityPublisherTest {
+  private final AtomicBoolean available = new AtomicBoolean(true);
+  private final Deque<SseEmitter> emitters = new LinkedBlockingDeque<>();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private AvailabilityPublisher publisher;
+  private LongConsumer listener;
+
+  @Before
+  public void setUp() {
+    AvailabilityService availabilityService = Mockito.mock(AvailabilityService.class);
+    when(availabilityService.isAvailable(anyLong(), any(), any()))
+        .thenAnswer(invocation -> available.get());
+    publisher = new AvailabilityPublisher(availabilityService, 100, 10, Duration.ofMinutes(1),
+        Duration.ofMillis(100), 1, Duration.ofMillis(300), 2) {
+      @Override
+      SseEmitter createEmitter(Duration timeout) {
+        return emitters.removeFirst();
+      }
+    };
+    publisher.start();
+    ArgumentCaptor<LongConsumer> captor = ArgumentCaptor.forClass(LongConsumer.class);
+    Mockito.verify(availabilityService).addListener(captor.capture());
+    listener = captor.getValue();
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    publisher.stop();
+  }
+
+  @Test
+  public void testStalledSubscriberDoesNotDelayOthersAndIsDropped() throws Exception {
+    emitters.add(new SseEmitter() {
+      @Override
+      public void send(SseEventBuilder builder) throws IOException {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+      }
+    });
+    BlockingQueue<AvailabilityDTO> received = new LinkedBlockingQueue<>();
+    emitters.add(new SseEmitter() {
+      @Override
+      public void send(SseEventBuilder builder) {
+        builder.build().stream()
+            .filter(part -> part.getData() instanceof AvailabilityDTO)
+            .forEach(part -> received.add((AvailabilityDTO) part.getData()));
+      }
+    });
+
+    publisher.subscribe(Collections.singletonList(1L));
+    publisher.subscribe(Collections.singletonList(1L));
+    Assert.assertTrue(received.poll(5, TimeUnit.SECONDS).isAvailable());
+
+    available.set(false);
+    listener.accept(1L);
+    AvailabilityDTO changed = received.poll(5, TimeUnit.SECONDS);
+    Assert.assertNotNull("Change was not sent while another subscriber stalled", changed);
+    Assert.assertFalse(changed.isAvailable());
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (publisher.subscriberCount() > 1 && System.nanoTime() < deadline) {
+      Thread.sleep(20);
+    }
+    Assert.assertEquals(1, publisher.subscriberCount());
+  }
+}
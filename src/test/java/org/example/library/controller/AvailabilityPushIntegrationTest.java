@@ -0,0 +1,105 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.regex.Pattern;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.entities.TakenBook;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.example.library.service.ReaderService;
+import org.example.library.service.TakenBookService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class AvailabilityPushIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Autowired
+  private TakenBookService takenBookService;
+
+  @Autowired
+  private AvailabilityPublisher availabilityPublisher;
+
+  @Test
+  public void testLoanChangesArePushed() throws Exception {
+    Author author = authorService.createAuthor("Ilya", "Ehrenburg");
+    Book book = bookService.createBook("Julio Jurenito", Collections.singleton(author.getId()),
+        1922);
+    Reader reader = readerService.createReader("Alexei", "Spiridonovich", "Tishin", Gender.MALE,
+        LocalDate.of(1890, 1, 27));
+    int subscribers = availabilityPublisher.subscriberCount();
+
+    MvcResult result = mockMvc.perform(get("/book/availability/subscribe")
+        .param("ids", book.getId().toString()))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    MockHttpServletResponse response = result.getResponse();
+    Assert.assertEquals(subscribers + 1, availabilityPublisher.subscriberCount());
+    String today = LocalDate.now().toString();
+    awaitContent(response, "event:availability\ndata:{\"bookId\":" + book.getId()
+        + ",\"dateFrom\":\"" + today + "\",\"dateTo\":\"" + LocalDate.now().plusDays(1)
+        + "\",\"available\":true}", 1);
+
+    TakenBook takenBook = takenBookService.createTakenBook(reader.getId(), book.getId(),
+        LocalDate.now().minusDays(1), LocalDate.now().plusDays(7));
+    awaitContent(response, "\"available\":false}", 1);
+
+    // a loan starting later doesn't take the book off the shelf today
+    takenBookService.updateTakenBook(takenBook.getId(), reader.getId(), book.getId(),
+        LocalDate.now().plusDays(3), LocalDate.now().plusDays(7));
+    awaitContent(response, "\"available\":true}", 2);
+  }
+
+  @Test
+  public void testSubscribeToUnknownBook() throws Exception {
+    int subscribers = availabilityPublisher.subscriberCount();
+    mockMvc.perform(get("/book/availability/subscribe").param("ids", "-1"))
+        .andExpect(status().isNotFound());
+    Assert.assertEquals(subscribers, availabilityPublisher.subscriberCount());
+  }
+
+  /**
+   * Waits until {@code expected} occurs {@code times} in the events sent so far.
+   */
+  private static void awaitContent(MockHttpServletResponse response, String expected, int times)
+      throws Exception {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (response.getContentAsString().split(Pattern.quote(expected), -1).length - 1 < times) {
+      if (System.currentTimeMillis() > deadline) {
+        Assert.fail("Less than " + times + " " + expected + " in "
+            + response.getContentAsString());
+      }
+      Thread.sleep(20);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package org.example.library.controller;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import org.example.library.Main;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class BackupControllerIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  public void testScriptBackupOfInMemoryDatabase() throws Exception {
+    String response = mockMvc.perform(post("/backup").param("format", "script"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.fileName", endsWith(".sql.gz")))
+        .andExpect(jsonPath("$.size", greaterThan(0)))
+        .andReturn().getResponse().getContentAsString();
+    String fileName = JsonPath.read(response, "$.fileName");
+
+    mockMvc.perform(get("/backup"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].fileName", hasItem(fileName)));
+  }
+
+  @Test
+  public void testBinaryBackupNeedsFileDatabase() throws Exception {
+    mockMvc.perform(post("/backup").param("format", "binary"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value(
+            "Binary backup needs a file database, use format=script"));
+    mockMvc.perform(post("/backup").param("format", "tar"))
+        .andExpect(status().isBadRequest());
+  }
+}
@@ -0,0 +1,107 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.example.library.Main;
+import org.example.library.config.StatementTracker;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.entities.TakenBook;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.example.library.service.ReaderService;
+import org.example.library.service.TakenBookService;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class BatchReadIntegrationTest {
+  private static final long MISSING_ID = Long.MAX_VALUE;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private StatementTracker statementTracker;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Autowired
+  private TakenBookService takenBookService;
+
+  @Test
+  public void testBatchReadKeepsRequestOrder() throws Exception {
+    Author leskov = authorService.createAuthor("Nikolai", "Leskov");
+    Author herzen = authorService.createAuthor("Alexander", "Herzen");
+    Book lefty = bookService.createBook("Lefty", Collections.singleton(leskov.getId()), 1881);
+    Book cathedralFolk = bookService.createBook("Cathedral Folk",
+        Collections.singleton(leskov.getId()), 1872);
+    Reader reader = readerService.createReader("Ivan", "Severyanovich", "Flyagin", Gender.MALE,
+        LocalDate.of(1991, 3, 3));
+    TakenBook takenBook = takenBookService.createTakenBook(reader.getId(), lefty.getId(),
+        LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 10));
+
+    mockMvc.perform(get("/author/batch").param("ids", ids(herzen.getId(), MISSING_ID,
+        leskov.getId(), herzen.getId())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[*].lastName", Matchers.contains("Herzen", "Leskov")))
+        .andExpect(jsonPath("$.missingIds[0]").value(MISSING_ID));
+
+    try (StatementTracker.Recording recording = statementTracker.startRecording()) {
+      mockMvc.perform(get("/book/batch").param("ids", ids(cathedralFolk.getId(), lefty.getId())))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.items[*].title", Matchers.contains("Cathedral Folk", "Lefty")))
+          .andExpect(jsonPath("$.items[0].authorIds[0]").value(leskov.getId()))
+          .andExpect(jsonPath("$.missingIds").isEmpty());
+      Assert.assertEquals(recording.getStatements().toString(), 1,
+          recording.getStatements().size());
+    }
+
+    mockMvc.perform(get("/reader/batch").param("ids", ids(MISSING_ID, reader.getId())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].lastName").value("Flyagin"))
+        .andExpect(jsonPath("$.missingIds[0]").value(MISSING_ID));
+    mockMvc.perform(get("/takenBook/batch").param("ids", ids(takenBook.getId())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].bookId").value(lefty.getId()));
+  }
+
+  @Test
+  public void testBatchReadLimits() throws Exception {
+    mockMvc.perform(get("/book/batch").param("ids", ""))
+        .andExpect(status().isBadRequest());
+    String tooMany = LongStream.rangeClosed(1, 101).mapToObj(String::valueOf)
+        .collect(Collectors.joining(","));
+    mockMvc.perform(get("/reader/batch").param("ids", tooMany))
+        .andExpect(status().isBadRequest());
+  }
+
+  private static String ids(Long... ids) {
+    return Arrays.stream(ids).map(String::valueOf).collect(Collectors.joining(","));
+  }
+}
@@ -0,0 +1,144 @@
+package org.example.library.controller;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import javax.persistence.EntityManagerFactory;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.example.library.service.ReaderService;
+import org.example.library.service.TakenBookService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class BookControllerIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Autowired
+  private TakenBookService takenBookService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @Before
+  public void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  public void testGetBookIssuesSingleStatement() throws Exception {
+    Author first = authorService.createAuthor("Ilya", "Ilf");
+    Author second = authorService.createAuthor("Evgeny", "Petrov");
+    Book book = bookService.createBook("The Twelve Chairs",
+        new HashSet<>(Arrays.asList(first.getId(), second.getId())), 1928);
+
+    statistics.clear();
+    mockMvc.perform(get("/book").param("id", String.valueOf(book.getId())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title").value("The Twelve Chairs"))
+        .andExpect(jsonPath("$.authorIds.length()").value(2));
+
+    Assert.assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void testGetMissingBookIssuesSingleStatement() throws Exception {
+    statistics.clear();
+    mockMvc.perform(get("/book").param("id", "-1"))
+        .andExpect(status().isNotFound());
+
+    Assert.assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void testGetBookIsServedFromCacheUntilUpdated() throws Exception {
+    Author author = authorService.createAuthor("Mikhail", "Bulgakov");
+    Book book = bookService.createBook("The White Guard",
+        new HashSet<>(Arrays.asList(author.getId())), 1925);
+    mockMvc.perform(get("/book").param("id", String.valueOf(book.getId())))
+        .andExpect(status().isOk());
+
+    statistics.clear();
+    mockMvc.perform(get("/book").param("id", String.valueOf(book.getId())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title").value("The White Guard"));
+    Assert.assertEquals(0, statistics.getPrepareStatementCount());
+
+    statistics.clear();
+    Assert.assertEquals("The White Guard", bookService.findById(book.getId()).getTitle());
+    Assert.assertEquals(0, statistics.getPrepareStatementCount());
+    Assert.assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+
+    bookService.updateBook(book.getId(), "The Days of the Turbins",
+        new HashSet<>(Arrays.asList(author.getId())), 1926);
+    mockMvc.perform(get("/book").param("id", String.valueOf(book.getId())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title").value("The Days of the Turbins"))
+        .andExpect(jsonPath("$.published").value(1926));
+  }
+
+  @Test
+  public void testAvailabilityIsAnsweredWithoutStatements() throws Exception {
+    Author author = authorService.createAuthor("Leo", "Tolstoy");
+    Book book = bookService.createBook("Resurrection",
+        new HashSet<>(Arrays.asList(author.getId())), 1899);
+    Reader reader = readerService.createReader("Ivan", "Ivanovich", "Ivanov", Gender.MALE,
+        LocalDate.of(1980, 1, 1));
+    takenBookService.createTakenBook(reader.getId(), book.getId(), LocalDate.of(2024, 3, 1),
+        LocalDate.of(2024, 3, 10));
+
+    statistics.clear();
+    mockMvc.perform(get("/book/availability").param("id", String.valueOf(book.getId()))
+        .param("from", "2024-03-09").param("to", "2024-03-12"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.available").value(false));
+    mockMvc.perform(get("/book/availability").param("id", String.valueOf(book.getId()))
+        .param("from", "2024-03-10").param("to", "2024-03-12"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.available").value(true));
+    mockMvc.perform(get("/book/available").param("from", "2024-03-10").param("to", "2024-03-12")
+        .param("after", String.valueOf(book.getId() - 1)).param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0]").value(book.getId().intValue()));
+    mockMvc.perform(get("/book/available").param("from", "2024-03-09").param("to", "2024-03-12")
+        .param("after", String.valueOf(book.getId() - 1)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", not(hasItem(book.getId().intValue()))));
+    Assert.assertEquals(0, statistics.getPrepareStatementCount());
+  }
+}
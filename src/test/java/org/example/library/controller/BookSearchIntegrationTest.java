@@ -0,0 +1,68 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Collections;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class BookSearchIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Test
+  public void testSearchFollowsChanges() throws Exception {
+    Author kuprin = authorService.createAuthor("Alexander", "Kuprin-Garnet");
+    Book duel = bookService.createBook("The Duel", Collections.singleton(kuprin.getId()), 1905);
+    Book bracelet = bookService.createBook("The Garnet Bracelet",
+        Collections.singleton(kuprin.getId()), 1911);
+    Book bracelets = bookService.createBook("Bracelets of Garnet and Garnets",
+        Collections.singleton(kuprin.getId()), 1912);
+
+    mockMvc.perform(get("/book/search").param("q", "garnet bracelets"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].book.id", Matchers.containsInAnyOrder(
+            bracelet.getId().intValue(), bracelets.getId().intValue())))
+        .andExpect(jsonPath("$[0].book.authorIds[0]").value(kuprin.getId()));
+
+    mockMvc.perform(get("/book/search").param("q", "\"garnet bracelet\""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].book.id", Matchers.contains(bracelet.getId().intValue())));
+
+    bookService.updateBook(duel.getId(), "The Garnet Duel", Collections.singleton(kuprin.getId()),
+        1905);
+    bookService.deleteById(bracelets.getId());
+    mockMvc.perform(get("/book/search").param("q", "garnet").param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].book.id", Matchers.containsInAnyOrder(
+            duel.getId().intValue(), bracelet.getId().intValue())));
+  }
+
+  @Test
+  public void testEmptyQueryRejected() throws Exception {
+    mockMvc.perform(get("/book/search").param("q", " \" "))
+        .andExpect(status().isBadRequest());
+  }
+}
@@ -0,0 +1,85 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.repositories.ChangeEventRepository;
+import org.example.library.service.AuthorService;
+import org.example.library.service.ReaderService;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ChangeFeedIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Autowired
+  private ChangeEventRepository changeEventRepository;
+
+  @Test
+  public void testChangesAreListed() throws Exception {
+    long after = changeEventRepository.findMaxId();
+    Author author = authorService.createAuthor("Daniil", "Kharms");
+    authorService.updateAuthor(author.getId(), "Daniil", "Yuvachev-Kharms");
+    authorService.deleteById(author.getId());
+
+    MvcResult result = mockMvc.perform(get("/changes").param("after", Long.toString(after)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    String byAuthor = "$.items[?(@.entity == 'AUTHOR' && @.entityId == " + author.getId() + ")]";
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath(byAuthor + ".operation",
+            Matchers.contains("CREATED", "UPDATED", "DELETED")))
+        .andExpect(jsonPath(byAuthor + ".version", Matchers.contains(0, 1, null)))
+        .andExpect(jsonPath("$.next", Matchers.greaterThanOrEqualTo((int) after + 3)));
+  }
+
+  @Test
+  public void testWaitForChanges() throws Exception {
+    long after = changeEventRepository.findMaxId();
+    MvcResult result = mockMvc.perform(get("/changes").param("after", Long.toString(after))
+        .param("wait", "10"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    Reader reader = readerService.createReader("Yakov", "Petrovich", "Goliadkin", Gender.MALE,
+        LocalDate.of(1846, 2, 1));
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].entity").value("READER"))
+        .andExpect(jsonPath("$.items[0].entityId").value(reader.getId()))
+        .andExpect(jsonPath("$.items[0].operation").value("CREATED"))
+        .andExpect(jsonPath("$.next").value(after + 1));
+  }
+
+  @Test
+  public void testWaitTooLong() throws Exception {
+    mockMvc.perform(get("/changes").param("wait", "31"))
+        .andExpect(status().isBadRequest());
+  }
+}
@@ -0,0 +1,151 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.example.library.Main;
+import org.example.library.config.StatementTracker;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.entities.TakenBook;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.example.library.service.DtoCache;
+import org.example.library.service.ReaderService;
+import org.example.library.service.TakenBookService;
+import org.example.library.service.Versioned;
+import org.example.library.service.dto.BookDTO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ConditionalGetIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private StatementTracker statementTracker;
+
+  @Autowired
+  private DtoCache<Versioned<BookDTO>> bookDtoCache;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Autowired
+  private TakenBookService takenBookService;
+
+  @Test
+  public void testBookNotModifiedUntilChanged() throws Exception {
+    Author saltykov = authorService.createAuthor("Mikhail", "Saltykov");
+    Author kuprin = authorService.createAuthor("Alexander", "Kuprin");
+    Book book = bookService.createBook("The Golovlyov Family",
+        Collections.singleton(saltykov.getId()), 1880);
+
+    String eTag = mockMvc.perform(get("/book").param("id", book.getId().toString()))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    Assert.assertNotNull(eTag);
+
+    mockMvc.perform(get("/book").param("id", book.getId().toString())
+        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag))
+        .andExpect(content().string(""));
+
+    bookDtoCache.evict(book.getId());
+    try (StatementTracker.Recording recording = statementTracker.startRecording()) {
+      mockMvc.perform(get("/book").param("id", book.getId().toString())
+          .header(HttpHeaders.IF_NONE_MATCH, eTag))
+          .andExpect(status().isNotModified());
+      // only the version is read, the book and its authors are not
+      Assert.assertEquals(recording.getStatements().toString(), 1,
+          recording.getStatements().size());
+    }
+
+    bookService.updateBook(book.getId(), "The Golovlyov Family",
+        new HashSet<>(Arrays.asList(saltykov.getId(), kuprin.getId())), 1880);
+    String changedETag = mockMvc.perform(get("/book").param("id", book.getId().toString())
+        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.authorIds.length()").value(2))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    Assert.assertNotEquals(eTag, changedETag);
+  }
+
+  @Test
+  public void testReaderNotModifiedSince() throws Exception {
+    Reader reader = readerService.createReader("Porfiry", "Vladimirovich", "Golovlyov",
+        Gender.MALE, LocalDate.of(1993, 4, 4));
+
+    String lastModified = mockMvc.perform(get("/reader").param("id", reader.getId().toString()))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+    mockMvc.perform(get("/reader").param("id", reader.getId().toString())
+        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  public void testTakenBookETagWithoutExpand() throws Exception {
+    Author garshin = authorService.createAuthor("Vsevolod", "Garshin");
+    Book book = bookService.createBook("The Red Flower", Collections.singleton(garshin.getId()),
+        1883);
+    Reader reader = readerService.createReader("Anna", "Petrovna", "Pogozheva", Gender.FEMALE,
+        LocalDate.of(1994, 5, 5));
+    TakenBook takenBook = takenBookService.createTakenBook(reader.getId(), book.getId(),
+        LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 10));
+
+    String eTag = mockMvc.perform(get("/takenBook").param("id", takenBook.getId().toString()))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    mockMvc.perform(get("/takenBook").param("id", takenBook.getId().toString())
+        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+
+    // the loan is read once, with no separate version query, within the budget of one statement
+    mockMvc.perform(get("/takenBook").param("id", takenBook.getId().toString())
+        .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+    mockMvc.perform(get("/takenBook").param("id", takenBook.getId().toString())
+        .param("expand", "book").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+  }
+
+  @Test
+  public void testMissingEntityWithIfNoneMatch() throws Exception {
+    mockMvc.perform(get("/author").param("id", String.valueOf(Long.MAX_VALUE))
+        .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+        .andExpect(status().isNotFound());
+  }
+}
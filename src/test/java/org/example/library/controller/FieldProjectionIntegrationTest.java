@@ -0,0 +1,116 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.example.library.Main;
+import org.example.library.config.StatementTracker;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.example.library.service.ReaderService;
+import org.example.library.service.TakenBookService;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class FieldProjectionIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private StatementTracker statementTracker;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Autowired
+  private TakenBookService takenBookService;
+
+  @Test
+  public void testOnlyRequestedFieldsAreSelected() throws Exception {
+    Author ilf = authorService.createAuthor("Ilya", "Fainzilberg");
+    Author petrov = authorService.createAuthor("Yevgeny", "Katayev");
+    Book calf = bookService.createBook("The Little Golden Calf",
+        new HashSet<>(Arrays.asList(ilf.getId(), petrov.getId())), 1931);
+    Reader reader = readerService.createReader("Ostap", "Ibragimovich", "Bender", Gender.MALE,
+        LocalDate.of(1897, 1, 1));
+    readerService.createReader("Kisa", "Matveyevich", "Bender", Gender.MALE,
+        LocalDate.of(1875, 2, 2));
+    takenBookService.createTakenBook(reader.getId(), calf.getId(), LocalDate.of(2023, 9, 1),
+        LocalDate.of(2023, 9, 5));
+    takenBookService.createTakenBook(reader.getId(), calf.getId(), LocalDate.of(2023, 10, 1),
+        LocalDate.of(2023, 10, 5));
+
+    try (StatementTracker.Recording recording = statementTracker.startRecording()) {
+      mockMvc.perform(get("/reader").param("id", String.valueOf(reader.getId()))
+          .param("fields", "lastName"))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.id").value(reader.getId()))
+          .andExpect(jsonPath("$.lastName").value("Bender"))
+          .andExpect(jsonPath("$.birthday").doesNotExist());
+      Assert.assertEquals(1, recording.getStatements().size());
+      String sql = recording.getStatements().get(0);
+      Assert.assertTrue(sql, sql.contains("last_name"));
+      Assert.assertFalse(sql, sql.contains("birthday"));
+    }
+
+    mockMvc.perform(get("/book").param("id", String.valueOf(calf.getId()))
+        .param("fields", "title,authorIds"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title").value("The Little Golden Calf"))
+        .andExpect(jsonPath("$.authorIds", Matchers.containsInAnyOrder(
+            ilf.getId().intValue(), petrov.getId().intValue())))
+        .andExpect(jsonPath("$.published").doesNotExist());
+    mockMvc.perform(get("/author/batch").param("ids", petrov.getId() + "," + ilf.getId())
+        .param("fields", "lastName"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[*].lastName", Matchers.contains("Katayev", "Fainzilberg")));
+    mockMvc.perform(get("/reader/findByLastName").param("lastName", "Bender")
+        .param("fields", "firstName"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].firstName", Matchers.contains("Ostap", "Kisa")))
+        .andExpect(jsonPath("$[0].lastName").doesNotExist());
+    mockMvc.perform(get("/takenBook/findByPeriod").param("readerId", String.valueOf(reader.getId()))
+        .param("from", "2023-01-01").param("to", "2023-12-31").param("limit", "1")
+        .param("fields", "dateFrom"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].dateFrom").value("2023-09-01"))
+        .andExpect(jsonPath("$.items[0].bookId").doesNotExist())
+        .andExpect(jsonPath("$.next").isNumber());
+  }
+
+  @Test
+  public void testInvalidFields() throws Exception {
+    mockMvc.perform(get("/author").param("id", "1").param("fields", "birthday"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/takenBook").param("id", "1").param("fields", "dateFrom")
+        .param("expand", "book"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/book").param("id", String.valueOf(Long.MAX_VALUE))
+        .param("fields", "title"))
+        .andExpect(status().isNotFound());
+  }
+}
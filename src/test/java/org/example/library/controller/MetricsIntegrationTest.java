@@ -0,0 +1,69 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class MetricsIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Test
+  public void testPrometheusEndpointPublishesRequestServiceAndDatabaseMetrics() throws Exception {
+    Author author = authorService.createAuthor("Anton", "Chekhov");
+    Book book = bookService.createBook("The Steppe", Collections.singleton(author.getId()),
+        1888);
+    mockMvc.perform(get("/book").param("id", String.valueOf(book.getId())))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/book").param("id", "-1"))
+        .andExpect(status().isNotFound());
+
+    String metrics = mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    assertHasSample(metrics, "http_server_requests_seconds_count", "uri=\"/book\"",
+        "status=\"200\"");
+    assertHasSample(metrics, "http_server_requests_seconds_count", "uri=\"/book\"",
+        "status=\"404\"");
+    assertHasSample(metrics, "library_service_seconds_count", "class=\"BookService\"",
+        "method=\"createBook\"");
+    assertHasSample(metrics, "library_repository_seconds_count", "class=\"BookRepository\"",
+        "method=\"saveAndFlush\"");
+    assertHasSample(metrics, "library_session_statements_count");
+    assertHasSample(metrics, "library_session_jdbc_seconds_count");
+    assertHasSample(metrics, "hibernate_statements_total");
+    assertHasSample(metrics, "hikaricp_connections_active");
+  }
+
+  private static void assertHasSample(String metrics, String name, String... labels) {
+    boolean found = Arrays.stream(metrics.split("\n"))
+        .filter(line -> line.startsWith(name + "{") || line.startsWith(name + " "))
+        .anyMatch(line -> Arrays.stream(labels).allMatch(line::contains));
+    Assert.assertTrue(name + " " + Arrays.toString(labels) + " not found", found);
+  }
+}
@@ -0,0 +1,79 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.service.AuthorService;
+import org.example.library.service.ReaderService;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class NameSearchIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Test
+  public void testAuthorSearchFollowsChanges() throws Exception {
+    Author velimir = authorService.createAuthor("Velimir", "Khlebnikov");
+    Author zangezi = authorService.createAuthor("Zangezi", "Khlebnikova");
+
+    mockMvc.perform(get("/author/search").param("q", "khlebnikov"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].author.id", Matchers.contains(
+            velimir.getId().intValue(), zangezi.getId().intValue())))
+        .andExpect(jsonPath("$[0].author.firstName").value("Velimir"))
+        .andExpect(jsonPath("$[0].score").value(1.0));
+
+    authorService.updateAuthor(zangezi.getId(), "Zangezi", "Budetlyanin");
+    mockMvc.perform(get("/author/search").param("q", "khlebnikov"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].author.id", Matchers.contains(velimir.getId().intValue())));
+
+    authorService.deleteById(velimir.getId());
+    mockMvc.perform(get("/author/search").param("q", "khlebnikov"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$").isEmpty());
+  }
+
+  @Test
+  public void testReaderSearchByPrefixAndTypo() throws Exception {
+    Reader reader = readerService.createReader("Akaky", "Akakievich", "Bashmachkin", Gender.MALE,
+        LocalDate.of(1800, 3, 23));
+
+    mockMvc.perform(get("/reader/search").param("q", "akakiev BASHM"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].reader.id", Matchers.contains(reader.getId().intValue())))
+        .andExpect(jsonPath("$[0].reader.middleName").value("Akakievich"));
+
+    mockMvc.perform(get("/reader/search").param("q", "bashmachkn"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].reader.id", Matchers.contains(reader.getId().intValue())));
+  }
+
+  @Test
+  public void testLimitAboveBatchSizeRejected() throws Exception {
+    mockMvc.perform(get("/reader/search").param("q", "akaky").param("limit", "101"))
+        .andExpect(status().isBadRequest());
+  }
+}
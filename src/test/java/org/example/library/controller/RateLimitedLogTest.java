@@ -0,0 +1,28 @@
+package org.example.library.controller;
+
+import static org.mockito.Mockito.when;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+public class RateLimitedLogTest {
+
+  @Test
+  public void testWarningsAboveLimitAreSuppressed() {
+    Logger logger = Mockito.mock(Logger.class);
+    when(logger.isWarnEnabled()).thenReturn(true);
+    RateLimitedLog log = new RateLimitedLog(logger, 3);
+
+    for (int i = 0; i < 100; i++) {
+      log.warn("Bad request on {}: {}", "uri=/library/reader", "message");
+    }
+
+    long warnings = Mockito.mockingDetails(logger).getInvocations().stream()
+        .filter(invocation -> invocation.getMethod().getName().equals("warn"))
+        .count();
+    // a second boundary during the loop lets one more batch through, with the suppressed count
+    Assert.assertTrue("warnings=" + warnings, warnings >= 3 && warnings <= 7);
+  }
+}
@@ -0,0 +1,107 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.library.Main;
+import org.example.library.entities.Gender;
+import org.example.library.service.ReaderService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ReaderControllerIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Test
+  public void testFindByLastNamePages() throws Exception {
+    List<Long> ids = createReaders("Kuznetsov", 5);
+
+    mockMvc.perform(get("/reader/findByLastName").param("lastName", "Kuznetsov")
+        .param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(2))
+        .andExpect(jsonPath("$.items[0].id").value(ids.get(0)))
+        .andExpect(jsonPath("$.next").value(ids.get(1)));
+
+    mockMvc.perform(get("/reader/findByLastName").param("lastName", "Kuznetsov")
+        .param("limit", "2").param("after", String.valueOf(ids.get(3))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(1))
+        .andExpect(jsonPath("$.items[0].id").value(ids.get(4)))
+        .andExpect(jsonPath("$.next").doesNotExist());
+  }
+
+  @Test
+  public void testFindByLastNameStreams() throws Exception {
+    List<Long> ids = createReaders("Popov", 3);
+
+    mockMvc.perform(get("/reader/findByLastName").param("lastName", "Popov"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(3))
+        .andExpect(jsonPath("$[2].id").value(ids.get(2)))
+        .andExpect(jsonPath("$[2].birthday").value("2001-01-03"));
+
+    mockMvc.perform(get("/reader/findByLastName").param("lastName", "Nobody"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(0));
+  }
+
+  @Test
+  public void testFindByLastNameBadRequest() throws Exception {
+    mockMvc.perform(get("/reader/findByLastName").param("lastName", ""))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Reader last name is not specified"));
+
+    mockMvc.perform(get("/reader/findByLastName").param("lastName", "Popov").param("limit", "0"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void testErrorResponses() throws Exception {
+    mockMvc.perform(post("/reader").contentType(MediaType.APPLICATION_JSON)
+        .content("{\"middleName\":\"Ivanovich\",\"lastName\":\"Sokolov\"}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Reader first name is null or empty"));
+
+    mockMvc.perform(put("/reader").contentType(MediaType.APPLICATION_JSON)
+        .content("{\"id\":-1,\"firstName\":\"Ivan\",\"middleName\":\"Ivanovich\","
+            + "\"lastName\":\"Sokolov\",\"gender\":\"MALE\",\"birthday\":\"2001-01-01\"}"))
+        .andExpect(status().isNotFound());
+
+    mockMvc.perform(get("/reader").param("id", "abc"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").exists());
+
+    mockMvc.perform(get("/reader/findByLastName"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").exists());
+  }
+
+  private List<Long> createReaders(String lastName, int count) {
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ids.add(readerService.createReader("Reader" + i, "Ivanovich", lastName, Gender.MALE,
+          LocalDate.of(2001, 1, 1 + i)).getId());
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,90 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import org.example.library.Main;
+import org.example.library.config.StatementTracker;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.entities.TakenBook;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.example.library.service.ReaderService;
+import org.example.library.service.TakenBookService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Budgets are enforced in tests, so a handler going over its {@link StatementBudget} answers with
+ * an error instead of 200.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class StatementBudgetIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private StatementTracker statementTracker;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Autowired
+  private TakenBookService takenBookService;
+
+  @Test
+  public void testReadEndpointsStayWithinBudget() throws Exception {
+    Author author = authorService.createAuthor("Ivan", "Goncharov");
+    Book book = bookService.createBook("Oblomov", Collections.singleton(author.getId()), 1859);
+    Reader reader = readerService.createReader("Andrei", "Ivanovich", "Stolz", Gender.MALE,
+        LocalDate.of(1990, 5, 5));
+    TakenBook takenBook = takenBookService.createTakenBook(reader.getId(), book.getId(),
+        LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 10));
+
+    mockMvc.perform(get("/author").param("id", String.valueOf(author.getId())))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/author/findByLastName").param("lastName", "Goncharov"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/book").param("id", String.valueOf(book.getId())))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/book/availability").param("id", String.valueOf(book.getId()))
+        .param("from", "2024-05-05").param("to", "2024-05-06"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/book/available").param("from", "2024-05-05").param("to", "2024-05-06"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/reader").param("id", String.valueOf(reader.getId())))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/reader/findByLastName").param("lastName", "Stolz").param("limit", "10"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/takenBook/findByPeriod").param("readerId", String.valueOf(reader.getId()))
+        .param("from", "2024-01-01").param("to", "2025-01-01"))
+        .andExpect(status().isOk());
+
+    try (StatementTracker.Recording recording = statementTracker.startRecording()) {
+      mockMvc.perform(get("/takenBook").param("id", String.valueOf(takenBook.getId())))
+          .andExpect(status().isOk());
+      Assert.assertEquals(recording.getStatements().toString(), 1,
+          recording.getStatements().size());
+      Assert.assertTrue(recording.getStatements().get(0).startsWith("select"));
+    }
+  }
+}
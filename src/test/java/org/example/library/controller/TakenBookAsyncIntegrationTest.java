@@ -0,0 +1,100 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import java.time.LocalDate;
+import java.util.Collections;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.example.library.service.ReaderService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class TakenBookAsyncIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Test
+  public void testAcceptedThenCreated() throws Exception {
+    Author author = authorService.createAuthor("Mikhail", "Zoshchenko");
+    Book book = bookService.createBook("Nervous People", Collections.singleton(author.getId()),
+        1925);
+    Reader reader = readerService.createReader("Nazar", "Ilyich", "Sinebryukhov", Gender.MALE,
+        LocalDate.of(1980, 4, 4));
+
+    String created = accept(reader.getId(), book.getId(), "2024-03-01");
+    // overlaps the first one, rejected by the writer
+    String rejected = accept(reader.getId(), book.getId(), "2024-03-03");
+
+    String body = awaitWritten(created);
+    Assert.assertEquals("CREATED", JsonPath.read(body, "$.status"));
+    mockMvc.perform(get("/takenBook")
+        .param("id", JsonPath.read(body, "$.id").toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.bookId").value(book.getId()));
+    body = awaitWritten(rejected);
+    Assert.assertEquals("FAILED", JsonPath.read(body, "$.status"));
+    Assert.assertNotNull(JsonPath.read(body, "$.error"));
+  }
+
+  @Test
+  public void testInvalidAndUnknown() throws Exception {
+    mockMvc.perform(post("/takenBook/async").contentType(MediaType.APPLICATION_JSON)
+        .content("{\"readerId\":1,\"dateFrom\":\"2024-03-01\",\"dateTo\":\"2024-03-05\"}"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/takenBook/async").param("ticket", "-1"))
+        .andExpect(status().isNotFound());
+  }
+
+  private String accept(long readerId, long bookId, String dateFrom) throws Exception {
+    String body = mockMvc.perform(post("/takenBook/async").contentType(MediaType.APPLICATION_JSON)
+        .content("{\"readerId\":" + readerId + ",\"bookId\":" + bookId + ",\"dateFrom\":\""
+            + dateFrom + "\",\"dateTo\":\"2024-03-10\"}"))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.status").value("QUEUED"))
+        .andReturn().getResponse().getContentAsString();
+    return JsonPath.read(body, "$.ticket");
+  }
+
+  private String awaitWritten(String ticket) throws Exception {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (true) {
+      String body = mockMvc.perform(get("/takenBook/async").param("ticket", ticket))
+          .andExpect(status().isOk())
+          .andReturn().getResponse().getContentAsString();
+      if (!"QUEUED".equals(JsonPath.read(body, "$.status"))
+          || System.currentTimeMillis() > deadline) {
+        return body;
+      }
+      Thread.sleep(20);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package org.example.library.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.example.library.Main;
+import org.example.library.config.StatementTracker;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.entities.TakenBook;
+import org.example.library.service.AuthorService;
+import org.example.library.service.BookService;
+import org.example.library.service.ReaderService;
+import org.example.library.service.TakenBookService;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class TakenBookExpandIntegrationTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private StatementTracker statementTracker;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Autowired
+  private TakenBookService takenBookService;
+
+  @Test
+  public void testExpandLoadsGraphWithFixedNumberOfQueries() throws Exception {
+    Author strugatskyArkady = authorService.createAuthor("Arkady", "Strugatsky");
+    Author strugatskyBoris = authorService.createAuthor("Boris", "Strugatsky");
+    Book picnic = bookService.createBook("Roadside Picnic", new HashSet<>(
+        Arrays.asList(strugatskyArkady.getId(), strugatskyBoris.getId())), 1972);
+    Book monday = bookService.createBook("Monday Begins on Saturday", new HashSet<>(
+        Arrays.asList(strugatskyArkady.getId(), strugatskyBoris.getId())), 1965);
+    Book snail = bookService.createBook("The Snail on the Slope",
+        Collections.singleton(strugatskyBoris.getId()), 1966);
+    Reader reader = readerService.createReader("Redrick", "Albertovich", "Schuhart",
+        Gender.MALE, LocalDate.of(1985, 7, 7));
+    for (int month = 1; month <= 6; month++) {
+      Book book = month % 3 == 0 ? picnic : month % 3 == 1 ? monday : snail;
+      takenBookService.createTakenBook(reader.getId(), book.getId(),
+          LocalDate.of(2023, month, 1), LocalDate.of(2023, month, 20));
+    }
+
+    try (StatementTracker.Recording recording = statementTracker.startRecording()) {
+      mockMvc.perform(get("/takenBook/findByPeriod").param("readerId", String.valueOf(reader.getId()))
+          .param("from", "2023-01-01").param("to", "2023-12-31").param("limit", "10")
+          .param("expand", "book,authors,reader"))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.items.length()").value(6))
+          .andExpect(jsonPath("$.items[0].book.title").value("Monday Begins on Saturday"))
+          .andExpect(jsonPath("$.items[0].authors[*].lastName",
+              Matchers.contains("Strugatsky", "Strugatsky")))
+          .andExpect(jsonPath("$.items[1].authors.length()").value(1))
+          .andExpect(jsonPath("$.items[2].reader.lastName").value("Schuhart"));
+      Assert.assertEquals(recording.getStatements().toString(), 3,
+          recording.getStatements().size());
+    }
+
+    mockMvc.perform(get("/takenBook/findByPeriod").param("readerId", String.valueOf(reader.getId()))
+        .param("from", "2023-01-01").param("to", "2023-12-31").param("limit", "4")
+        .param("expand", "reader"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(4))
+        .andExpect(jsonPath("$.items[0].reader.firstName").value("Redrick"))
+        .andExpect(jsonPath("$.items[0].book").doesNotExist())
+        .andExpect(jsonPath("$.next").isNumber());
+
+    // an expanded result is only served in pages
+    mockMvc.perform(get("/takenBook/findByPeriod").param("readerId", String.valueOf(reader.getId()))
+        .param("from", "2023-01-01").param("to", "2023-12-31").param("expand", "reader"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/takenBook/findByPeriod").param("readerId", String.valueOf(reader.getId()))
+        .param("from", "2023-01-01").param("to", "2023-12-31").param("limit", "1001")
+        .param("expand", "reader"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void testExpandSingleTakenBook() throws Exception {
+    Author author = authorService.createAuthor("Arkady", "Gaidar");
+    Book book = bookService.createBook("Timur and His Squad",
+        Collections.singleton(author.getId()), 1940);
+    Reader reader = readerService.createReader("Timur", "Georgievich", "Garayev", Gender.MALE,
+        LocalDate.of(1988, 8, 8));
+    TakenBook takenBook = takenBookService.createTakenBook(reader.getId(), book.getId(),
+        LocalDate.of(2023, 8, 1), LocalDate.of(2023, 8, 15));
+
+    mockMvc.perform(get("/takenBook").param("id", String.valueOf(takenBook.getId()))
+        .param("expand", "authors"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.bookId").value(book.getId()))
+        .andExpect(jsonPath("$.authors[0].lastName").value("Gaidar"))
+        .andExpect(jsonPath("$.reader").doesNotExist());
+    mockMvc.perform(get("/takenBook").param("id", String.valueOf(takenBook.getId()))
+        .param("expand", "publisher"))
+        .andExpect(status().isBadRequest());
+  }
+}
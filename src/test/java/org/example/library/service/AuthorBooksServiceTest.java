@@ -0,0 +1,90 @@
+package org.example.library.service;
+
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.example.library.entities.Author;
+import org.example.library.repositories.AuthorRepository;
+import org.example.library.repositories.BookRepository;
+import org.example.library.service.dto.AuthorBooksDTO;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class AuthorBooksServiceTest {
+  private AuthorBooksService authorBooksService;
+
+  @Before
+  public void setUp() {
+    AuthorRepository authorRepository = Mockito.mock(AuthorRepository.class);
+    BookRepository bookRepository = Mockito.mock(BookRepository.class);
+    authorBooksService = new AuthorBooksService(authorRepository, bookRepository,
+        Mockito.mock(PlatformTransactionManager.class), 10);
+
+    when(authorRepository.findAllIds()).thenReturn(Arrays.asList(1L, 2L, 3L));
+    when(bookRepository.streamAllAuthorships()).thenReturn(Stream.of(
+        new Object[] {1L, 10L},
+        new Object[] {1L, 11L},
+        new Object[] {1L, 12L},
+        new Object[] {2L, 11L}));
+    authorBooksService.rebuild();
+  }
+
+  @Test
+  public void testFindBookIds() {
+    Assert.assertEquals(Arrays.asList(10L, 11L, 12L), authorBooksService.findBookIds(1L, 0, 10));
+    Assert.assertEquals(Arrays.asList(11L, 12L), authorBooksService.findBookIds(1L, 10, 2));
+    Assert.assertEquals(Collections.singletonList(12L),
+        authorBooksService.findBookIds(1L, 11, 10));
+    Assert.assertTrue(authorBooksService.findBookIds(3L, 0, 10).isEmpty());
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testFindBookIdsUnknownAuthor() {
+    authorBooksService.findBookIds(4L, 0, 10);
+  }
+
+  @Test(expected = ValidationException.class)
+  public void testFindBookIdsPageTooLong() {
+    authorBooksService.findBookIds(1L, 0, 11);
+  }
+
+  @Test
+  public void testFindBookIdsOfSeveralAuthors() {
+    List<AuthorBooksDTO> found = authorBooksService.findBookIds(Arrays.asList(2L, 4L, 1L), 2);
+    Assert.assertEquals(2, found.size());
+    Assert.assertEquals(Long.valueOf(2L), found.get(0).getAuthorId());
+    Assert.assertEquals(Collections.singletonList(11L), found.get(0).getBookIds());
+    Assert.assertNull(found.get(0).getNext());
+    Assert.assertEquals(3, found.get(1).getBookCount());
+    Assert.assertEquals(Arrays.asList(10L, 11L), found.get(1).getBookIds());
+    Assert.assertEquals(Long.valueOf(11L), found.get(1).getNext());
+  }
+
+  @Test
+  public void testChangesAreApplied() {
+    // book 11 moves from authors 1 and 2 to author 3
+    authorBooksService.bookSaved(11L, Collections.singletonList(author(3L)));
+    authorBooksService.bookSaved(13L, Arrays.asList(author(2L), author(1L)));
+    authorBooksService.bookDeleted(10L);
+    Assert.assertEquals(Arrays.asList(12L, 13L), authorBooksService.findBookIds(1L, 0, 10));
+    Assert.assertEquals(Collections.singletonList(13L),
+        authorBooksService.findBookIds(2L, 0, 10));
+    Assert.assertEquals(Collections.singletonList(11L),
+        authorBooksService.findBookIds(3L, 0, 10));
+
+    authorBooksService.authorCreated(4L);
+    Assert.assertTrue(authorBooksService.findBookIds(4L, 0, 10).isEmpty());
+  }
+
+  private static Author author(long id) {
+    Author author = new Author("First", "Last");
+    author.setId(id);
+    return author;
+  }
+}
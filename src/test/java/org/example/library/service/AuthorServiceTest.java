@@ -10,12 +10,15 @@ import java.util.List;
 import java.util.Optional;
 import org.example.library.entities.Author;
 import org.example.library.repositories.AuthorRepository;
+import org.example.library.repositories.FieldProjectionRepository;
+import org.example.library.service.dto.AuthorDTO;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.PageRequest;
 
 public class AuthorServiceTest {
   private AuthorService authorService;
@@ -26,7 +29,9 @@ public class AuthorServiceTest {
   @Before
   public void setUp() {
     authorRepository = Mockito.mock(AuthorRepository.class);
-    authorService = new AuthorService(authorRepository);
+    authorService = new AuthorService(authorRepository, new DtoCache<>("maximumSize=100"),
+        Mockito.mock(FieldProjectionRepository.class), Mockito.mock(AuthorBooksService.class),
+        Mockito.mock(ChangeFeedService.class), Mockito.mock(NameSearchService.class));
 
     author = new Author("Alex", "Pushkin");
     author.setId(99L);
@@ -199,4 +204,29 @@ public class AuthorServiceTest {
   public void testFindByLastNameValidationException2() {
     authorService.findByLastName("");
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testFindByLastNamePageSuccess() {
+    AuthorDTO dto = new AuthorDTO(author.getId(), author.getFirstName(), author.getLastName());
+    when(authorRepository.findByLastNameAfter(author.getLastName(), 10L, PageRequest.of(0, 5)))
+        .thenReturn(Collections.singletonList(dto));
+
+    List<AuthorDTO> result = authorService.findByLastName(author.getLastName(), 10L, 5);
+
+    Assert.assertEquals(1, result.size());
+    Assert.assertSame(dto, result.get(0));
+  }
+
+  @Test
+  public void testFindByLastNamePageValidationException() {
+    int[] limits = {0, -1, Paging.MAX_LIMIT + 1};
+    for (int limit : limits) {
+      try {
+        authorService.findByLastName(author.getLastName(), 0L, limit);
+      } catch (IllegalArgumentException ex) {
+        continue;
+      }
+      Assert.fail();
+    }
+  }
+}
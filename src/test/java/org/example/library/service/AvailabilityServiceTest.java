@@ -0,0 +1,115 @@
+package org.example.library.service;
+
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.example.library.repositories.BookRepository;
+import org.example.library.repositories.TakenBookRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class AvailabilityServiceTest {
+  private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+
+  private AvailabilityService availabilityService;
+
+  @Before
+  public void setUp() {
+    BookRepository bookRepository = Mockito.mock(BookRepository.class);
+    TakenBookRepository takenBookRepository = Mockito.mock(TakenBookRepository.class);
+    availabilityService = new AvailabilityService(bookRepository, takenBookRepository,
+        Mockito.mock(PlatformTransactionManager.class));
+
+    when(bookRepository.findAllIds()).thenReturn(Arrays.asList(1L, 2L, 3L));
+    when(takenBookRepository.streamAllPeriods()).thenReturn(Stream.of(
+        new Object[] {1L, 10L, MARCH_1, day(10)},
+        new Object[] {1L, 11L, day(4), day(6)},
+        new Object[] {1L, 12L, day(20), day(25)},
+        new Object[] {2L, 20L, day(5), null}));
+    availabilityService.rebuild();
+  }
+
+  @Test
+  public void testIsAvailable() {
+    Assert.assertTrue(availabilityService.isAvailable(1L, day(10), day(20)));
+    Assert.assertTrue(availabilityService.isAvailable(1L, day(25), day(30)));
+    Assert.assertFalse(availabilityService.isAvailable(1L, day(9), day(11)));
+    // contained in the first loan, after the second one ended
+    Assert.assertFalse(availabilityService.isAvailable(1L, day(7), day(8)));
+    Assert.assertFalse(availabilityService.isAvailable(1L, day(19), day(21)));
+    Assert.assertTrue(availabilityService.isAvailable(2L, MARCH_1, day(5)));
+    Assert.assertFalse(availabilityService.isAvailable(2L, LocalDate.of(2030, 1, 1),
+        LocalDate.of(2030, 1, 2)));
+    Assert.assertTrue(availabilityService.isAvailable(3L, MARCH_1, day(30)));
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testIsAvailableUnknownBook() {
+    availabilityService.isAvailable(4L, MARCH_1, day(2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIsAvailableEmptyPeriod() {
+    availabilityService.isAvailable(1L, day(2), day(2));
+  }
+
+  @Test
+  public void testFindAvailableBooks() {
+    Assert.assertEquals(Arrays.asList(1L, 2L, 3L),
+        availabilityService.findAvailableBooks(MARCH_1.minusMonths(1), MARCH_1, 0, 10));
+    Assert.assertEquals(Arrays.asList(1L, 3L),
+        availabilityService.findAvailableBooks(day(12), day(14), 0, 10));
+    Assert.assertEquals(Collections.singletonList(3L),
+        availabilityService.findAvailableBooks(day(5), day(6), 0, 10));
+    Assert.assertEquals(Collections.singletonList(1L),
+        availabilityService.findAvailableBooks(MARCH_1.minusMonths(1), MARCH_1, 0, 1));
+    Assert.assertEquals(Arrays.asList(2L, 3L),
+        availabilityService.findAvailableBooks(MARCH_1.minusMonths(1), MARCH_1, 1, 10));
+  }
+
+  @Test
+  public void testChangesAreApplied() {
+    availabilityService.loanSaved(3L, 30L, day(12), day(14));
+    Assert.assertFalse(availabilityService.isAvailable(3L, day(13), day(14)));
+
+    availabilityService.loanSaved(3L, 30L, day(15), day(16));
+    Assert.assertTrue(availabilityService.isAvailable(3L, day(13), day(14)));
+    Assert.assertFalse(availabilityService.isAvailable(3L, day(15), day(16)));
+
+    availabilityService.loanDeleted(1L, 10L);
+    Assert.assertTrue(availabilityService.isAvailable(1L, day(7), day(8)));
+
+    availabilityService.bookCreated(4L);
+    Assert.assertTrue(availabilityService.isAvailable(4L, MARCH_1, day(2)));
+
+    availabilityService.bookDeleted(2L);
+    Assert.assertEquals(Arrays.asList(1L, 3L, 4L),
+        availabilityService.findAvailableBooks(MARCH_1, day(2), 0, 10));
+  }
+
+  @Test
+  public void testListenersHearLoanChanges() {
+    List<Long> changed = new ArrayList<>();
+    availabilityService.addListener(bookId -> {
+      // the change is applied first
+      Assert.assertFalse(availabilityService.isAvailable(bookId, day(12), day(13)));
+      changed.add(bookId);
+    });
+    availabilityService.loanSaved(3L, 30L, day(12), day(14));
+    availabilityService.loanSaved(1L, 13L, day(12), day(13));
+    availabilityService.bookCreated(4L);
+    Assert.assertEquals(Arrays.asList(3L, 1L), changed);
+  }
+
+  private static LocalDate day(int dayOfMarch) {
+    return MARCH_1.withDayOfMonth(dayOfMarch);
+  }
+}
@@ -49,7 +49,10 @@ public class BookServiceTest {
   public void setUp() {
     bookRepository = Mockito.mock(BookRepository.class);
     authorRepository = Mockito.mock(AuthorRepository.class);
-    bookService = new BookService(bookRepository, authorRepository);
+    bookService = new BookService(bookRepository, authorRepository,
+        new DtoCache<>("maximumSize=100"), Mockito.mock(AvailabilityService.class),
+        Mockito.mock(TitleSearchService.class), Mockito.mock(AuthorBooksService.class),
+        Mockito.mock(ChangeFeedService.class));
 
     author = new Author("Craig", "Walls");
     author.setId(99L);
@@ -172,7 +175,7 @@ public class BookServiceTest {
 
   @Test
   public void testFindByIdSuccess() {
-    when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+    when(bookRepository.findWithAuthorsById(book.getId())).thenReturn(Optional.of(book));
 
     Book result = bookService.findById(book.getId());
 
@@ -186,7 +189,7 @@ public class BookServiceTest {
 
   @Test
   public void testFindByIdSuccessNotFound() {
-    when(bookRepository.findById(any())).thenReturn(Optional.empty());
+    when(bookRepository.findWithAuthorsById(any())).thenReturn(Optional.empty());
 
     Book result = bookService.findById(1L);
     Assert.assertNull(result);
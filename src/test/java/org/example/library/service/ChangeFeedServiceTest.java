@@ -0,0 +1,142 @@
+package org.example.library.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.example.library.entities.ChangeEvent;
+import org.example.library.entities.ChangeOperation;
+import org.example.library.entities.ChangedEntity;
+import org.example.library.repositories.ChangeEventRepository;
+import org.example.library.service.dto.ChangeEventDTO;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ChangeFeedServiceTest {
+  private ChangeEventRepository changeEventRepository;
+  private ChangeFeedService changeFeedService;
+
+  @Before
+  public void setUp() {
+    changeEventRepository = Mockito.mock(ChangeEventRepository.class);
+    changeFeedService = new ChangeFeedService(changeEventRepository,
+        Mockito.mock(PlatformTransactionManager.class), 3);
+    when(changeEventRepository.findMaxId()).thenReturn(10L);
+    changeFeedService.init();
+  }
+
+  @After
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void testEventsAreReadOnceCommitted() {
+    List<TransactionSynchronization> first = record(1L);
+    List<TransactionSynchronization> second = record(2L);
+    verify(changeEventRepository, Mockito.times(2)).append(any(ChangeEvent.class));
+    Assert.assertTrue(changeFeedService.read(0, 10).isEmpty());
+
+    // the later transaction commits first, its event waits for the earlier one
+    complete(second, TransactionSynchronization.STATUS_COMMITTED);
+    Assert.assertTrue(changeFeedService.read(10, 10).isEmpty());
+
+    complete(first, TransactionSynchronization.STATUS_COMMITTED);
+    List<ChangeEventDTO> events = changeFeedService.read(10, 10);
+    Assert.assertEquals(offsets(11, 12), offsets(events));
+    Assert.assertEquals("BOOK", events.get(0).getEntity());
+    Assert.assertEquals(1L, events.get(0).getEntityId());
+    Assert.assertEquals("UPDATED", events.get(0).getOperation());
+    Assert.assertEquals(offsets(12), offsets(changeFeedService.read(11, 10)));
+  }
+
+  @Test
+  public void testRolledBackEventIsSkipped() {
+    List<TransactionSynchronization> rolledBack = record(1L);
+    complete(record(2L), TransactionSynchronization.STATUS_COMMITTED);
+    complete(rolledBack, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    Assert.assertEquals(offsets(12), offsets(changeFeedService.read(10, 10)));
+  }
+
+  @Test
+  public void testOldEventsAreReadFromTable() {
+    for (long id = 1; id <= 5; id++) {
+      complete(record(id), TransactionSynchronization.STATUS_COMMITTED);
+    }
+    // only offsets 13 to 15 are kept in memory
+    Assert.assertEquals(offsets(13, 14), offsets(changeFeedService.read(12, 2)));
+    Mockito.verify(changeEventRepository, Mockito.never()).findBetween(
+        Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt());
+
+    when(changeEventRepository.findBetween(11, 16, 2)).thenReturn(Collections.singletonList(
+        new ChangeEvent(12L, ChangedEntity.BOOK, 2L, ChangeOperation.UPDATED, 1L, Instant.now())));
+    Assert.assertEquals(offsets(12), offsets(changeFeedService.read(11, 2)));
+  }
+
+  @Test
+  public void testAwaitIsWokenByCommit() {
+    List<List<ChangeEventDTO>> received = new ArrayList<>();
+    changeFeedService.await(10, 10, received::add);
+    List<TransactionSynchronization> first = record(1L);
+    Assert.assertTrue(received.isEmpty());
+
+    complete(first, TransactionSynchronization.STATUS_COMMITTED);
+    Assert.assertEquals(1, received.size());
+    Assert.assertEquals(offsets(11), offsets(received.get(0)));
+
+    Runnable cancel = changeFeedService.await(11, 10, received::add);
+    cancel.run();
+    complete(record(2L), TransactionSynchronization.STATUS_COMMITTED);
+    Assert.assertEquals(1, received.size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testRecordNeedsTransaction() {
+    changeFeedService.record(ChangedEntity.BOOK, 1L, ChangeOperation.CREATED, 0L);
+  }
+
+  /**
+   * Records an event as its own transaction would and returns that transaction's synchronizations.
+   */
+  private List<TransactionSynchronization> record(long bookId) {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      changeFeedService.record(ChangedEntity.BOOK, bookId, ChangeOperation.UPDATED, 1L);
+      return TransactionSynchronizationManager.getSynchronizations();
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  private static void complete(List<TransactionSynchronization> synchronizations, int status) {
+    for (TransactionSynchronization synchronization : synchronizations) {
+      synchronization.afterCompletion(status);
+    }
+  }
+
+  private static List<Long> offsets(long... offsets) {
+    List<Long> list = new ArrayList<>();
+    for (long offset : offsets) {
+      list.add(offset);
+    }
+    return list;
+  }
+
+  private static List<Long> offsets(List<ChangeEventDTO> events) {
+    return events.stream().map(ChangeEventDTO::getOffset).collect(Collectors.toList());
+  }
+}
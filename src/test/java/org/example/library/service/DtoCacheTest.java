@@ -0,0 +1,108 @@
+package org.example.library.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class DtoCacheTest {
+  private DtoCache<String> dtoCache;
+  private AtomicInteger loads;
+
+  @Before
+  public void setUp() {
+    dtoCache = new DtoCache<>("maximumSize=100");
+    loads = new AtomicInteger();
+  }
+
+  @After
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void testGetLoadsOnce() {
+    Assert.assertEquals("book 1", dtoCache.get(1L, this::load));
+    Assert.assertEquals("book 1", dtoCache.get(1L, this::load));
+
+    Assert.assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void testGetDoesNotCacheMissing() {
+    Assert.assertNull(dtoCache.get(1L, id -> null));
+
+    Assert.assertEquals("book 1", dtoCache.get(1L, this::load));
+  }
+
+  @Test
+  public void testConcurrentGetLoadsOnce() throws Exception {
+    int threads = 16;
+    CountDownLatch started = new CountDownLatch(threads);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(() -> {
+          started.countDown();
+          return dtoCache.get(1L, id -> {
+            await(release);
+            return load(id);
+          });
+        }));
+      }
+      Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+      release.countDown();
+      for (Future<String> result : results) {
+        Assert.assertEquals("book 1", result.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Assert.assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void testEvictAfterTransactionCompletion() {
+    dtoCache.get(1L, this::load);
+    TransactionSynchronizationManager.initSynchronization();
+
+    dtoCache.evict(1L);
+    // a reader racing with the writer caches the old state again
+    dtoCache.get(1L, this::load);
+    for (TransactionSynchronization synchronization :
+        TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+    }
+    dtoCache.get(1L, this::load);
+
+    Assert.assertEquals(3, loads.get());
+  }
+
+  private String load(Long id) {
+    loads.incrementAndGet();
+    return "book " + id;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package org.example.library.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LongObjectMapTest {
+
+  @Test
+  public void testMatchesHashMap() {
+    LongObjectMap<String> map = new LongObjectMap<>();
+    Map<Long, String> expected = new HashMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 100_000; i++) {
+      // a narrow key range makes puts, overwrites and removals of the same keys collide often
+      long key = random.nextInt(2_000) - 1_000;
+      if (random.nextInt(3) == 0) {
+        map.remove(key);
+        expected.remove(key);
+      } else {
+        map.put(key, "v" + i);
+        expected.put(key, "v" + i);
+      }
+    }
+
+    Assert.assertEquals(expected.size(), map.size());
+    for (long key = -1_000; key < 1_000; key++) {
+      Assert.assertEquals(expected.get(key), map.get(key));
+    }
+    Map<Long, String> visited = new HashMap<>();
+    map.forEach(visited::put);
+    Assert.assertEquals(expected, visited);
+  }
+}
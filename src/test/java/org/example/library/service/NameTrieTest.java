@@ -0,0 +1,82 @@
+package org.example.library.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NameTrieTest {
+  private NameTrie trie;
+
+  @Before
+  public void setUp() {
+    trie = new NameTrie();
+    trie.put(1L, "Lev", "Tolstoy");
+    trie.put(2L, "Aleksey", "Tolstoy");
+    trie.put(3L, "Fyodor", "Mikhailovich", "Dostoevsky");
+    trie.put(4L, "Aleksey", null, "Tolstoyevsky");
+    trie.put(5L, "Пётр", "Ершов");
+  }
+
+  @Test
+  public void testPrefix() {
+    Assert.assertEquals(Arrays.asList(1L, 2L, 4L), ids(search("TOL")));
+    Assert.assertEquals(Collections.singletonList(3L), ids(search("mikh")));
+  }
+
+  @Test
+  public void testExactBeforePrefix() {
+    List<NameSearchHit> hits = search("tolstoy");
+    Assert.assertEquals(Arrays.asList(1L, 2L, 4L), ids(hits));
+    Assert.assertEquals(1, hits.get(0).getScore(), 0);
+    Assert.assertTrue(hits.get(2).getScore() < 1);
+  }
+
+  @Test
+  public void testAllWordsMatch() {
+    Assert.assertEquals(Arrays.asList(2L, 4L), ids(search("aleksey tolstoy")));
+    Assert.assertEquals(Arrays.asList(2L, 4L), ids(search("tol alek")));
+    Assert.assertTrue(search("lev dostoevsky").isEmpty());
+  }
+
+  @Test
+  public void testFuzzy() {
+    Assert.assertEquals(Collections.singletonList(3L), ids(search("dostoyevskiy")));
+    Assert.assertEquals(Arrays.asList(1L, 2L), ids(search("tolstoi")));
+    // too short to allow an edit
+    Assert.assertTrue(search("lew").isEmpty());
+  }
+
+  @Test
+  public void testCaseAndDiacritics() {
+    Assert.assertEquals(Collections.singletonList(5L), ids(search("петр ершов")));
+    Assert.assertEquals(Collections.singletonList(5L), ids(search("ЕРШ")));
+  }
+
+  @Test
+  public void testLimit() {
+    Assert.assertEquals(Arrays.asList(1L, 2L), ids(trie.search(TitleAnalyzer.words("tol"), 2)));
+  }
+
+  @Test
+  public void testUpdateAndRemove() {
+    trie.put(1L, "Leo", "Tolstoy");
+    trie.remove(2L);
+    Assert.assertEquals(4, trie.size());
+    Assert.assertTrue(search("lev").isEmpty());
+    Assert.assertEquals(Collections.singletonList(1L), ids(search("leo")));
+    Assert.assertEquals(Arrays.asList(1L, 4L), ids(search("tolstoy")));
+    Assert.assertEquals(Collections.singletonList(4L), ids(search("aleksey")));
+  }
+
+  private List<NameSearchHit> search(String query) {
+    return trie.search(TitleAnalyzer.words(query), 10);
+  }
+
+  private static List<Long> ids(List<NameSearchHit> hits) {
+    return hits.stream().map(NameSearchHit::getId).collect(Collectors.toList());
+  }
+}
@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Optional;
 import org.example.library.entities.Gender;
 import org.example.library.entities.Reader;
+import org.example.library.repositories.FieldProjectionRepository;
 import org.example.library.repositories.ReaderRepository;
 import org.junit.Assert;
 import org.junit.Before;
@@ -29,7 +30,9 @@ public class ReaderServiceTest {
   @Before
   public void setUp() {
     readerRepository = Mockito.mock((ReaderRepository.class));
-    readerService = new ReaderService(readerRepository);
+    readerService = new ReaderService(readerRepository, new DtoCache<>("maximumSize=100"),
+        Mockito.mock(FieldProjectionRepository.class), Mockito.mock(ChangeFeedService.class),
+        Mockito.mock(NameSearchService.class));
 
     reader = new Reader("Max", "Sergeevich", "Petrov", Gender.MALE, LocalDate.of(1990, 12, 12));
     reader.setId(99L);
@@ -0,0 +1,100 @@
+package org.example.library.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Book;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.entities.TakenBook;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+public class TakenBookBatchIntegrationTest {
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private TakenBookService takenBookService;
+
+  @Autowired
+  private TakenBookBatchService takenBookBatchService;
+
+  @Test
+  public void testCreateTakenBooksReportsEveryRow() {
+    Author author = authorService.createAuthor("Nikolai", "Gogol");
+    Book book = bookService.createBook("Dead Souls", Collections.singleton(author.getId()), 1842);
+    Reader reader = readerService.createReader("Petr", "Petrovich", "Sidorov", Gender.MALE,
+        LocalDate.of(1985, 5, 5));
+
+    List<TakenBookBatchItem> items = Arrays.asList(
+        new TakenBookBatchItem(reader.getId(), book.getId(), LocalDate.of(2024, 1, 1),
+            LocalDate.of(2024, 1, 10)),
+        new TakenBookBatchItem(-1L, book.getId(), LocalDate.of(2024, 2, 1),
+            LocalDate.of(2024, 2, 10)),
+        new TakenBookBatchItem(reader.getId(), -1L, LocalDate.of(2024, 3, 1),
+            LocalDate.of(2024, 3, 10)),
+        new TakenBookBatchItem(reader.getId(), book.getId(), LocalDate.of(2024, 4, 10),
+            LocalDate.of(2024, 4, 1)),
+        null,
+        new TakenBookBatchItem(reader.getId(), book.getId(), LocalDate.of(2024, 5, 1),
+            LocalDate.of(2024, 5, 10)));
+
+    List<BatchItemResult> results = takenBookBatchService.createTakenBooks(items);
+
+    Assert.assertEquals(items.size(), results.size());
+    Assert.assertTrue(results.get(0).isCreated());
+    Assert.assertEquals("Reader id is not found", results.get(1).getError());
+    Assert.assertEquals("Book id is not found", results.get(2).getError());
+    Assert.assertFalse(results.get(3).isCreated());
+    Assert.assertFalse(results.get(4).isCreated());
+    Assert.assertTrue(results.get(5).isCreated());
+
+    TakenBook created = takenBookService.findById(results.get(5).getId());
+    Assert.assertNotNull(created);
+    Assert.assertEquals(LocalDate.of(2024, 5, 1), created.getDateFrom());
+  }
+
+  @Test
+  public void testCreateTakenBooksAcrossChunks() {
+    Author author = authorService.createAuthor("Ivan", "Turgenev");
+    Book book = bookService.createBook("Fathers and Sons", Collections.singleton(author.getId()),
+        1862);
+    Reader reader = readerService.createReader("Olga", "Ivanovna", "Smirnova", Gender.FEMALE,
+        LocalDate.of(1990, 7, 7));
+
+    List<TakenBookBatchItem> items = new ArrayList<>();
+    LocalDate dateFrom = LocalDate.of(2000, 1, 1);
+    for (int i = 0; i < 1200; i++) {
+      items.add(new TakenBookBatchItem(reader.getId(), book.getId(), dateFrom.plusDays(2L * i),
+          dateFrom.plusDays(2L * i + 1)));
+    }
+
+    List<BatchItemResult> results = takenBookBatchService.createTakenBooks(items);
+
+    Assert.assertEquals(items.size(), results.size());
+    Assert.assertTrue(results.stream().allMatch(BatchItemResult::isCreated));
+    Assert.assertEquals(items.size(), results.stream().map(BatchItemResult::getId).distinct().count());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCreateTakenBooksEmptyBatch() {
+    takenBookBatchService.createTakenBooks(Collections.emptyList());
+  }
+}
@@ -0,0 +1,191 @@
+package org.example.library.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.library.Main;
+import org.example.library.entities.Author;
+import org.example.library.entities.Gender;
+import org.example.library.entities.Reader;
+import org.example.library.entities.TakenBook;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Many threads take a few books for random, mostly overlapping periods, through both the single
+ * and the batch path; no book may end up taken twice for the same day.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Main.class)
+public class TakenBookConcurrencyIntegrationTest {
+  private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+  private static final LocalDate START = LocalDate.of(2030, 1, 1);
+  private static final AtomicInteger NUMBER = new AtomicInteger();
+
+  @Autowired
+  private AuthorService authorService;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private ReaderService readerService;
+
+  @Autowired
+  private TakenBookService takenBookService;
+
+  @Autowired
+  private TakenBookBatchService takenBookBatchService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  public void testConcurrentLoansNeverOverlap() throws Exception {
+    List<Long> bookIds = createBooks(3);
+    Reader reader = createReader();
+
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      boolean batch = t % 2 == 1;
+      tasks.add(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int created = 0;
+        for (int i = 0; i < 20; i++) {
+          if (batch) {
+            List<TakenBookBatchItem> items = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+              LocalDate dateFrom = START.plusDays(random.nextInt(120));
+              items.add(new TakenBookBatchItem(reader.getId(),
+                  bookIds.get(random.nextInt(bookIds.size())), dateFrom,
+                  dateFrom.plusDays(1 + random.nextInt(10))));
+            }
+            created += (int) takenBookBatchService.createTakenBooks(items).stream()
+                .filter(BatchItemResult::isCreated).count();
+          } else {
+            LocalDate dateFrom = START.plusDays(random.nextInt(120));
+            try {
+              takenBookService.createTakenBook(reader.getId(),
+                  bookIds.get(random.nextInt(bookIds.size())), dateFrom,
+                  dateFrom.plusDays(1 + random.nextInt(10)));
+              created++;
+            } catch (IllegalArgumentException ex) {
+              Assert.assertEquals(TakenBookService.BOOK_IS_TAKEN, ex.getMessage());
+            }
+          }
+        }
+        return created;
+      });
+    }
+
+    int created = runAll(tasks).stream().mapToInt(Integer::intValue).sum();
+
+    Assert.assertTrue(created > 0);
+    Assert.assertEquals(created, countLoans(bookIds));
+    Assert.assertEquals(0, countOverlappingPairs(bookIds));
+  }
+
+  /**
+   * Each loan locks only its own book: two loans of different books, kept open in outer
+   * transactions, meet at a barrier. Had the second one waited for the first to commit, the
+   * barrier would time out.
+   */
+  @Test
+  public void testLoansOfDifferentBooksProceedInParallel() throws Exception {
+    List<Long> bookIds = createBooks(2);
+    Reader reader = createReader();
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    CyclicBarrier inTransaction = new CyclicBarrier(bookIds.size());
+    List<Callable<Long>> tasks = new ArrayList<>();
+    for (Long bookId : bookIds) {
+      tasks.add(() -> transactionTemplate.execute(status -> {
+        TakenBook takenBook = takenBookService.createTakenBook(reader.getId(), bookId, START,
+            START.plusDays(1));
+        try {
+          inTransaction.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+          throw new IllegalStateException("Loans of different books did not run in parallel", e);
+        }
+        return takenBook.getId();
+      }));
+    }
+
+    runAll(tasks);
+
+    Assert.assertEquals(bookIds.size(), countLoans(bookIds));
+  }
+
+  private <T> List<T> runAll(List<Callable<T>> tasks) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+    try {
+      CountDownLatch ready = new CountDownLatch(tasks.size());
+      List<Future<T>> futures = new ArrayList<>();
+      for (Callable<T> task : tasks) {
+        futures.add(executor.submit(() -> {
+          ready.countDown();
+          ready.await();
+          return task.call();
+        }));
+      }
+      List<T> results = new ArrayList<>();
+      for (Future<T> future : futures) {
+        results.add(future.get(2, TimeUnit.MINUTES));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private List<Long> createBooks(int count) {
+    Author author = authorService.createAuthor("Anton", "Chekhov " + NUMBER.incrementAndGet());
+    List<Long> bookIds = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      bookIds.add(bookService.createBook("The Cherry Orchard " + NUMBER.incrementAndGet(),
+          Collections.singleton(author.getId()), 1904).getId());
+    }
+    return bookIds;
+  }
+
+  private Reader createReader() {
+    return readerService.createReader("Anna", "Petrovna", "Kuznetsova " + NUMBER.incrementAndGet(),
+        Gender.FEMALE, LocalDate.of(1995, 1, 1));
+  }
+
+  private int countLoans(List<Long> bookIds) {
+    return new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject(
+        "SELECT COUNT(*) FROM TAKEN_BOOK WHERE book_id IN (:ids)",
+        Collections.singletonMap("ids", bookIds), Integer.class);
+  }
+
+  private int countOverlappingPairs(List<Long> bookIds) {
+    return new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject(
+        "SELECT COUNT(*) FROM TAKEN_BOOK a JOIN TAKEN_BOOK b ON a.book_id = b.book_id "
+            + "AND a.id < b.id AND a.date_from < b.date_to AND b.date_from < a.date_to "
+            + "WHERE a.book_id IN (:ids)",
+        Collections.singletonMap("ids", bookIds), Integer.class);
+  }
+}
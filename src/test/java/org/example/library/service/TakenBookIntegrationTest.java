@@ -9,6 +9,7 @@ import org.example.library.entities.Book;
 import org.example.library.entities.Gender;
 import org.example.library.entities.Reader;
 import org.example.library.entities.TakenBook;
+import org.example.library.service.dto.TakenBookDTO;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -67,19 +68,17 @@ public class TakenBookIntegrationTest {
     Assert.assertEquals(LocalDate.of(2024, 3, 3), takenBook.getDateFrom());
     Assert.assertEquals(LocalDate.of(2024, 4, 3), takenBook.getDateTo());
 
-    List<TakenBook> takenBooks = takenBookService.findByReaderAndPeriod(reader.getId(), LocalDate.of(2024, 3, 1),
+    List<TakenBookDTO> takenBooks = takenBookService.findByReaderAndPeriod(reader.getId(), LocalDate.of(2024, 3, 1),
         LocalDate.of(2024, 3, 5));
     Assert.assertNotNull(takenBooks);
     Assert.assertEquals(1, takenBooks.size());
-    takenBook = takenBooks.get(0);
-    Assert.assertNotNull(takenBook);
-    Assert.assertNotNull(takenBook.getId());
-    Assert.assertNotNull(takenBook.getBook());
-    Assert.assertEquals(book.getId(), takenBook.getBook().getId());
-    Assert.assertNotNull(takenBook.getReader());
-    Assert.assertEquals(reader.getId(), takenBook.getReader().getId());
-    Assert.assertEquals(LocalDate.of(2024, 3, 3), takenBook.getDateFrom());
-    Assert.assertEquals(LocalDate.of(2024, 4, 3), takenBook.getDateTo());
+    TakenBookDTO found = takenBooks.get(0);
+    Assert.assertNotNull(found);
+    Assert.assertEquals(takenBook.getId(), found.getId());
+    Assert.assertEquals(book.getId(), found.getBookId());
+    Assert.assertEquals(reader.getId(), found.getReaderId());
+    Assert.assertEquals(LocalDate.of(2024, 3, 3), found.getDateFrom());
+    Assert.assertEquals(LocalDate.of(2024, 4, 3), found.getDateTo());
 
     takenBooks = takenBookService.findByReaderAndPeriod(reader.getId(), LocalDate.of(2024, 3, 5),
         LocalDate.of(2024, 3, 10));
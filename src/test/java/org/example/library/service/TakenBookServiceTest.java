@@ -2,6 +2,8 @@ package org.example.library.service;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -16,8 +18,10 @@ import org.example.library.entities.Reader;
 import org.example.library.entities.TakenBook;
 import org.example.library.repositories.AuthorRepository;
 import org.example.library.repositories.BookRepository;
+import org.example.library.repositories.FieldProjectionRepository;
 import org.example.library.repositories.ReaderRepository;
 import org.example.library.repositories.TakenBookRepository;
+import org.example.library.service.dto.TakenBookDTO;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -60,7 +64,9 @@ public class TakenBookServiceTest {
     readerRepository = Mockito.mock(ReaderRepository.class);
     authorRepository = Mockito.mock(AuthorRepository.class);
     bookRepository = Mockito.mock(BookRepository.class);
-    takenBookService = new TakenBookService(bookRepository, readerRepository, takenBookRepository);
+    takenBookService = new TakenBookService(bookRepository, readerRepository, takenBookRepository,
+        Mockito.mock(AvailabilityService.class), Mockito.mock(FieldProjectionRepository.class),
+        Mockito.mock(ChangeFeedService.class));
 
     Author author = new Author("Craig", "Walls");
     author.setId(99L);
@@ -69,7 +75,7 @@ public class TakenBookServiceTest {
 
     book = new Book("Spring in action", authors, 2022);
     book.setId(199L);
-    when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+    when(bookRepository.findByIdForUpdate(book.getId())).thenReturn(Optional.of(book));
 
     reader = new Reader("Max", "Sergeevich", "Petrov", Gender.MALE, LocalDate.of(1990, 12, 12));
     reader.setId(299L);
@@ -137,6 +143,34 @@ public class TakenBookServiceTest {
     Assert.fail();
   }
 
+  @Test
+  public void testCreateTakenBookOverlapping() {
+    when(takenBookRepository.countOverlapping(book.getId(), LocalDate.of(2024, 3, 20),
+        LocalDate.of(2024, 3, 25), 0L)).thenReturn(1L);
+
+    try {
+      takenBookService.createTakenBook(reader.getId(), book.getId(),
+          LocalDate.of(2024, 3, 20), LocalDate.of(2024, 3, 25));
+    } catch (IllegalArgumentException ex) {
+      Assert.assertEquals(TakenBookService.BOOK_IS_TAKEN, ex.getMessage());
+      verify(takenBookRepository, never()).saveAndFlush(any());
+      return;
+    }
+    Assert.fail();
+  }
+
+  @Test
+  public void testUpdateTakenBookIgnoresItselfOnOverlapCheck() {
+    when(takenBookRepository.findById(takenBook.getId())).thenReturn(Optional.of(takenBook));
+    when(takenBookRepository.saveAndFlush(any())).thenReturn(takenBook);
+
+    takenBookService.updateTakenBook(takenBook.getId(), reader.getId(), book.getId(),
+        takenBook.getDateFrom(), takenBook.getDateTo());
+
+    verify(takenBookRepository).countOverlapping(book.getId(), takenBook.getDateFrom(),
+        takenBook.getDateTo(), takenBook.getId());
+  }
+
   @Test
   public void testUpdateTakenBookSuccess() {
     when(takenBookRepository.findById(takenBook.getId())).thenReturn(Optional.of(takenBook));
@@ -257,17 +291,19 @@ public class TakenBookServiceTest {
     LocalDate dateFrom = LocalDate.of(2024, 3, 5);
     LocalDate dateTo = LocalDate.of(2024, 4, 6);
     when(takenBookRepository.findByReaderAndPeriod(readerId, dateFrom, dateTo))
-        .thenReturn(Collections.singletonList(takenBook));
+        .thenReturn(Collections.singletonList(new TakenBookDTO(takenBook.getId(), reader.getId(),
+            book.getId(), takenBook.getDateFrom(), takenBook.getDateTo())));
 
-    List<TakenBook> takenBooks = takenBookService.findByReaderAndPeriod(readerId, dateFrom, dateTo);
+    List<TakenBookDTO> takenBooks =
+        takenBookService.findByReaderAndPeriod(readerId, dateFrom, dateTo);
 
     Assert.assertNotNull(takenBooks);
     Assert.assertEquals(1, takenBooks.size());
-    TakenBook actual = takenBooks.get(0);
+    TakenBookDTO actual = takenBooks.get(0);
     Assert.assertNotNull(actual);
     Assert.assertEquals(actual.getId(), takenBook.getId());
-    Assert.assertSame(actual.getBook(), takenBook.getBook());
-    Assert.assertSame(actual.getReader(), takenBook.getReader());
+    Assert.assertEquals(actual.getBookId(), takenBook.getBook().getId());
+    Assert.assertEquals(actual.getReaderId(), takenBook.getReader().getId());
     Assert.assertSame(actual.getDateFrom(), takenBook.getDateFrom());
     Assert.assertSame(actual.getDateTo(), takenBook.getDateTo());
   }
@@ -280,7 +316,7 @@ public class TakenBookServiceTest {
     when(takenBookRepository.findByReaderAndPeriod(readerId, dateFrom, dateTo))
         .thenReturn(Collections.emptyList());
 
-    List<TakenBook> result = takenBookService.findByReaderAndPeriod(readerId, dateFrom, dateTo);
+    List<TakenBookDTO> result = takenBookService.findByReaderAndPeriod(readerId, dateFrom, dateTo);
     Assert.assertNotNull(result);
     Assert.assertEquals(0, result.size());
   }
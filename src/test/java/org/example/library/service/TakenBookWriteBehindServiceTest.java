@@ -0,0 +1,137 @@
+package org.example.library.service;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TakenBookWriteBehindServiceTest {
+  private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+  private static final LocalDate MARCH_5 = LocalDate.of(2024, 3, 5);
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final List<Integer> batchSizes = new ArrayList<>();
+  private TakenBookWriteBehindService service;
+
+  @Before
+  public void setUp() {
+    TakenBookBatchService batchService = Mockito.mock(TakenBookBatchService.class);
+    when(batchService.createTakenBooks(anyList())).thenAnswer(invocation -> {
+      release.await();
+      List<TakenBookBatchItem> items = invocation.getArgument(0);
+      batchSizes.add(items.size());
+      List<BatchItemResult> results = new ArrayList<>();
+      for (TakenBookBatchItem item : items) {
+        results.add(item.getBookId() > 0 ? BatchItemResult.created(item.getBookId() * 10)
+            : BatchItemResult.failed("Book id is not found"));
+      }
+      return results;
+    });
+    service = new TakenBookWriteBehindService(batchService, true, 3, 1, 10,
+        Duration.ofSeconds(10), "maximumSize=100");
+    service.start();
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    service.stop();
+  }
+
+  @Test
+  public void testQueuedUntilWrittenThenDrainedOnStop() {
+    // the writer takes the first one and blocks in the batch service, three more fill the queue
+    String first = service.accept(1L, 1L, MARCH_1, MARCH_5).getTicket();
+    awaitTaken();
+    List<String> tickets = new ArrayList<>();
+    for (long bookId = 2; bookId <= 4; bookId++) {
+      tickets.add(service.accept(1L, bookId == 3 ? -1L : bookId, MARCH_1, MARCH_5).getTicket());
+    }
+    Assert.assertEquals(TakenBookTicket.Status.QUEUED, service.findTicket(first).getStatus());
+
+    release.countDown();
+    service.stop();
+
+    Assert.assertEquals(Long.valueOf(10L), service.findTicket(first).getTakenBookId());
+    Assert.assertEquals(TakenBookTicket.Status.CREATED,
+        service.findTicket(tickets.get(0)).getStatus());
+    Assert.assertEquals("Book id is not found", service.findTicket(tickets.get(1)).getError());
+    Assert.assertEquals(Long.valueOf(40L), service.findTicket(tickets.get(2)).getTakenBookId());
+    // what queued up while the writer was busy went as one batch
+    Assert.assertEquals(3, (int) batchSizes.get(1));
+  }
+
+  @Test
+  public void testFullQueueRejected() {
+    service.accept(1L, 1L, MARCH_1, MARCH_5);
+    awaitTaken();
+    for (int i = 0; i < 3; i++) {
+      service.accept(1L, 1L, MARCH_1, MARCH_5);
+    }
+    try {
+      service.accept(1L, 1L, MARCH_1, MARCH_5);
+      Assert.fail();
+    } catch (ServiceUnavailableException e) {
+      Assert.assertEquals(Integer.valueOf(1), e.getRetryAfterSeconds());
+    }
+  }
+
+  @Test(expected = ValidationException.class)
+  public void testInvalidRejectedRightAway() {
+    service.accept(1L, 1L, MARCH_5, MARCH_1);
+  }
+
+  @Test(expected = ServiceUnavailableException.class)
+  public void testRejectedAfterStop() {
+    release.countDown();
+    service.stop();
+    service.accept(1L, 1L, MARCH_1, MARCH_5);
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testUnknownTicket() {
+    service.findTicket("42");
+  }
+
+  @Test
+  public void testTicketOfEarlierRunIsUnknown() {
+    release.countDown();
+    String ticket = service.accept(1L, 1L, MARCH_1, MARCH_5).getTicket();
+    service.stop();
+    Assert.assertEquals(TakenBookTicket.Status.CREATED, service.findTicket(ticket).getStatus());
+
+    TakenBookWriteBehindService restarted = new TakenBookWriteBehindService(
+        Mockito.mock(TakenBookBatchService.class), true, 3, 1, 10, Duration.ofSeconds(10),
+        "maximumSize=100");
+    restarted.start();
+    try {
+      String newTicket = restarted.accept(1L, 2L, MARCH_1, MARCH_5).getTicket();
+      Assert.assertNotEquals(ticket, newTicket);
+      restarted.findTicket(ticket);
+      Assert.fail("Ticket of the earlier run is found");
+    } catch (NotFoundException e) {
+      // expected
+    } finally {
+      restarted.stop();
+    }
+  }
+
+  /**
+   * Waits for the writer to take the only queued taken book.
+   */
+  private void awaitTaken() {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (service.queueSize() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.yield();
+    }
+  }
+}
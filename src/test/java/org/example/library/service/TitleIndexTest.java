@@ -0,0 +1,86 @@
+package org.example.library.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TitleIndexTest {
+  private TitleIndex index;
+
+  @Before
+  public void setUp() {
+    index = new TitleIndex();
+    index.put(1L, "The Golden Calf");
+    index.put(2L, "Golden Rain over the Golden River");
+    index.put(3L, "The Calf and the Golden Fleece");
+    index.put(4L, "Мёртвые души");
+  }
+
+  @Test
+  public void testTermsAreFoldedAndStemmed() {
+    Assert.assertEquals(Arrays.asList("the", "twelve", "chair"),
+        TitleAnalyzer.terms("The TWELVE Chairs"));
+    Assert.assertEquals(TitleAnalyzer.terms("мертвых душах"), TitleAnalyzer.terms("Мёртвые души"));
+    Assert.assertEquals(TitleAnalyzer.terms("cafe"), TitleAnalyzer.terms("Café"));
+  }
+
+  @Test
+  public void testRankedByBm25() {
+    // repeating the term outweighs a longer title, a rarer term outweighs a common one
+    Assert.assertEquals(Arrays.asList(2L, 1L, 3L), ids(search("golden")));
+    Assert.assertEquals(Arrays.asList(1L, 3L, 2L), ids(search("golden calf")));
+    Assert.assertEquals(Collections.singletonList(4L), ids(search("мертвая душа")));
+    Assert.assertTrue(search("silver").isEmpty());
+  }
+
+  @Test
+  public void testPhrase() {
+    List<TitleSearchHit> hits = index.search(Collections.emptyList(),
+        Collections.singletonList(TitleAnalyzer.terms("golden calf")), 10);
+    Assert.assertEquals(Collections.singletonList(1L), ids(hits));
+  }
+
+  @Test
+  public void testLimit() {
+    Assert.assertEquals(Arrays.asList(2L, 1L), ids(index.search(
+        TitleAnalyzer.terms("golden"), Collections.emptyList(), 2)));
+  }
+
+  @Test
+  public void testUpdateAndRemove() {
+    index.put(1L, "The Little Golden Calf");
+    index.remove(2L);
+    Assert.assertEquals(Arrays.asList(1L, 3L), ids(search("golden")));
+    Assert.assertEquals(Collections.singletonList(1L), ids(search("little")));
+    Assert.assertTrue(search("river").isEmpty());
+    Assert.assertEquals(3, index.size());
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    index.write(new DataOutputStream(bytes));
+    TitleIndex read = TitleIndex.read(new DataInputStream(
+        new ByteArrayInputStream(bytes.toByteArray())));
+
+    Assert.assertEquals(index.size(), read.size());
+    Assert.assertEquals(ids(search("golden calf")), ids(read.search(
+        TitleAnalyzer.terms("golden calf"), Collections.emptyList(), 10)));
+  }
+
+  private List<TitleSearchHit> search(String query) {
+    return index.search(TitleAnalyzer.terms(query), Collections.emptyList(), 10);
+  }
+
+  private static List<Long> ids(List<TitleSearchHit> hits) {
+    return hits.stream().map(TitleSearchHit::getId).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,21 @@
+package org.example.library.service;
+
+import org.example.library.repositories.BookRepository;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class TitleSearchServiceTest {
+  private final TitleSearchService titleSearchService = new TitleSearchService(
+      Mockito.mock(BookRepository.class), Mockito.mock(PlatformTransactionManager.class), "", 10);
+
+  @Test
+  public void testLimitUpToBatchSize() {
+    titleSearchService.search("garnet", 10);
+  }
+
+  @Test(expected = ValidationException.class)
+  public void testLimitAboveBatchSizeRejected() {
+    titleSearchService.search("garnet", 11);
+  }
+}